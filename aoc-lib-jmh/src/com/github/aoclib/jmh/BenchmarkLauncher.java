@@ -0,0 +1,177 @@
+package com.github.aoclib.jmh;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import com.github.aoclib.db.DBManager;
+import com.github.aoclib.db.SolutionData;
+import com.github.aoclib.solver.DayProvider;
+import com.github.aoclib.solver.ReflectiveDayProvider;
+
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Namespace;
+
+/**
+ * Command line entry point for running {@link DayBenchmark} over every day that
+ * can be resolved.
+ *
+ * A day is benchmarked when the database has a correct solution for the
+ * selected parts, the input is cached and the {@link DayProvider} returns an
+ * implementation for it. The solution classes must be on the classpath, for
+ * example:
+ *
+ * {@code java -cp aoc-lib-jmh.jar:my-solutions.jar com.github.aoclib.jmh.BenchmarkLauncher -u me -y 2021}
+ *
+ * Any of the benchmarks in this module can still be run directly with
+ * {@code org.openjdk.jmh.Main} as well.
+ */
+public class BenchmarkLauncher {
+
+	private static final Map<String, TimeUnit> TIME_UNITS = Map.of(//
+			"ns", TimeUnit.NANOSECONDS, //
+			"us", TimeUnit.MICROSECONDS, //
+			"ms", TimeUnit.MILLISECONDS, //
+			"s", TimeUnit.SECONDS);
+
+	public static void main(String[] args) throws SQLException, RunnerException {
+		ArgumentParser parser = ArgumentParsers.newFor("aoc-lib-jmh").build()//
+				.description("Runs JMH benchmarks for all the solved days of the given years.");
+
+		parser.addArgument("-u", "--user").required(true).help("Local username whose inputs are benchmarked.");
+		parser.addArgument("-y", "--year").type(Integer.class).nargs("+").required(true)
+				.help("One or more years to benchmark.");
+		parser.addArgument("-d", "--day").type(Integer.class).nargs("+").choices(Arguments.range(1, 25))
+				.help("Days to benchmark. Defaults to every day.");
+		parser.addArgument("-p", "--part").choices(List.of("1", "2", "both")).setDefault("both")
+				.help("Which puzzle part to benchmark.");
+		parser.addArgument("--db").setDefault("aoc.db").help("The database that contains the cached inputs.");
+		parser.addArgument("--root").setDefault("solutions.year%d")
+				.help("Package root for the reflective day provider, see ReflectiveDayProvider.setRoot");
+		parser.addArgument("--provider").setDefault("")
+				.help("Fully qualified name of a DayProvider with a no-arg constructor.");
+
+		parser.addArgument("-bm", "--mode").nargs("+").choices(List.of("avgt", "thrpt", "sample", "ss", "all"))
+				.setDefault(List.of("avgt")).help("JMH benchmark modes.");
+		parser.addArgument("-f", "--forks").type(Integer.class).setDefault(1).help("Number of forked JVMs.");
+		parser.addArgument("-wi", "--warmup-iterations").type(Integer.class).setDefault(5)
+				.help("Warmup iterations per fork.");
+		parser.addArgument("-w", "--warmup-time").type(Integer.class).setDefault(1)
+				.help("Duration of a single warmup iteration in seconds.");
+		parser.addArgument("-i", "--iterations").type(Integer.class).setDefault(5)
+				.help("Measurement iterations per fork.");
+		parser.addArgument("-r", "--time").type(Integer.class).setDefault(1)
+				.help("Duration of a single measurement iteration in seconds.");
+		parser.addArgument("-tu", "--time-unit").choices(TIME_UNITS.keySet()).setDefault("us")
+				.help("Output time unit.");
+		parser.addArgument("--jvm-args").nargs("+").help("Additional arguments for the forked JVMs.");
+		parser.addArgument("-rf", "--result-format").choices(List.of("text", "csv", "scsv", "json", "latex"))
+				.help("Also write the results in this format.");
+		parser.addArgument("-rff", "--result-file").help("Target file for --result-format.");
+
+		Namespace ns = null;
+		try {
+			ns = parser.parseArgs(args);
+		} catch (ArgumentParserException e) {
+			parser.handleError(e);
+			System.exit(-1);
+		}
+
+		String user = ns.getString("user");
+		String db = ns.getString("db");
+		String root = ns.getString("root");
+		String providerName = ns.getString("provider");
+		String part = ns.getString("part");
+
+		List<Integer> days = ns.getList("day");
+		if (days == null) {
+			days = IntStream.rangeClosed(1, 25).boxed().toList();
+		}
+
+		DBManager.setFile(db);
+		ReflectiveDayProvider.setRoot(root);
+		DayProvider provider = DayProvider.create(providerName);
+
+		List<String> puzzles = new ArrayList<>();
+		for (int year : ns.<Integer>getList("year")) {
+			for (int day : days) {
+				if (isBenchmarkable(provider, user, year, day, part)) {
+					puzzles.add(year + "/" + day);
+				}
+			}
+		}
+
+		if (puzzles.isEmpty()) {
+			System.err.println("Nothing to benchmark. Only days that are solved and have a cached input are run.");
+			return;
+		}
+		System.out.println("Benchmarking: " + puzzles);
+
+		ChainedOptionsBuilder ob = new OptionsBuilder()//
+				.include(DayBenchmark.class.getName())//
+				.param("puzzle", puzzles.toArray(String[]::new))//
+				.param("user", user)//
+				.param("db", db)//
+				.param("root", root)//
+				.param("provider", providerName)//
+				.forks(ns.getInt("forks"))//
+				.warmupIterations(ns.getInt("warmup_iterations"))//
+				.warmupTime(TimeValue.seconds(ns.getInt("warmup_time")))//
+				.measurementIterations(ns.getInt("iterations"))//
+				.measurementTime(TimeValue.seconds(ns.getInt("time")))//
+				.timeUnit(TIME_UNITS.get(ns.getString("time_unit")));
+
+		if (!part.equals("both")) {
+			ob.param("part", part);
+		}
+		for (String mode : ns.<String>getList("mode")) {
+			ob.mode(Mode.deepValueOf(mode));
+		}
+		List<String> jvmArgs = ns.getList("jvm_args");
+		if (jvmArgs != null) {
+			ob.jvmArgsAppend(jvmArgs.toArray(String[]::new));
+		}
+		String resultFormat = ns.getString("result_format");
+		if (resultFormat != null) {
+			ob.resultFormat(ResultFormatType.valueOf(resultFormat.toUpperCase()));
+			String resultFile = ns.getString("result_file");
+			if (resultFile != null) {
+				ob.result(resultFile);
+			}
+		}
+
+		new Runner(ob.build()).run();
+	}
+
+	/**
+	 * A day can be benchmarked if the selected parts are solved, the input is
+	 * cached and the day is implemented.
+	 */
+	private static boolean isBenchmarkable(DayProvider provider, String user, int year, int day, String part)
+			throws SQLException {
+		SolutionData sd = DBManager.getSolution(year, day, user);
+		boolean solved = switch (part) {
+		case "1" -> sd.firstSolved();
+		case "2" -> sd.secondSolved();
+		default -> sd.bothSolved();
+		};
+		if (!solved || DBManager.getInput(user, year, day).isEmpty()) {
+			return false;
+		}
+		return provider.get(year, day) != DayProvider.NOP;
+	}
+}
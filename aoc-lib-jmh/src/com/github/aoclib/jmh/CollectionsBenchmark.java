@@ -0,0 +1,173 @@
+package com.github.aoclib.jmh;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.aoclib.collections.IntDeque;
+import com.github.aoclib.collections.LongHashSet;
+import com.github.aoclib.collections.LongLongMap;
+import com.github.aoclib.collections.LongPriorityQueue;
+import com.github.aoclib.collections.RadixHeap;
+
+/**
+ * Compares the primitive collections of {@code com.github.aoclib.collections}
+ * to the boxed JDK collections, in the ways solutions use them: counting
+ * packed coordinates, a visited set, a breadth first queue and a Dijkstra
+ * queue with increasing priorities.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollectionsBenchmark {
+
+	@Param({ "100000" })
+	public int size;
+
+	private long[] keys;
+	private long[] priorities;
+
+	@Setup
+	public void setup() {
+		Random r = new Random(42);
+		keys = new long[size];
+		priorities = new long[size];
+		for (int i = 0; i < size; i++) {
+			// packed coordinates of a 500x500 area
+			keys[i] = ((long) r.nextInt(500) << 32) | r.nextInt(500);
+			priorities[i] = r.nextInt(1000);
+		}
+	}
+
+	@Benchmark
+	public long countJdk() {
+		HashMap<Long, Long> counts = new HashMap<>();
+		for (long k : keys) {
+			counts.merge(k, 1L, Long::sum);
+		}
+		return counts.size();
+	}
+
+	@Benchmark
+	public long countPrimitive() {
+		LongLongMap counts = new LongLongMap();
+		for (long k : keys) {
+			counts.addTo(k, 1);
+		}
+		return counts.size();
+	}
+
+	@Benchmark
+	public int visitedJdk() {
+		HashSet<Long> visited = new HashSet<>();
+		int hits = 0;
+		for (long k : keys) {
+			if (!visited.add(k)) {
+				hits++;
+			}
+		}
+		return hits;
+	}
+
+	@Benchmark
+	public int visitedPrimitive() {
+		LongHashSet visited = new LongHashSet();
+		int hits = 0;
+		for (long k : keys) {
+			if (!visited.add(k)) {
+				hits++;
+			}
+		}
+		return hits;
+	}
+
+	@Benchmark
+	public long queueJdk() {
+		ArrayDeque<Integer> queue = new ArrayDeque<>();
+		long sum = 0;
+		for (int i = 0; i < size; i++) {
+			queue.addLast(i);
+			queue.addLast(i + 1);
+			sum += queue.pollFirst();
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long queuePrimitive() {
+		IntDeque queue = new IntDeque();
+		long sum = 0;
+		for (int i = 0; i < size; i++) {
+			queue.addLast(i);
+			queue.addLast(i + 1);
+			sum += queue.pollFirst();
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long dijkstraJdk() {
+		PriorityQueue<long[]> queue = new PriorityQueue<>(Comparator.comparingLong(e -> e[0]));
+		long base = 0;
+		long sum = 0;
+		for (int i = 0; i < size; i++) {
+			queue.add(new long[] { base + priorities[i], keys[i] });
+			if ((i & 1) == 1) {
+				long[] e = queue.poll();
+				base = e[0];
+				sum += e[1];
+			}
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long dijkstraBinaryHeap() {
+		LongPriorityQueue queue = new LongPriorityQueue();
+		long base = 0;
+		long sum = 0;
+		for (int i = 0; i < size; i++) {
+			queue.add(base + priorities[i], keys[i]);
+			if ((i & 1) == 1) {
+				base = queue.peekPriority();
+				sum += queue.poll();
+			}
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long dijkstraRadixHeap() {
+		RadixHeap queue = new RadixHeap();
+		long base = 0;
+		long sum = 0;
+		for (int i = 0; i < size; i++) {
+			queue.add(base + priorities[i], keys[i]);
+			if ((i & 1) == 1) {
+				base = queue.peekPriority();
+				sum += queue.poll();
+			}
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,110 @@
+package com.github.aoclib.jmh;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.github.aoclib.api.InputParser;
+import com.github.aoclib.db.DBManager;
+import com.github.aoclib.solver.DayProvider;
+import com.github.aoclib.solver.DayX;
+import com.github.aoclib.solver.Part;
+import com.github.aoclib.solver.ReflectiveDayProvider;
+
+/**
+ * Wraps any {@link DayX} that a {@link DayProvider} can resolve into a JMH
+ * benchmark.
+ *
+ * The day is selected with the {@code puzzle} parameter in the form
+ * {@code year/day}. The input is read from the locally cached inputs with
+ * {@link DBManager#getInput(String, int, int)}, it is never downloaded during a
+ * benchmark.
+ *
+ * Each forked JVM starts from scratch, so everything that would normally be set
+ * up in the main class (database file, solution package root, custom
+ * {@link DayProvider}) is passed in as a parameter.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DayBenchmark {
+
+	/**
+	 * The puzzle in the form {@code year/day}
+	 */
+	@Param({ "2015/1" })
+	public String puzzle;
+
+	/**
+	 * Which part to run, 1 or 2
+	 */
+	@Param({ "1", "2" })
+	public int part;
+
+	/**
+	 * Local username whose input is used
+	 */
+	@Param({ "" })
+	public String user;
+
+	/**
+	 * The sqlite database containing the cached inputs
+	 */
+	@Param({ "aoc.db" })
+	public String db;
+
+	/**
+	 * Package root for {@link ReflectiveDayProvider}
+	 */
+	@Param({ "solutions.year%d" })
+	public String root;
+
+	/**
+	 * Fully qualified name of a custom {@link DayProvider} with a no-arg
+	 * constructor. Empty string means {@link ReflectiveDayProvider}.
+	 */
+	@Param({ "" })
+	public String provider;
+
+	private DayX solver;
+	private Part selectedPart;
+	private List<String> lines;
+
+	@Setup
+	public void setup() throws SQLException {
+		int separator = puzzle.indexOf('/');
+		int year = Integer.parseInt(puzzle.substring(0, separator));
+		int day = Integer.parseInt(puzzle.substring(separator + 1));
+
+		DBManager.setFile(db);
+		ReflectiveDayProvider.setRoot(root);
+
+		solver = DayProvider.create(provider).get(year, day);
+		if (solver == DayProvider.NOP) {
+			throw new IllegalStateException("No implementation available for " + puzzle);
+		}
+		String input = DBManager.getInput(user, year, day)
+				.orElseThrow(() -> new IllegalStateException("No cached input for " + puzzle + " user:" + user));
+		lines = List.of(input.split("\n"));
+		selectedPart = part == 1 ? Part.FIRST : Part.SECOND;
+	}
+
+	/**
+	 * Each invocation gets a new parser on top of the same cached lines, so the
+	 * parser state does not leak from one invocation to the next.
+	 */
+	@Benchmark
+	public Object solve() {
+		return solver.run(selectedPart, new InputParser(lines));
+	}
+}
@@ -0,0 +1,76 @@
+package com.github.aoclib.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.aoclib.api.InputParser;
+import com.github.aoclib.api.Parallelism;
+import com.github.aoclib.utils.Delimiter;
+
+/**
+ * Finds the input size where parsing in parallel starts to pay off, to check
+ * the line threshold of {@link Parallelism#AUTO}. Compare the sequential and
+ * the parallel score of each {@code lines} value: the crossover is the
+ * smallest size where the parallel one is faster.
+ *
+ * The result depends on the number of cores, run it on the machine that runs
+ * the solutions.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelParseBenchmark {
+
+	@Param({ "1000", "5000", "20000", "100000", "1000000" })
+	public int lines;
+
+	private InputParser parser;
+
+	@Setup
+	public void setup() {
+		Random r = new Random(42);
+		List<String> input = new ArrayList<>(lines);
+		for (int i = 0; i < lines; i++) {
+			input.add(r.nextInt(1000) + "," + r.nextInt(1000) + " -> " + r.nextInt(1000) + "," + r.nextInt(1000));
+		}
+		parser = new InputParser(input);
+	}
+
+	@Benchmark
+	public List<List<Integer>> linesAsListsSequential() {
+		return parser.linesAsLists("[^0-9]+", Integer::parseInt, Parallelism.SEQUENTIAL);
+	}
+
+	@Benchmark
+	public List<List<Integer>> linesAsListsParallel() {
+		return parser.linesAsLists("[^0-9]+", Integer::parseInt, Parallelism.PARALLEL);
+	}
+
+	@Benchmark
+	public List<String[]> getLinesSequential() {
+		return parser.getLines(s -> s.split(Delimiter.WHITESPACE.delimiter), Parallelism.SEQUENTIAL);
+	}
+
+	@Benchmark
+	public List<String[]> getLinesParallel() {
+		return parser.getLines(s -> s.split(Delimiter.WHITESPACE.delimiter), Parallelism.PARALLEL);
+	}
+}
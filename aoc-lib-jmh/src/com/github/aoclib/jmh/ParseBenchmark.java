@@ -0,0 +1,100 @@
+package com.github.aoclib.jmh;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.aoclib.api.ByteInputParser;
+import com.github.aoclib.api.InputParser;
+import com.github.aoclib.utils.Delimiter;
+
+/**
+ * Compares the split based number parsing of {@link InputParser} to the
+ * scanning methods {@link InputParser#ints()} and
+ * {@link InputParser#intsPerLine()}, on both the String and the byte backed
+ * parser.
+ *
+ * The input is generated: {@code lines} lines of {@code perLine} space
+ * separated signed integers.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+	@Param({ "1000", "100000" })
+	public int lines;
+
+	@Param({ "8" })
+	public int perLine;
+
+	private List<String> input;
+	private byte[] bytes;
+
+	@Setup
+	public void setup() {
+		Random r = new Random(42);
+		input = new ArrayList<>(lines);
+		StringBuilder all = new StringBuilder();
+		for (int i = 0; i < lines; i++) {
+			StringBuilder sb = new StringBuilder();
+			for (int j = 0; j < perLine; j++) {
+				if (j > 0) {
+					sb.append(' ');
+				}
+				sb.append(r.nextInt(2_000_000) - 1_000_000);
+			}
+			input.add(sb.toString());
+			all.append(sb).append('\n');
+		}
+		bytes = all.toString().getBytes(StandardCharsets.US_ASCII);
+	}
+
+	@Benchmark
+	public int[] splitSingleIntArray() {
+		return new InputParser(input).asSingleIntArray(Delimiter.WHITESPACE);
+	}
+
+	@Benchmark
+	public int[] scanInts() {
+		return new InputParser(input).ints();
+	}
+
+	@Benchmark
+	public int[] scanIntsBytes() {
+		return new ByteInputParser(bytes).ints();
+	}
+
+	@Benchmark
+	public List<List<Integer>> splitLinesAsLists() {
+		return new InputParser(input).linesAsLists(Delimiter.WHITESPACE, Integer::parseInt);
+	}
+
+	@Benchmark
+	public int[][] scanIntsPerLine() {
+		return new InputParser(input).intsPerLine();
+	}
+
+	@Benchmark
+	public int[][] scanIntsPerLineBytes() {
+		return new ByteInputParser(bytes).intsPerLine();
+	}
+}
@@ -0,0 +1,101 @@
+package com.github.aoclib.jmh;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.aoclib.api.InputParser;
+import com.github.aoclib.machine.InstructionSet;
+import com.github.aoclib.machine.Peepholes;
+import com.github.aoclib.machine.Program;
+import com.github.aoclib.machine.RegisterMachine;
+import com.github.aoclib.utils.Delimiter;
+import com.github.aoclib.utils.Instruction;
+
+/**
+ * Compares interpreting {@link Instruction}s directly to a compiled
+ * {@link Program}, with and without replacing the multiply loop, on an
+ * assembunny program that computes 300 * 1000.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegisterMachineBenchmark {
+
+	private static final List<String> PROGRAM = List.of("cpy 0 a", "cpy 300 b", "cpy 1000 d", "cpy b c", "inc a",
+			"dec c", "jnz c -2", "dec d", "jnz d -5");
+
+	private List<Instruction> instructions;
+	private Program compiled;
+	private Program optimized;
+
+	@Setup
+	public void setup() {
+		InputParser parser = new InputParser(PROGRAM);
+		instructions = parser.as2017Instruction(Delimiter.SPACE);
+		compiled = parser.registerProgram(InstructionSet.assembunny());
+		optimized = compiled.copy().optimize(Peepholes.ASSEMBUNNY);
+	}
+
+	@Benchmark
+	public long interpreted() {
+		long[] r = new long[4];
+		int ip = 0;
+		while (ip >= 0 && ip < instructions.size()) {
+			Instruction in = instructions.get(ip);
+			switch (in.name()) {
+			case "cpy" -> {
+				if (isRegister(in.arg(1))) {
+					r[in.arg(1).charAt(0) - 'a'] = value(r, in.arg(0));
+				}
+			}
+			case "inc" -> r[in.arg(0).charAt(0) - 'a']++;
+			case "dec" -> r[in.arg(0).charAt(0) - 'a']--;
+			case "jnz" -> {
+				if (value(r, in.arg(0)) != 0) {
+					ip += (int) value(r, in.arg(1)) - 1;
+				}
+			}
+			default -> throw new IllegalStateException(in.line);
+			}
+			ip++;
+		}
+		return r[0];
+	}
+
+	private static boolean isRegister(String arg) {
+		return arg.length() == 1 && arg.charAt(0) >= 'a' && arg.charAt(0) <= 'd';
+	}
+
+	private static long value(long[] r, String arg) {
+		return isRegister(arg) ? r[arg.charAt(0) - 'a'] : Long.parseLong(arg);
+	}
+
+	@Benchmark
+	public long compiled() {
+		RegisterMachine m = new RegisterMachine(compiled);
+		m.run();
+		return m.registers[0];
+	}
+
+	@Benchmark
+	public long optimized() {
+		RegisterMachine m = new RegisterMachine(optimized);
+		m.run();
+		return m.registers[0];
+	}
+}
@@ -0,0 +1,88 @@
+package com.github.aoclib.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.aoclib.api.InputParser;
+import com.github.aoclib.api.LineTemplate;
+
+/**
+ * Compares {@link InputParser#template(String)} to a precompiled regular
+ * expression on lines like {@code pos=<3,-2>, vel=<1,0>}.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateBenchmark {
+
+	private static final Pattern REGEX = Pattern.compile("pos=<(-?\\d+),(-?\\d+)>, vel=<(-?\\d+),(-?\\d+)>");
+	private static final String TEMPLATE = "pos=<%d,%d>, vel=<%d,%d>";
+
+	@Param({ "1000", "100000" })
+	public int lines;
+
+	private List<String> input;
+
+	@Setup
+	public void setup() {
+		Random r = new Random(42);
+		input = new ArrayList<>(lines);
+		for (int i = 0; i < lines; i++) {
+			input.add("pos=<" + (r.nextInt(200_000) - 100_000) + "," + (r.nextInt(200_000) - 100_000) + ">, vel=<"
+					+ (r.nextInt(10) - 5) + "," + (r.nextInt(10) - 5) + ">");
+		}
+	}
+
+	@Benchmark
+	public int[][] regex() {
+		int[][] result = new int[input.size()][];
+		int i = 0;
+		for (String line : input) {
+			Matcher m = REGEX.matcher(line);
+			if (!m.matches()) {
+				throw new IllegalArgumentException(line);
+			}
+			result[i++] = new int[] { Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)),
+					Integer.parseInt(m.group(3)), Integer.parseInt(m.group(4)) };
+		}
+		return result;
+	}
+
+	@Benchmark
+	public int[][] template() {
+		return new InputParser(input).template(TEMPLATE).ints();
+	}
+
+	@Benchmark
+	public int fieldsReused() {
+		LineTemplate t = LineTemplate.compile(TEMPLATE);
+		LineTemplate.Fields f = t.newFields();
+		int sum = 0;
+		for (String line : input) {
+			if (t.match(line, f)) {
+				sum += f.getInt(0) + f.getInt(1) + f.getInt(2) + f.getInt(3);
+			}
+		}
+		return sum;
+	}
+}
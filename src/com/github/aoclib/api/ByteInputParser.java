@@ -0,0 +1,727 @@
+package com.github.aoclib.api;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.github.aoclib.utils.Delimiter;
+
+/**
+ * An {@link InputParser} that works directly on the bytes of the input instead
+ * of a list of Strings.
+ *
+ * The lines are located lazily on first use and stored as offsets into the
+ * buffer. {@link #charMatrix()}, {@link #intMatrix()},
+ * {@link #asSingleIntArray(Delimiter)}, {@link #asSingleLongArray(Delimiter)}
+ * and {@link #getGroups()} read the bytes without splitting the input to
+ * Strings first. The rest of the methods see the input as a list of lines,
+ * where each String is created only when it is requested.
+ *
+ * Lines are split the same way as in {@link InputParser}: at '\n', with the
+ * trailing empty lines dropped. The input is expected to be ASCII, any other
+ * byte is read as ISO-8859-1.
+ *
+ */
+public class ByteInputParser extends InputParser {
+
+	/**
+	 * Receives the fields found by
+	 * {@link ByteInputParser#forEachField(Delimiter, FieldVisitor)}
+	 */
+	@FunctionalInterface
+	public interface FieldVisitor {
+		/**
+		 *
+		 * @param line  index of the line of the field
+		 * @param start absolute offset of the first byte of the field
+		 * @param end   absolute offset after the last byte of the field
+		 */
+		void field(int line, int start, int end);
+	}
+
+	private final Lines lines;
+
+	/**
+	 *
+	 * @param data the input. The array is not copied.
+	 */
+	public ByteInputParser(byte[] data) {
+		this(ByteBuffer.wrap(data));
+	}
+
+	/**
+	 *
+	 * @param buffer the input between position and limit. The buffer is not
+	 *               copied and must not be modified while the parser is used.
+	 */
+	public ByteInputParser(ByteBuffer buffer) {
+		this(new Lines(buffer.slice()));
+	}
+
+	private ByteInputParser(Lines lines) {
+		super(lines);
+		this.lines = lines;
+	}
+
+	/**
+	 *
+	 * @return a read-only view of the whole input
+	 */
+	public ByteBuffer buffer() {
+		return lines.buf.asReadOnlyBuffer();
+	}
+
+	public int lineCount() {
+		return lines.index().count;
+	}
+
+	/**
+	 *
+	 * @param line index of the line
+	 * @return offset of the first byte of the line
+	 */
+	public int lineStart(int line) {
+		checkLine(line);
+		return lines.index().starts[line];
+	}
+
+	/**
+	 *
+	 * @param line index of the line
+	 * @return offset after the last byte of the line, excluding the line break
+	 */
+	public int lineEnd(int line) {
+		checkLine(line);
+		return lines.index().ends[line];
+	}
+
+	/**
+	 *
+	 * @param line index of the line
+	 * @return a view of the line, without copying it
+	 */
+	public CharSequence line(int line) {
+		return view(lineStart(line), lineEnd(line));
+	}
+
+	/**
+	 *
+	 * @param offset absolute offset in the input
+	 * @return the byte at the offset
+	 */
+	public byte byteAt(int offset) {
+		return lines.buf.get(offset);
+	}
+
+	/**
+	 *
+	 * @param start absolute offset of the first byte
+	 * @param end   absolute offset after the last byte
+	 * @return a view of the bytes between the offsets, without copying them
+	 */
+	public CharSequence view(int start, int end) {
+		return new ByteSequence(lines.buf, start, end);
+	}
+
+	/**
+	 * Calls the visitor for each field of each line. The fields are the same as
+	 * from {@link String#split(String)} with the delimiter:
+	 * {@link Delimiter#WHITESPACE} splits at runs of whitespace, and a line that
+	 * starts with whitespace has an empty first field. The other single
+	 * character delimiters split at every occurrence, so consecutive delimiters
+	 * produce empty fields. Empty fields at the end of a line are dropped.
+	 * Blank lines have no fields.
+	 *
+	 * @param delimiter the delimiter between fields
+	 * @param visitor   receives the offsets of each field
+	 */
+	public void forEachField(Delimiter delimiter, FieldVisitor visitor) {
+		Index idx = lines.index();
+		for (int l = 0; l < idx.count; l++) {
+			forEachField(l, idx.starts[l], idx.ends[l], delimiter, visitor);
+		}
+	}
+
+	private void forEachField(int line, int start, int end, Delimiter delimiter, FieldVisitor visitor) {
+		ByteBuffer buf = lines.buf;
+		if (isBlank(start, end)) {
+			return;
+		}
+		if (delimiter == Delimiter.WHITESPACE) {
+			int i = start;
+			if (isWhitespace(buf.get(i))) {
+				visitor.field(line, i, i);
+			}
+			while (i < end) {
+				while (i < end && isWhitespace(buf.get(i))) {
+					i++;
+				}
+				int fieldStart = i;
+				while (i < end && !isWhitespace(buf.get(i))) {
+					i++;
+				}
+				if (i > fieldStart) {
+					visitor.field(line, fieldStart, i);
+				}
+			}
+			return;
+		}
+		byte sep = separator(delimiter);
+		// like String.split, the empty fields at the end are dropped
+		while (end > start && buf.get(end - 1) == sep) {
+			end--;
+		}
+		int fieldStart = start;
+		for (int i = start; i < end; i++) {
+			if (buf.get(i) == sep) {
+				visitor.field(line, fieldStart, i);
+				fieldStart = i + 1;
+			}
+		}
+		if (end > start) {
+			visitor.field(line, fieldStart, end);
+		}
+	}
+
+	/**
+	 * Parses a decimal integer from the input. Surrounding whitespace is
+	 * ignored.
+	 *
+	 * @param start absolute offset of the first byte
+	 * @param end   absolute offset after the last byte
+	 * @return the parsed value
+	 * @throws NumberFormatException if the bytes are not a valid long
+	 */
+	public long parseLong(int start, int end) {
+		ByteBuffer buf = lines.buf;
+		while (start < end && isWhitespace(buf.get(start))) {
+			start++;
+		}
+		while (end > start && isWhitespace(buf.get(end - 1))) {
+			end--;
+		}
+		return parseDigits(start, end);
+	}
+
+	/**
+	 * Parses a decimal integer without skipping whitespace, like
+	 * {@link Long#parseLong(String)}.
+	 */
+	private long parseDigits(int start, int end) {
+		ByteBuffer buf = lines.buf;
+		boolean negative = false;
+		int i = start;
+		if (i < end && (buf.get(i) == '-' || buf.get(i) == '+')) {
+			negative = buf.get(i) == '-';
+			i++;
+		}
+		if (i == end) {
+			throw new NumberFormatException("For input string: \"" + view(start, end) + "\"");
+		}
+		long value = 0;
+		for (; i < end; i++) {
+			int d = buf.get(i) - '0';
+			if (d < 0 || d > 9) {
+				throw new NumberFormatException("For input string: \"" + view(start, end) + "\"");
+			}
+			value = value * 10 + d;
+		}
+		return negative ? -value : value;
+	}
+
+	/**
+	 *
+	 * @see #parseLong(int, int)
+	 */
+	public int parseInt(int start, int end) {
+		return toInt(parseLong(start, end));
+	}
+
+	private static int toInt(long l) {
+		if (l != (int) l) {
+			throw new NumberFormatException("Value out of int range: " + l);
+		}
+		return (int) l;
+	}
+
+	/**
+	 * Streams the lines in order without indexing them first, so that a single
+	 * pass over a large memory-mapped input keeps nothing but the current line
+	 * on the heap. The lines are views into the buffer.
+	 *
+	 * @return the lines of the input
+	 */
+	public Stream<CharSequence> lineStream() {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(lineIterator(),
+				Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+	}
+
+	/**
+	 * Iterates the lines like {@link #lineStream()}.
+	 *
+	 * @return an iterator over the lines of the input
+	 */
+	public Iterator<CharSequence> lineIterator() {
+		ByteBuffer buf = lines.buf;
+		int limit = buf.limit();
+		return new Iterator<CharSequence>() {
+			private int pos = 0;
+			private boolean first = true;
+
+			@Override
+			public boolean hasNext() {
+				if (first) {
+					// an empty input has a single empty line, as in String.split
+					return true;
+				}
+				// String.split drops the trailing empty lines
+				for (int i = pos; i < limit; i++) {
+					if (buf.get(i) != '\n') {
+						return true;
+					}
+				}
+				return false;
+			}
+
+			@Override
+			public CharSequence next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				first = false;
+				int end = pos;
+				while (end < limit && buf.get(end) != '\n') {
+					end++;
+				}
+				CharSequence line = view(pos, end);
+				pos = end + 1;
+				return line;
+			}
+		};
+	}
+
+	/**
+	 * Streams the groups of lines separated by blank lines, like
+	 * {@link #getGroups()}, without indexing the whole input first.
+	 *
+	 * @return the groups of the input
+	 */
+	public Stream<List<CharSequence>> groupStream() {
+		Iterator<CharSequence> it = lineIterator();
+		Iterator<List<CharSequence>> groups = new Iterator<List<CharSequence>>() {
+			private List<CharSequence> next = advance();
+
+			private List<CharSequence> advance() {
+				List<CharSequence> group = new ArrayList<>();
+				while (it.hasNext()) {
+					CharSequence line = it.next();
+					if (isBlank(line)) {
+						if (!group.isEmpty()) {
+							return group;
+						}
+					} else {
+						group.add(line);
+					}
+				}
+				return group.isEmpty() ? null : group;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return next != null;
+			}
+
+			@Override
+			public List<CharSequence> next() {
+				if (next == null) {
+					throw new NoSuchElementException();
+				}
+				List<CharSequence> current = next;
+				next = advance();
+				return current;
+			}
+		};
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(groups,
+				Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+	}
+
+	private static boolean isBlank(CharSequence line) {
+		for (int i = 0; i < line.length(); i++) {
+			if (line.charAt(i) > ' ') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * The lines as Strings created on request, for {@link Input#lines()}
+	 */
+	List<String> lazyLines() {
+		return lines;
+	}
+
+	@Override
+	public int firstLineLength() {
+		return lineEnd(0) - lineStart(0);
+	}
+
+	@Override
+	public char[] chars() {
+		Index idx = lines.index();
+		int size = 0;
+		for (int l = 0; l < idx.count; l++) {
+			size += idx.ends[l] - idx.starts[l];
+		}
+		char[] chars = new char[size];
+		int pos = 0;
+		for (int l = 0; l < idx.count; l++) {
+			for (int i = idx.starts[l]; i < idx.ends[l]; i++) {
+				chars[pos++] = (char) (lines.buf.get(i) & 0xff);
+			}
+		}
+		return chars;
+	}
+
+	@Override
+	public char[][] charMatrix() {
+		Index idx = lines.index();
+		char[][] matrix = new char[idx.count][];
+		for (int l = 0; l < idx.count; l++) {
+			char[] row = new char[idx.ends[l] - idx.starts[l]];
+			for (int i = 0; i < row.length; i++) {
+				row[i] = (char) (lines.buf.get(idx.starts[l] + i) & 0xff);
+			}
+			matrix[l] = row;
+		}
+		return matrix;
+	}
+
+	@Override
+	public int[][] intMatrix() {
+		Index idx = lines.index();
+		int[][] matrix = new int[idx.count][];
+		for (int l = 0; l < idx.count; l++) {
+			int[] row = new int[idx.ends[l] - idx.starts[l]];
+			for (int i = 0; i < row.length; i++) {
+				row[i] = lines.buf.get(idx.starts[l] + i) - '0';
+			}
+			matrix[l] = row;
+		}
+		return matrix;
+	}
+
+	@Override
+	public int[] asSingleIntArray(Delimiter rowValueDelimiter) {
+		if (!supported(rowValueDelimiter)) {
+			return super.asSingleIntArray(rowValueDelimiter);
+		}
+		int[][] values = { new int[64] };
+		int[] size = { 0 };
+		forEachField(rowValueDelimiter, (line, start, end) -> {
+			if (size[0] == values[0].length) {
+				values[0] = Arrays.copyOf(values[0], size[0] * 2);
+			}
+			values[0][size[0]++] = toInt(parseDigits(start, end));
+		});
+		return Arrays.copyOf(values[0], size[0]);
+	}
+
+	@Override
+	public long[] asSingleLongArray(Delimiter splitRegex) {
+		if (!supported(splitRegex)) {
+			return super.asSingleLongArray(splitRegex);
+		}
+		long[][] values = { new long[64] };
+		int[] size = { 0 };
+		forEachField(splitRegex, (line, start, end) -> {
+			if (size[0] == values[0].length) {
+				values[0] = Arrays.copyOf(values[0], size[0] * 2);
+			}
+			values[0][size[0]++] = parseDigits(start, end);
+		});
+		return Arrays.copyOf(values[0], size[0]);
+	}
+
+	@Override
+	public int[] ints() {
+		NumberScanner scanner = new NumberScanner();
+		scanLines(scanner);
+		return scanner.toIntArray();
+	}
+
+	@Override
+	public long[] longs() {
+		NumberScanner scanner = new NumberScanner();
+		scanLines(scanner);
+		return scanner.toLongArray();
+	}
+
+	private void scanLines(NumberScanner scanner) {
+		Index idx = lines.index();
+		for (int l = 0; l < idx.count; l++) {
+			scanLine(scanner, idx.starts[l], idx.ends[l]);
+		}
+	}
+
+	private void scanLine(NumberScanner scanner, int start, int end) {
+		if (lines.array != null) {
+			scanner.scan(lines.array, lines.arrayOffset + start, lines.arrayOffset + end);
+		} else {
+			scanner.scan(lines.buf, start, end);
+		}
+	}
+
+	@Override
+	public int[][] intsPerLine() {
+		Index idx = lines.index();
+		NumberScanner scanner = new NumberScanner();
+		int[][] rows = new int[idx.count][];
+		for (int l = 0; l < idx.count; l++) {
+			scanner.clear();
+			scanLine(scanner, idx.starts[l], idx.ends[l]);
+			rows[l] = scanner.toIntArray();
+		}
+		return rows;
+	}
+
+	@Override
+	public long[][] longsPerLine() {
+		Index idx = lines.index();
+		NumberScanner scanner = new NumberScanner();
+		long[][] rows = new long[idx.count][];
+		for (int l = 0; l < idx.count; l++) {
+			scanner.clear();
+			scanLine(scanner, idx.starts[l], idx.ends[l]);
+			rows[l] = scanner.toLongArray();
+		}
+		return rows;
+	}
+
+	/**
+	 * Views of the lines, so that templates and grids are read without creating
+	 * Strings.
+	 */
+	@Override
+	protected List<? extends CharSequence> lineSequences() {
+		return new AbstractList<CharSequence>() {
+			@Override
+			public CharSequence get(int index) {
+				return line(index);
+			}
+
+			@Override
+			public int size() {
+				return lineCount();
+			}
+		};
+	}
+
+	/**
+	 * Creates the Strings of the lines in the groups once and caches them in
+	 * {@link InputParser#groups}, later calls return the same read-only lists.
+	 */
+	@Override
+	public List<List<String>> getGroups() {
+		if (groups == null) {
+			groups = findGroups();
+		}
+		return groups;
+	}
+
+	private List<List<String>> findGroups() {
+		Index idx = lines.index();
+		List<List<String>> found = new ArrayList<>();
+		List<String> current = new ArrayList<>();
+		for (int l = 0; l < idx.count; l++) {
+			if (isBlank(idx.starts[l], idx.ends[l])) {
+				if (!current.isEmpty()) {
+					found.add(Collections.unmodifiableList(current));
+					current = new ArrayList<>();
+				}
+			} else {
+				current.add(lines.get(l));
+			}
+		}
+		if (!current.isEmpty()) {
+			found.add(Collections.unmodifiableList(current));
+		}
+		return Collections.unmodifiableList(found);
+	}
+
+	private boolean isBlank(int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (!isWhitespace(lines.buf.get(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void checkLine(int line) {
+		if (line < 0 || line >= lines.index().count) {
+			throw new IndexOutOfBoundsException("Line " + line + " of " + lines.index().count);
+		}
+	}
+
+	private static boolean isWhitespace(byte b) {
+		return b == ' ' || b == '\t' || b == '\r' || b == '\n' || b == '\f' || b == 0x0b;
+	}
+
+	private static boolean supported(Delimiter d) {
+		return d == Delimiter.WHITESPACE || d.delimiter.length() == 1;
+	}
+
+	private static byte separator(Delimiter d) {
+		if (d.delimiter.length() != 1) {
+			throw new IllegalArgumentException("Only single character delimiters and WHITESPACE are supported: " + d);
+		}
+		return (byte) d.delimiter.charAt(0);
+	}
+
+	/**
+	 * Offsets of the lines
+	 */
+	private static class Index {
+		final int count;
+		final int[] starts;
+		final int[] ends;
+
+		Index(int count, int[] starts, int[] ends) {
+			this.count = count;
+			this.starts = starts;
+			this.ends = ends;
+		}
+	}
+
+	/**
+	 * The lines as seen by {@link InputParser}. Each String is created on
+	 * request.
+	 */
+	private static class Lines extends AbstractList<String> {
+		private final ByteBuffer buf;
+
+		/**
+		 * The backing array of heap buffers, null for direct buffers
+		 */
+		private final byte[] array;
+		private final int arrayOffset;
+		private Index index;
+
+		Lines(ByteBuffer buf) {
+			this.buf = buf;
+			this.array = buf.hasArray() ? buf.array() : null;
+			this.arrayOffset = buf.hasArray() ? buf.arrayOffset() : 0;
+		}
+
+		Index index() {
+			if (index == null) {
+				index = buildIndex();
+			}
+			return index;
+		}
+
+		private Index buildIndex() {
+			int limit = buf.limit();
+			int[] starts = new int[64];
+			int[] ends = new int[64];
+			int count = 0;
+			int start = 0;
+			for (int i = 0; i <= limit; i++) {
+				if (i == limit || (array != null ? array[arrayOffset + i] : buf.get(i)) == '\n') {
+					if (count == starts.length) {
+						starts = Arrays.copyOf(starts, count * 2);
+						ends = Arrays.copyOf(ends, count * 2);
+					}
+					starts[count] = start;
+					ends[count] = i;
+					count++;
+					start = i + 1;
+				}
+			}
+			// String.split drops the trailing empty lines, except when the input is
+			// empty
+			while (count > 1 && starts[count - 1] == ends[count - 1]) {
+				count--;
+			}
+			return new Index(count, starts, ends);
+		}
+
+		@Override
+		public String get(int i) {
+			Index idx = index();
+			if (i < 0 || i >= idx.count) {
+				throw new IndexOutOfBoundsException("Line " + i + " of " + idx.count);
+			}
+			return decode(buf, idx.starts[i], idx.ends[i]);
+		}
+
+		@Override
+		public int size() {
+			return index().count;
+		}
+	}
+
+	private static String decode(ByteBuffer buf, int start, int end) {
+		if (buf.hasArray()) {
+			return new String(buf.array(), buf.arrayOffset() + start, end - start, StandardCharsets.ISO_8859_1);
+		}
+		byte[] bytes = new byte[end - start];
+		buf.get(start, bytes);
+		return new String(bytes, StandardCharsets.ISO_8859_1);
+	}
+
+	/**
+	 * A view of a part of the input
+	 */
+	private static class ByteSequence implements CharSequence {
+		private final ByteBuffer buf;
+		private final int start;
+		private final int end;
+
+		ByteSequence(ByteBuffer buf, int start, int end) {
+			if (start < 0 || end < start || end > buf.limit()) {
+				throw new IndexOutOfBoundsException("Range " + start + ".." + end + " of " + buf.limit());
+			}
+			this.buf = buf;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		public int length() {
+			return end - start;
+		}
+
+		@Override
+		public char charAt(int index) {
+			if (index < 0 || index >= end - start) {
+				throw new IndexOutOfBoundsException(index);
+			}
+			return (char) (buf.get(start + index) & 0xff);
+		}
+
+		@Override
+		public CharSequence subSequence(int s, int e) {
+			if (s < 0 || e < s || e > end - start) {
+				throw new IndexOutOfBoundsException("Range " + s + ".." + e + " of " + (end - start));
+			}
+			return new ByteSequence(buf, start + s, start + e);
+		}
+
+		@Override
+		public String toString() {
+			return decode(buf, start, end);
+		}
+	}
+}
@@ -1,8 +1,11 @@
 package com.github.aoclib.api;
 
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,13 +22,23 @@ public class Input {
 
 	/**
 	 * During the solving of a specific puzzle, the input is loaded only once and
-	 * stored into this variable. The part2 does not reload the input, but takes a
-	 * copy from this variable.
+	 * stored into this variable. The part2 does not reload the input, but shares
+	 * this immutable list.
 	 * 
 	 * 
 	 */
 	private List<String> cache;
 
+	/**
+	 * The unsplit input, kept for {@link #byteParser()}
+	 */
+	private String raw;
+
+	/**
+	 * The memory-mapped input of {@link #fromFile(Path)}, null for puzzle inputs
+	 */
+	private ByteInputParser mapped;
+
 	private Input(int year, int day, String username) {
 		this.year = year;
 		this.day = day;
@@ -34,15 +47,21 @@ public class Input {
 
 	/**
 	 * Attempts to load the input from 3 locations, in the following order:<br>
-	 * 0. Copy of the cached object <br>
+	 * 0. The cached object <br>
 	 * 1. Database <br>
 	 * 2. AOC website
 	 */
 	private List<String> loadLines() {
 		if (cache != null) {
-			return new ArrayList<String>(cache);
+			return cache;
 		}
+		return List.of(loadRaw().split("\n"));
+	}
 
+	private String loadRaw() {
+		if (raw != null) {
+			return raw;
+		}
 		try {
 			Optional<String> in = DBManager.getInput(username, year, day);
 			String s;
@@ -52,12 +71,13 @@ public class Input {
 			} else {
 				s = in.get();
 			}
-			return List.of(s.split("\n"));
+			raw = s;
+			return s;
 		} catch (SQLException | IOException e) {
 			System.err.println("Input file was not available:");
 			System.err.println("Make sure user \""+username+"\" exists and has cookie set.");
 			System.err.println("rung with args: user -h for help");
-			return List.of("Input was not available.", e.getMessage());
+			return "Input was not available.\n" + e.getMessage();
 
 		}
 	}
@@ -74,18 +94,73 @@ public class Input {
 		return new Input(year, day, username);
 	}
 
+	/**
+	 * Memory-maps a file as the input, for example a generated input that is
+	 * much larger than the puzzle input. The file is not read to the heap: all
+	 * the parsers are {@link ByteInputParser}s over the mapped bytes, and
+	 * {@link ByteInputParser#lineStream()} reads it in a single pass.
+	 * 
+	 * @param file the input file, at most 2 GiB
+	 * @return the input
+	 * @throws IOException if the file cannot be mapped
+	 */
+	public static Input fromFile(Path file) throws IOException {
+		try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = ch.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException(file + " is larger than 2 GiB, which cannot be mapped at once");
+			}
+			Input input = new Input(0, 0, null);
+			input.mapped = new ByteInputParser(ch.map(FileChannel.MapMode.READ_ONLY, 0, size));
+			return input;
+		}
+	}
+
 	/**
 	 * Get this input as a parser that can be us
 	 * 
 	 * @return an {@code InputParser} for parsing this input.
 	 */
 	public InputParser parser() {
+		if (mapped != null) {
+			return mapped;
+		}
 		if (cache == null) {
 			cache = loadLines();
 		}
 		return new InputParser(cache);
 	}
 
+	/**
+	 * Get this input as a parser that reads the bytes of the input directly,
+	 * without splitting it to lines first. Useful for large inputs.
+	 * 
+	 * @return a {@link ByteInputParser} for parsing this input.
+	 */
+	public ByteInputParser byteParser() {
+		if (mapped != null) {
+			return mapped;
+		}
+		return new ByteInputParser(loadRaw().getBytes(StandardCharsets.ISO_8859_1));
+	}
+
+	/**
+	 * The raw lines of this input. The lines are loaded on the first call and
+	 * shared by all the parsers created from this input afterwards. For a
+	 * memory-mapped file, each String is created when the line is read.
+	 * 
+	 * @return the lines of the input
+	 */
+	public List<String> lines() {
+		if (mapped != null) {
+			return mapped.lazyLines();
+		}
+		if (cache == null) {
+			cache = loadLines();
+		}
+		return cache;
+	}
+
 	/**
 	 * Preload this input to the cache, so that it is not done when the parser is
 	 * eventually requested.
@@ -3,20 +3,58 @@ package com.github.aoclib.api;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
-
+import java.util.stream.IntStream;
+
+import com.github.aoclib.graph.CsrGraph;
+import com.github.aoclib.grid.Grid;
+import com.github.aoclib.grid.SparseGrid;
+import com.github.aoclib.intcode.IntcodeVM;
+import com.github.aoclib.machine.InstructionSet;
+import com.github.aoclib.machine.Program;
+import com.github.aoclib.machine.RegisterMachine;
 import com.github.aoclib.utils.Delimiter;
 import com.github.aoclib.utils.Instruction;
 
 public class InputParser {
 
+	/**
+	 * Inputs with at least this many lines are parsed in parallel by the
+	 * methods that take a {@link Parallelism}, unless told otherwise. Puzzle
+	 * inputs are well below this, so their mappers always run sequentially.
+	 */
+	private static final int PARALLEL_THRESHOLD_LINES = 20_000;
+
+	/**
+	 * Lines per chunk in parallel parsing
+	 */
+	private static final int MIN_CHUNK_LINES = 1024;
+
+	/**
+	 * Read-only view of the lines. Shared with the caller and with the other
+	 * parsers of the same input, never copied.
+	 */
 	private final List<String> input;
 
+	/**
+	 * The groups, created on the first call of {@link #getGroups()}. Shared
+	 * with subclasses that find the groups their own way.
+	 */
+	protected List<List<String>> groups;
+
+	/**
+	 * 
+	 * @param input the lines. The list is not copied, so it must not be changed
+	 *              while the parser is used.
+	 */
 	public InputParser(List<String> input) {
-		this.input = input;
+		this.input = Collections.unmodifiableList(input);
 	}
 
 	public int firstLineLength() {
@@ -40,7 +78,7 @@ public class InputParser {
 	}
 
 	public InputParser(String inputString) {
-		this.input = new ArrayList<>(Arrays.asList(inputString.split("\n")));
+		this.input = List.of(inputString.split("\n"));
 
 	}
 
@@ -74,16 +112,82 @@ public class InputParser {
 	}
 
 	/**
-	 * Return lines as unprocessed strings
+	 * Return lines as unprocessed strings. The list is a read-only view of the
+	 * input, so this does not copy anything and the same list is returned on
+	 * every call. Copy it to modify it.
 	 * 
-	 * @return All rows of the input as a List
+	 * @return All rows of the input as a read-only List
 	 */
 	public List<String> getLines() {
-		return new ArrayList<>(input);
+		return input;
 	}
 
+	/**
+	 * Maps each line. Large inputs are mapped in parallel, see
+	 * {@link Parallelism#AUTO}.
+	 * 
+	 * @param mapper maps a line, must not have side effects
+	 * @return the mapped lines in order
+	 */
 	public <T> List<T> getLines(Function<String, T> mapper) {
-		return input.stream().map(mapper).collect(Collectors.toList());
+		return getLines(mapper, Parallelism.AUTO);
+	}
+
+	/**
+	 * Maps each line.
+	 * 
+	 * @param mapper      maps a line. Must not have side effects when run in
+	 *                    parallel.
+	 * @param parallelism whether to map the lines in parallel
+	 * @return the mapped lines in order
+	 */
+	public <T> List<T> getLines(Function<String, T> mapper, Parallelism parallelism) {
+		return mapLines(mapper, false, parallelism);
+	}
+
+	/**
+	 * Maps the lines sequentially or in line-aligned chunks on the common
+	 * ForkJoin pool. The order of the lines is kept in both cases.
+	 * 
+	 * @param skipBlank if true, blank lines are not passed to the mapper
+	 */
+	private <T> List<T> mapLines(Function<String, T> mapper, boolean skipBlank, Parallelism parallelism) {
+		int size = input.size();
+		if (!runParallel(parallelism, size)) {
+			List<T> result = new ArrayList<>(size);
+			for (String line : input) {
+				if (!skipBlank || !line.isBlank()) {
+					result.add(mapper.apply(line));
+				}
+			}
+			return result;
+		}
+		int chunkSize = Math.max(MIN_CHUNK_LINES, size / (ForkJoinPool.getCommonPoolParallelism() * 4) + 1);
+		int chunkCount = (size + chunkSize - 1) / chunkSize;
+		List<List<T>> chunks = IntStream.range(0, chunkCount).parallel().mapToObj(c -> {
+			int end = Math.min(size, (c + 1) * chunkSize);
+			List<T> chunk = new ArrayList<>(end - c * chunkSize);
+			for (int i = c * chunkSize; i < end; i++) {
+				String line = input.get(i);
+				if (!skipBlank || !line.isBlank()) {
+					chunk.add(mapper.apply(line));
+				}
+			}
+			return chunk;
+		}).toList();
+		List<T> result = new ArrayList<>(size);
+		for (List<T> chunk : chunks) {
+			result.addAll(chunk);
+		}
+		return result;
+	}
+
+	private static boolean runParallel(Parallelism parallelism, int lines) {
+		return switch (parallelism) {
+		case SEQUENTIAL -> false;
+		case PARALLEL -> true;
+		case AUTO -> lines >= PARALLEL_THRESHOLD_LINES && ForkJoinPool.getCommonPoolParallelism() > 1;
+		};
 	}
 
 	private <T> void mapAndCollect(Function<String, T> mapper,
@@ -102,26 +206,26 @@ public class InputParser {
 	 * 
 	 * A group is defined by multiple lines, separated by newlines.
 	 * 
+	 * The groups are read-only views of ranges of the lines. They are found on
+	 * the first call, and later calls return the same lists.
+	 * 
 	 * @return Lists of Strings for each group, contained in a List
 	 */
 	public List<List<String>> getGroups() {
-		List<List<String>> list = new ArrayList<>();
-		ArrayList<String> current = new ArrayList<>();
-		for (String line : input) {
-			if (line.isBlank()) {
-				if (current.size() > 0) {
-					list.add(current);
+		if (groups == null) {
+			List<List<String>> list = new ArrayList<>();
+			int start = 0;
+			for (int i = 0; i <= input.size(); i++) {
+				if (i == input.size() || input.get(i).isBlank()) {
+					if (i > start) {
+						list.add(input.subList(start, i));
+					}
+					start = i + 1;
 				}
-				current = new ArrayList<>();
-			} else {
-				current.add(line);
 			}
+			groups = Collections.unmodifiableList(list);
 		}
-		// adds the final group if there was no blank line as the last line
-		if (list.get(list.size() - 1) != current) {
-			list.add(current);
-		}
-		return list;
+		return groups;
 	}
 
 	/**
@@ -179,6 +283,151 @@ public class InputParser {
 				.toArray();
 	}
 
+	/**
+	 * Returns every signed integer of the input, in order, ignoring everything
+	 * else. Does not use regular expressions or create a String per number,
+	 * which makes it considerably faster than
+	 * {@link #asSingleIntArray(Delimiter)}.
+	 * 
+	 * A '-' is read as a sign only when it is directly followed by a digit and
+	 * not preceded by a letter or a digit, so {@code x=-3} gives -3 but the
+	 * range {@code 1-3} gives 1 and 3.
+	 * 
+	 * @return the integers of the input
+	 * @throws ArithmeticException if a number does not fit to an int
+	 */
+	public int[] ints() {
+		NumberScanner scanner = new NumberScanner();
+		for (String line : input) {
+			scanner.scan(line, 0, line.length());
+		}
+		return scanner.toIntArray();
+	}
+
+	/**
+	 * @see #ints()
+	 * @return the integers of the input
+	 */
+	public long[] longs() {
+		NumberScanner scanner = new NumberScanner();
+		for (String line : input) {
+			scanner.scan(line, 0, line.length());
+		}
+		return scanner.toLongArray();
+	}
+
+	/**
+	 * Returns the signed integers of each line, as in {@link #ints()}. Lines
+	 * without numbers give empty arrays, so the rows match the lines of the
+	 * input.
+	 * 
+	 * @return the integers of each line
+	 * @throws ArithmeticException if a number does not fit to an int
+	 */
+	public int[][] intsPerLine() {
+		NumberScanner scanner = new NumberScanner();
+		int[][] rows = new int[input.size()][];
+		int index = 0;
+		for (String line : input) {
+			scanner.clear();
+			scanner.scan(line, 0, line.length());
+			rows[index++] = scanner.toIntArray();
+		}
+		return rows;
+	}
+
+	/**
+	 * @see #intsPerLine()
+	 * @return the integers of each line
+	 */
+	public long[][] longsPerLine() {
+		NumberScanner scanner = new NumberScanner();
+		long[][] rows = new long[input.size()][];
+		int index = 0;
+		for (String line : input) {
+			scanner.clear();
+			scanner.scan(line, 0, line.length());
+			rows[index++] = scanner.toLongArray();
+		}
+		return rows;
+	}
+
+	/**
+	 * Returns the input as a {@link Grid} of characters without a border.
+	 * 
+	 * @return the grid
+	 * @throws IllegalArgumentException if the lines have different lengths
+	 */
+	public Grid grid() {
+		return Grid.of(lineSequences(), 0, (byte) 0, false);
+	}
+
+	/**
+	 * Returns the input as a {@link Grid} of characters surrounded by a border
+	 * of one cell, so that the neighbours of every cell can be read without
+	 * bounds checks.
+	 * 
+	 * @param border the value of the border cells
+	 * @return the grid
+	 * @throws IllegalArgumentException if the lines have different lengths
+	 */
+	public Grid grid(char border) {
+		return Grid.of(lineSequences(), 1, (byte) border, false);
+	}
+
+	/**
+	 * Returns a grid of single digits as their numeric values, '7' as 7.
+	 * 
+	 * @return the grid
+	 * @throws IllegalArgumentException if the lines have different lengths
+	 */
+	public Grid digitGrid() {
+		return Grid.of(lineSequences(), 0, (byte) 0, true);
+	}
+
+	/**
+	 * Returns the cells with the given character as an unbounded
+	 * {@link SparseGrid}, with the first character of the input at (0, 0).
+	 * 
+	 * @param cell the character of the stored cells, for example '#'
+	 * @return the grid
+	 */
+	public SparseGrid sparseGrid(char cell) {
+		return sparseGrid(c -> c == (byte) cell);
+	}
+
+	/**
+	 * Returns the included cells as an unbounded {@link SparseGrid}, with the
+	 * first character of the input at (0, 0).
+	 * 
+	 * @param include which characters are stored
+	 * @return the grid
+	 */
+	public SparseGrid sparseGrid(Grid.CellPredicate include) {
+		return SparseGrid.of(lineSequences(), include);
+	}
+
+	/**
+	 * Parses each line with a pattern such as {@code pos=<%d,%d>, vel=<%d,%d>}.
+	 * The pattern is compiled once and each line is matched without regular
+	 * expressions, see {@link LineTemplate} for the syntax.
+	 * 
+	 * @param pattern the pattern of each line
+	 * @return the template bound to the lines of this input
+	 */
+	public LineTemplate.Lines template(String pattern) {
+		return LineTemplate.compile(pattern).over(lineSequences());
+	}
+
+	/**
+	 * The lines for the parsers that can work on any {@link CharSequence}.
+	 * 
+	 * @return the lines of the input
+	 */
+	protected List<? extends CharSequence> lineSequences() {
+		return input;
+	}
+
 	public long[] asSingleLongArray(Delimiter splitRegex) {
 		List<String> lines = input;
 		return lines.stream() //
@@ -199,16 +448,23 @@ public class InputParser {
 	 */
 	public <T> List<List<T>> linesAsLists(String sep,
 			Function<String, T> valueMapper) {
+		return linesAsLists(sep, valueMapper, Parallelism.AUTO);
+	}
 
-		return input //
-				.stream()//
-				.map(line -> line.trim())//
-				.filter(line -> !line.isBlank())//
-				.map(
-					i -> Arrays.stream(i.split(sep))//
-							.map(valueMapper)//
-							.collect(Collectors.toList()))
-				.collect(Collectors.toList());
+	/**
+	 * Returns each split line as a list of items of type T.
+	 * 
+	 * @param sep         the delimiter regex
+	 * @param valueMapper maps a single value. Must not have side effects when run
+	 *                    in parallel.
+	 * @param parallelism whether to parse the lines in parallel
+	 * @return the values of each non-blank line
+	 */
+	public <T> List<List<T>> linesAsLists(String sep,
+			Function<String, T> valueMapper, Parallelism parallelism) {
+		return mapLines(line -> Arrays.stream(line.trim().split(sep))//
+				.map(valueMapper)//
+				.collect(Collectors.toList()), true, parallelism);
 	}
 
 	public <T> List<List<T>> linesAsLists(Delimiter sep,
@@ -216,6 +472,11 @@ public class InputParser {
 		return linesAsLists(sep.delimiter, valueMapper);
 	}
 
+	public <T> List<List<T>> linesAsLists(Delimiter sep,
+			Function<String, T> valueMapper, Parallelism parallelism) {
+		return linesAsLists(sep.delimiter, valueMapper, parallelism);
+	}
+
 	/**
 	 * Returns a matrix with each line split to char array.
 	 * 
@@ -268,6 +529,15 @@ public class InputParser {
 		return asSingleLongArray(Delimiter.COMMA);
 	}
 
+	/**
+	 * Returns the input as a 2019 intcode virtual machine, ready to run
+	 * 
+	 * @return a new {@link IntcodeVM} with the program loaded
+	 */
+	public IntcodeVM intcodeVM() {
+		return new IntcodeVM(intCodeProgram());
+	}
+
 	/**
 	 * Get as year 2017 instructions
 	 * 
@@ -275,8 +545,74 @@ public class InputParser {
 	 * @return
 	 */
 	public List<Instruction> as2017Instruction(Delimiter instructionDelimiter) {
-		return input.stream().map(e -> new Instruction(e, instructionDelimiter))
-				.collect(Collectors.toList());
+		return as2017Instruction(instructionDelimiter, Parallelism.AUTO);
+	}
+
+	public List<Instruction> as2017Instruction(Delimiter instructionDelimiter, Parallelism parallelism) {
+		return mapLines(e -> new Instruction(e, instructionDelimiter), false, parallelism);
+	}
+
+	/**
+	 * Returns the input as a graph with one line per node and its edges, such as
+	 * {@code a -> b, c} or {@code A-B}. The targets are separated by commas or
+	 * whitespace. Blank lines are skipped.
+	 * 
+	 * @param edgeSeparator separates the source from the targets, for example
+	 *                      "->" or "-"
+	 * @param directed      if false, every edge is added in both directions
+	 * @return the graph, with the node names as ids in the order they appear
+	 */
+	public CsrGraph graph(String edgeSeparator, boolean directed) {
+		return graph((line, builder) -> {
+			int sep = line.indexOf(edgeSeparator);
+			if (sep < 0) {
+				builder.addNode(line.trim());
+				return;
+			}
+			String from = line.substring(0, sep).trim();
+			builder.addNode(from);
+			for (String to : line.substring(sep + edgeSeparator.length()).trim().split("[,\\s]+")) {
+				if (to.isEmpty()) {
+					continue;
+				}
+				if (directed) {
+					builder.addEdge(from, to);
+				} else {
+					builder.addUndirectedEdge(from, to);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Returns the input as a graph, parsing the lines with a custom function,
+	 * for example for lines like
+	 * {@code Valve AA has flow rate=0; tunnels lead to valves DD, II}. Blank
+	 * lines are skipped.
+	 * 
+	 * @param lineParser adds the nodes and edges of a line to the builder
+	 * @return the graph
+	 */
+	public CsrGraph graph(BiConsumer<String, CsrGraph.Builder> lineParser) {
+		CsrGraph.Builder builder = new CsrGraph.Builder();
+		for (String line : input) {
+			if (!line.isBlank()) {
+				lineParser.accept(line, builder);
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Compiles the input as a program of an assembly-like language, such as
+	 * assembunny, duet or elfcode. Arguments are separated by whitespace.
+	 * 
+	 * @param instructionSet the language, for example
+	 *                       {@link InstructionSet#assembunny()}
+	 * @return the compiled program, run it with a {@link RegisterMachine}
+	 */
+	public Program registerProgram(InstructionSet instructionSet) {
+		return Program.compile(as2017Instruction(Delimiter.WHITESPACE), instructionSet);
 	}
 
 }
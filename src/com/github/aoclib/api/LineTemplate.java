@@ -0,0 +1,418 @@
+package com.github.aoclib.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A compiled pattern for lines of structured input, such as
+ * {@code pos=<%d,%d>, vel=<%d,%d>}.
+ *
+ * The pattern is literal text with the following fields:
+ * <ul>
+ * <li>{@code %d} a signed decimal integer, optionally preceded by spaces</li>
+ * <li>{@code %s} a string that ends where the next literal text of the pattern
+ * starts, or at the end of the line if the field is the last part of the
+ * pattern</li>
+ * <li>{@code %c} a single character</li>
+ * <li>{@code %%} a literal '%'</li>
+ * </ul>
+ *
+ * The pattern is compiled once to a list of segments, and each line is
+ * matched with a single pass over its characters, without regular expressions
+ * or Strings for the numeric fields. Whitespace is matched literally, except
+ * for the spaces before a number, so {@code position=<%d,%d>} also matches
+ * {@code position=< 9,  1>}.
+ *
+ * Example:
+ *
+ * <pre>
+ * long[][] particles = input.template("pos=<%d,%d>, vel=<%d,%d>").longs();
+ *
+ * List&lt;Edge&gt; edges = input.template("%s to %s = %d")
+ * 		.map(f -&gt; new Edge(f.getString(0), f.getString(1), f.getInt(2)));
+ * </pre>
+ *
+ */
+public class LineTemplate {
+
+	private static final byte LITERAL = 0;
+	private static final byte NUMBER = 1;
+	private static final byte STRING = 2;
+	private static final byte CHAR = 3;
+
+	private final String pattern;
+	private final byte[] kinds;
+	private final String[] literals;
+
+	/**
+	 * Index of each field among the numeric fields, -1 for other segments
+	 */
+	private final int[] numberIndex;
+	private final int fieldCount;
+	private final int numberCount;
+
+	private LineTemplate(String pattern, byte[] kinds, String[] literals) {
+		this.pattern = pattern;
+		this.kinds = kinds;
+		this.literals = literals;
+		this.numberIndex = new int[kinds.length];
+		int fields = 0;
+		int numbers = 0;
+		for (int i = 0; i < kinds.length; i++) {
+			numberIndex[i] = kinds[i] == NUMBER ? numbers++ : -1;
+			if (kinds[i] != LITERAL) {
+				fields++;
+			}
+		}
+		this.fieldCount = fields;
+		this.numberCount = numbers;
+	}
+
+	/**
+	 * Compiles a pattern.
+	 *
+	 * @param pattern the pattern, see {@link LineTemplate}
+	 * @return the compiled template
+	 * @throws IllegalArgumentException if the pattern is invalid, for example if
+	 *                                  a {@code %s} is directly followed by
+	 *                                  another field
+	 */
+	public static LineTemplate compile(String pattern) {
+		List<Byte> kinds = new ArrayList<>();
+		List<String> literals = new ArrayList<>();
+		StringBuilder literal = new StringBuilder();
+		for (int i = 0; i < pattern.length(); i++) {
+			char c = pattern.charAt(i);
+			if (c != '%') {
+				literal.append(c);
+				continue;
+			}
+			if (i + 1 == pattern.length()) {
+				throw new IllegalArgumentException("Pattern ends with a single %: " + pattern);
+			}
+			char f = pattern.charAt(++i);
+			if (f == '%') {
+				literal.append('%');
+				continue;
+			}
+			if (literal.length() > 0) {
+				kinds.add(LITERAL);
+				literals.add(literal.toString());
+				literal.setLength(0);
+			}
+			switch (f) {
+			case 'd' -> kinds.add(NUMBER);
+			case 's' -> kinds.add(STRING);
+			case 'c' -> kinds.add(CHAR);
+			default -> throw new IllegalArgumentException("Unknown field %" + f + " in pattern: " + pattern);
+			}
+			literals.add(null);
+		}
+		if (literal.length() > 0) {
+			kinds.add(LITERAL);
+			literals.add(literal.toString());
+		}
+		for (int i = 0; i + 1 < kinds.size(); i++) {
+			if (kinds.get(i) == STRING && kinds.get(i + 1) != LITERAL) {
+				throw new IllegalArgumentException("%s must be followed by literal text or end the pattern: " + pattern);
+			}
+		}
+		byte[] k = new byte[kinds.size()];
+		for (int i = 0; i < k.length; i++) {
+			k[i] = kinds.get(i);
+		}
+		return new LineTemplate(pattern, k, literals.toArray(new String[0]));
+	}
+
+	/**
+	 *
+	 * @return number of fields in the pattern
+	 */
+	public int fieldCount() {
+		return fieldCount;
+	}
+
+	/**
+	 *
+	 * @return number of {@code %d} fields in the pattern
+	 */
+	public int numberCount() {
+		return numberCount;
+	}
+
+	/**
+	 *
+	 * @return a new holder for the fields of a matched line
+	 */
+	public Fields newFields() {
+		return new Fields(fieldCount);
+	}
+
+	/**
+	 * Matches a whole line against the template.
+	 *
+	 * @param line   the line to match
+	 * @param fields receives the fields of the line, see {@link #newFields()}.
+	 *               The content is undefined if the line does not match.
+	 * @return true if the line matches
+	 */
+	public boolean match(CharSequence line, Fields fields) {
+		fields.line = line;
+		int pos = 0;
+		int len = line.length();
+		int field = 0;
+		for (int s = 0; s < kinds.length; s++) {
+			switch (kinds[s]) {
+			case LITERAL -> {
+				String lit = literals[s];
+				if (!regionMatches(line, pos, lit)) {
+					return false;
+				}
+				pos += lit.length();
+			}
+			case NUMBER -> {
+				// space-padded numbers, like "< 9,  1>"
+				while (pos < len && line.charAt(pos) == ' ') {
+					pos++;
+				}
+				int start = pos;
+				boolean negative = false;
+				if (pos < len && (line.charAt(pos) == '-' || line.charAt(pos) == '+')) {
+					negative = line.charAt(pos) == '-';
+					pos++;
+				}
+				long value = 0;
+				int digits = pos;
+				char c;
+				while (pos < len && (c = line.charAt(pos)) >= '0' && c <= '9') {
+					value = value * 10 + (c - '0');
+					pos++;
+				}
+				if (pos == digits) {
+					return false;
+				}
+				fields.set(field++, start, pos, negative ? -value : value);
+			}
+			case STRING -> {
+				int start = pos;
+				if (s + 1 < kinds.length) {
+					int end = indexOf(line, literals[s + 1], pos);
+					if (end < 0) {
+						return false;
+					}
+					pos = end;
+				} else {
+					pos = len;
+				}
+				fields.set(field++, start, pos, 0);
+			}
+			case CHAR -> {
+				if (pos >= len) {
+					return false;
+				}
+				fields.set(field++, pos, pos + 1, line.charAt(pos));
+				pos++;
+			}
+			default -> throw new IllegalStateException();
+			}
+		}
+		return pos == len;
+	}
+
+	private static boolean regionMatches(CharSequence line, int pos, String lit) {
+		if (pos + lit.length() > line.length()) {
+			return false;
+		}
+		for (int i = 0; i < lit.length(); i++) {
+			if (line.charAt(pos + i) != lit.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int indexOf(CharSequence line, String lit, int from) {
+		char first = lit.charAt(0);
+		int last = line.length() - lit.length();
+		for (int i = from; i <= last; i++) {
+			if (line.charAt(i) == first && regionMatches(line, i, lit)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Binds the template to lines of input.
+	 *
+	 * @param lines the lines to parse
+	 * @return the bound template
+	 */
+	public Lines over(List<? extends CharSequence> lines) {
+		return new Lines(lines);
+	}
+
+	@Override
+	public String toString() {
+		return pattern;
+	}
+
+	/**
+	 * The fields of a single matched line. Numbers and characters are stored
+	 * as primitives, strings are only created when requested.
+	 */
+	public static final class Fields {
+		private CharSequence line;
+		private final long[] values;
+		private final int[] starts;
+		private final int[] ends;
+
+		private Fields(int count) {
+			values = new long[count];
+			starts = new int[count];
+			ends = new int[count];
+		}
+
+		private void set(int field, int start, int end, long value) {
+			starts[field] = start;
+			ends[field] = end;
+			values[field] = value;
+		}
+
+		public int count() {
+			return values.length;
+		}
+
+		/**
+		 *
+		 * @param field index of a {@code %d} field among all the fields
+		 * @return the value of the field
+		 */
+		public long getLong(int field) {
+			return values[field];
+		}
+
+		/**
+		 *
+		 * @param field index of a {@code %d} field among all the fields
+		 * @return the value of the field
+		 * @throws ArithmeticException if the value does not fit to an int
+		 */
+		public int getInt(int field) {
+			return Math.toIntExact(values[field]);
+		}
+
+		/**
+		 *
+		 * @param field index of a {@code %c} field among all the fields
+		 * @return the character
+		 */
+		public char getChar(int field) {
+			return line.charAt(starts[field]);
+		}
+
+		/**
+		 *
+		 * @param field index of any field
+		 * @return the text of the field as a new String
+		 */
+		public String getString(int field) {
+			return line.subSequence(starts[field], ends[field]).toString();
+		}
+
+		/**
+		 *
+		 * @param field index of any field
+		 * @return the text of the field, without copying it
+		 */
+		public CharSequence view(int field) {
+			return line.subSequence(starts[field], ends[field]);
+		}
+	}
+
+	/**
+	 * A template bound to the lines of an input. Blank lines are skipped, any
+	 * other line that does not match the template is an error.
+	 */
+	public class Lines {
+		private final List<? extends CharSequence> lines;
+
+		private Lines(List<? extends CharSequence> lines) {
+			this.lines = lines;
+		}
+
+		/**
+		 *
+		 * @return the {@code %d} fields of each matched line
+		 * @throws IllegalArgumentException if a line does not match
+		 * @throws ArithmeticException      if a number does not fit to an int
+		 */
+		public int[][] ints() {
+			long[][] longs = longs();
+			int[][] ints = new int[longs.length][numberCount];
+			for (int i = 0; i < longs.length; i++) {
+				for (int j = 0; j < numberCount; j++) {
+					ints[i][j] = Math.toIntExact(longs[i][j]);
+				}
+			}
+			return ints;
+		}
+
+		/**
+		 *
+		 * @return the {@code %d} fields of each matched line
+		 * @throws IllegalArgumentException if a line does not match
+		 */
+		public long[][] longs() {
+			Fields f = newFields();
+			List<long[]> rows = new ArrayList<>(lines.size());
+			for (int i = 0; i < lines.size(); i++) {
+				if (matchLine(i, f)) {
+					long[] row = new long[numberCount];
+					for (int s = 0, field = 0; s < kinds.length; s++) {
+						if (kinds[s] != LITERAL) {
+							if (numberIndex[s] >= 0) {
+								row[numberIndex[s]] = f.values[field];
+							}
+							field++;
+						}
+					}
+					rows.add(row);
+				}
+			}
+			return rows.toArray(new long[0][]);
+		}
+
+		/**
+		 * Maps the fields of each matched line, for example to a record. The
+		 * {@link Fields} object is reused between lines.
+		 *
+		 * @param <T>    the type of the result
+		 * @param mapper creates a result from the fields of a line
+		 * @return the result of each matched line
+		 * @throws IllegalArgumentException if a line does not match
+		 */
+		public <T> List<T> map(Function<Fields, T> mapper) {
+			Fields f = newFields();
+			List<T> result = new ArrayList<>(lines.size());
+			for (int i = 0; i < lines.size(); i++) {
+				if (matchLine(i, f)) {
+					result.add(mapper.apply(f));
+				}
+			}
+			return result;
+		}
+
+		private boolean matchLine(int i, Fields f) {
+			CharSequence line = lines.get(i);
+			if (match(line, f)) {
+				return true;
+			}
+			if (line.toString().isBlank()) {
+				return false;
+			}
+			throw new IllegalArgumentException("Line " + (i + 1) + " does not match \"" + pattern + "\": " + line);
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package com.github.aoclib.api;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Collects the signed decimal integers of text without regular expressions or
+ * intermediate Strings.
+ *
+ * A '-' is a sign when it is directly followed by a digit and not preceded by
+ * a letter or a digit. So {@code x=-3} gives -3, but {@code 1-3} gives 1 and 3
+ * and {@code a-3} gives 3. Numbers too long for a long overflow silently.
+ *
+ */
+final class NumberScanner {
+
+	private long[] values = new long[16];
+	private int size;
+
+	/**
+	 * Appends the numbers of the characters between the offsets.
+	 */
+	void scan(CharSequence s, int start, int end) {
+		int i = start;
+		while (i < end) {
+			char c = s.charAt(i);
+			if (c >= '0' && c <= '9') {
+				boolean negative = i > start && s.charAt(i - 1) == '-'
+						&& (i - 1 == start || !Character.isLetterOrDigit(s.charAt(i - 2)));
+				long value = 0;
+				while (i < end && (c = s.charAt(i)) >= '0' && c <= '9') {
+					value = value * 10 + (c - '0');
+					i++;
+				}
+				add(negative ? -value : value);
+			} else {
+				i++;
+			}
+		}
+	}
+
+	/**
+	 * Appends the numbers of the bytes between the offsets. Same as
+	 * {@link #scan(CharSequence, int, int)}, for ASCII input.
+	 */
+	void scan(ByteBuffer buf, int start, int end) {
+		int i = start;
+		while (i < end) {
+			int c = buf.get(i);
+			if (c >= '0' && c <= '9') {
+				boolean negative = i > start && buf.get(i - 1) == '-'
+						&& (i - 1 == start || !isAsciiLetterOrDigit(buf.get(i - 2)));
+				long value = 0;
+				while (i < end && (c = buf.get(i)) >= '0' && c <= '9') {
+					value = value * 10 + (c - '0');
+					i++;
+				}
+				add(negative ? -value : value);
+			} else {
+				i++;
+			}
+		}
+	}
+
+	/**
+	 * Appends the numbers of the bytes between the offsets of an array.
+	 */
+	void scan(byte[] a, int start, int end) {
+		int i = start;
+		while (i < end) {
+			int c = a[i];
+			if (c >= '0' && c <= '9') {
+				boolean negative = i > start && a[i - 1] == '-'
+						&& (i - 1 == start || !isAsciiLetterOrDigit(a[i - 2]));
+				long value = 0;
+				while (i < end && (c = a[i]) >= '0' && c <= '9') {
+					value = value * 10 + (c - '0');
+					i++;
+				}
+				add(negative ? -value : value);
+			} else {
+				i++;
+			}
+		}
+	}
+
+	private static boolean isAsciiLetterOrDigit(byte b) {
+		return (b >= '0' && b <= '9') || (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z');
+	}
+
+	private void add(long value) {
+		if (size == values.length) {
+			values = Arrays.copyOf(values, size * 2);
+		}
+		values[size++] = value;
+	}
+
+	void clear() {
+		size = 0;
+	}
+
+	long[] toLongArray() {
+		return Arrays.copyOf(values, size);
+	}
+
+	/**
+	 * @throws ArithmeticException if a number does not fit to an int
+	 */
+	int[] toIntArray() {
+		int[] ints = new int[size];
+		for (int i = 0; i < size; i++) {
+			ints[i] = Math.toIntExact(values[i]);
+		}
+		return ints;
+	}
+}
@@ -0,0 +1,26 @@
+package com.github.aoclib.api;
+
+/**
+ * How the line mapping methods of {@link InputParser} parse the lines.
+ *
+ * In parallel mode the lines are split to line-aligned chunks that are parsed
+ * on the common ForkJoin pool. The results are always in the order of the
+ * lines, but the mapper is called from several threads at once and must not
+ * have side effects.
+ *
+ */
+public enum Parallelism {
+	/**
+	 * Parallel if the input has at least 20 000 lines and the common pool has
+	 * more than one thread, otherwise sequential
+	 */
+	AUTO,
+	/**
+	 * Always on the calling thread
+	 */
+	SEQUENTIAL,
+	/**
+	 * Always on the common ForkJoin pool
+	 */
+	PARALLEL
+}
@@ -0,0 +1,201 @@
+package com.github.aoclib.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.github.aoclib.db.BenchmarkRecord;
+import com.github.aoclib.db.DBManager;
+import com.github.aoclib.solver.Part;
+import com.github.aoclib.solver.PartStatus;
+import com.github.aoclib.solver.ReportReader;
+import com.github.aoclib.solver.ReportRecord;
+
+/**
+ * Compares two benchmark result sets part by part.
+ *
+ * A result set is either a run stored in the database or a benchmark report
+ * written with {@code --report}. Only the summary statistics are used, so
+ * stored runs and reports can be compared to each other.
+ *
+ */
+public class BenchmarkComparison {
+
+	/**
+	 * Summary of a single part in a result set.
+	 */
+	public record Entry(int year, int day, Part part, long median, double mean, double stddev, int count) {
+
+		/**
+		 *
+		 * @return sorting key of the part
+		 */
+		public int key() {
+			return year * 100 + day * 2 + part.ordinal();
+		}
+	}
+
+	/**
+	 * A part that exists in both result sets.
+	 */
+	public record Row(Entry a, Entry b) {
+
+		/**
+		 *
+		 * @return how many times faster the median of b is compared to a
+		 */
+		public double speedup() {
+			return a.median / (double) b.median;
+		}
+
+		/**
+		 *
+		 * @return relative change of the median from a to b in percent
+		 */
+		public double changePercent() {
+			return (b.median - a.median) * 100.0 / a.median;
+		}
+
+		/**
+		 * Welch's t statistic of the difference of the means.
+		 *
+		 * @return the statistic, or NaN if either side has less than two samples
+		 */
+		public double t() {
+			if (a.count < 2 || b.count < 2) {
+				return Double.NaN;
+			}
+			double va = a.stddev * a.stddev / a.count;
+			double vb = b.stddev * b.stddev / b.count;
+			if (va + vb == 0) {
+				return a.mean == b.mean ? 0 : Math.copySign(Double.POSITIVE_INFINITY, b.mean - a.mean);
+			}
+			return (b.mean - a.mean) / Math.sqrt(va + vb);
+		}
+
+		/**
+		 * Welch-Satterthwaite degrees of freedom of {@link #t()}.
+		 */
+		public double degreesOfFreedom() {
+			double va = a.stddev * a.stddev / a.count;
+			double vb = b.stddev * b.stddev / b.count;
+			if (va + vb == 0) {
+				return a.count + b.count - 2;
+			}
+			return (va + vb) * (va + vb) / (va * va / (a.count - 1) + vb * vb / (b.count - 1));
+		}
+
+		/**
+		 *
+		 * @return true if the means differ at the 95% level according to Welch's
+		 *         t-test. Always false if the test cannot be done.
+		 */
+		public boolean significant() {
+			double t = t();
+			return !Double.isNaN(t) && Math.abs(t) > Statistics.tCritical95(degreesOfFreedom());
+		}
+	}
+
+	/**
+	 * Sums of the medians of a year, over the parts that are in both sets.
+	 */
+	public record YearTotal(int year, long a, long b) {
+
+		public double speedup() {
+			return a / (double) b;
+		}
+	}
+
+	public final String nameA;
+	public final String nameB;
+	public final List<Row> rows = new ArrayList<>();
+	public final List<Entry> onlyA = new ArrayList<>();
+	public final List<Entry> onlyB = new ArrayList<>();
+
+	/**
+	 *
+	 * @param nameA the baseline result set
+	 * @param a     the parts of the baseline
+	 * @param nameB the result set compared to the baseline
+	 * @param b     the parts of the compared set
+	 */
+	public BenchmarkComparison(String nameA, List<Entry> a, String nameB, List<Entry> b) {
+		this.nameA = nameA;
+		this.nameB = nameB;
+		Map<Integer, Entry> mapA = toMap(a);
+		Map<Integer, Entry> mapB = toMap(b);
+		mapA.forEach((k, e) -> {
+			Entry other = mapB.get(k);
+			if (other == null) {
+				onlyA.add(e);
+			} else {
+				rows.add(new Row(e, other));
+			}
+		});
+		mapB.forEach((k, e) -> {
+			if (!mapA.containsKey(k)) {
+				onlyB.add(e);
+			}
+		});
+	}
+
+	private static Map<Integer, Entry> toMap(List<Entry> entries) {
+		Map<Integer, Entry> map = new TreeMap<>();
+		entries.forEach(e -> map.put(e.key(), e));
+		return map;
+	}
+
+	/**
+	 *
+	 * @return the total of each year, in ascending order of years
+	 */
+	public List<YearTotal> yearTotals() {
+		Map<Integer, long[]> totals = new TreeMap<>();
+		for (Row r : rows) {
+			long[] t = totals.computeIfAbsent(r.a.year, y -> new long[2]);
+			t[0] += r.a.median;
+			t[1] += r.b.median;
+		}
+		List<YearTotal> result = new ArrayList<>();
+		totals.forEach((y, t) -> result.add(new YearTotal(y, t[0], t[1])));
+		return result;
+	}
+
+	/**
+	 * Loads a result set. If {@code source} is an existing file, it is read as a
+	 * report, otherwise it is the id of a stored run.
+	 *
+	 * @param source a report file or a run id
+	 * @return the parts of the result set
+	 * @throws IOException              if the report cannot be read
+	 * @throws SQLException
+	 * @throws IllegalArgumentException if no results are found
+	 */
+	public static List<Entry> load(String source) throws IOException, SQLException {
+		Path file = Paths.get(source);
+		List<Entry> entries = new ArrayList<>();
+		if (Files.isRegularFile(file)) {
+			for (ReportRecord r : ReportReader.read(file)) {
+				if ("benchmark".equals(r.type) && PartStatus.CORRECT.name().equals(r.status) && r.p50NS != null
+						&& r.meanNS != null && r.stddevNS != null && r.iterations != null) {
+					entries.add(new Entry(r.year, r.day, r.part == 1 ? Part.FIRST : Part.SECOND, r.p50NS,
+							r.meanNS, r.stddevNS, r.iterations));
+				}
+			}
+		} else {
+			for (BenchmarkRecord r : DBManager.getBenchmarks(source)) {
+				entries.add(new Entry(r.year, r.day, r.part, r.time.p50, r.time.mean, r.time.stddev, r.time.count));
+			}
+		}
+		if (entries.isEmpty()) {
+			throw new IllegalArgumentException("No benchmark results found for " + source);
+		}
+		return entries;
+	}
+}
@@ -0,0 +1,185 @@
+package com.github.aoclib.benchmark;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import com.github.aoclib.db.BenchmarkRecord;
+import com.github.aoclib.db.DBManager;
+
+/**
+ * Stores the results of a single benchmark run and compares them to earlier
+ * runs.
+ *
+ */
+public class BenchmarkHistory {
+
+	private static final Map<String, String> SOURCE_HASHES = new ConcurrentHashMap<>();
+
+	private static final DateTimeFormatter RUN_ID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+	/**
+	 * The result of comparing a part to its baseline.
+	 */
+	public record Comparison(BenchmarkRecord baseline, BenchmarkRecord current, double change, boolean regressed) {
+
+		/**
+		 *
+		 * @return relative change of the median in percent
+		 */
+		public double changePercent() {
+			return change * 100;
+		}
+	}
+
+	private final String user;
+	private final String runId;
+	private final int warmup;
+	private final String jvmVersion;
+	private final String host;
+
+	/**
+	 *
+	 * @param user   the user whose inputs are benchmarked
+	 * @param runId  identifier of this run, see {@link #newRunId()}
+	 * @param warmup warmup iterations used in this run
+	 */
+	public BenchmarkHistory(String user, String runId, int warmup) {
+		this.user = user;
+		this.runId = runId;
+		this.warmup = warmup;
+		this.jvmVersion = System.getProperty("java.vm.name") + " " + System.getProperty("java.runtime.version");
+		this.host = hostName();
+	}
+
+	/**
+	 *
+	 * @return a new run id based on the current time, with milliseconds so
+	 *         that runs started in the same second get different ids
+	 */
+	public static String newRunId() {
+		return LocalDateTime.now().format(RUN_ID_FORMAT);
+	}
+
+	public String runId() {
+		return runId;
+	}
+
+	public String user() {
+		return user;
+	}
+
+	public int warmup() {
+		return warmup;
+	}
+
+	/**
+	 * Converts the result to a record of this run.
+	 *
+	 * @param r        the result
+	 * @param dayClass the class that solved the part, used for the source hash
+	 * @return the record
+	 */
+	public BenchmarkRecord toRecord(PartResult r, Class<?> dayClass) {
+		return new BenchmarkRecord(runId, System.currentTimeMillis(), user, r.year, r.day, r.part, warmup, r.samples,
+				jvmVersion, host, sourceHash(dayClass));
+	}
+
+	/**
+	 * Stores the record to the database.
+	 *
+	 * @param r the record to store
+	 * @throws SQLException
+	 */
+	public void store(BenchmarkRecord r) throws SQLException {
+		DBManager.insertBenchmark(r);
+	}
+
+	/**
+	 * Compares the median of a record to the median of a baseline run.
+	 *
+	 * @param current          the new result
+	 * @param baselineRunId    the run to compare against, or null for the
+	 *                         latest other run
+	 * @param thresholdPercent how many percent slower the median may be before
+	 *                         it is considered a regression
+	 * @return the comparison, or empty if there is no baseline for the part
+	 * @throws SQLException
+	 */
+	public Optional<Comparison> compare(BenchmarkRecord current, String baselineRunId, double thresholdPercent)
+			throws SQLException {
+		Optional<BenchmarkRecord> baseline = DBManager.getBenchmarkBaseline(user, current.year, current.day,
+				current.part, baselineRunId, runId);
+		return baseline.map(b -> {
+			double change = (current.time.p50 - b.time.p50) / (double) b.time.p50;
+			return new Comparison(b, current, change, change * 100 > thresholdPercent);
+		});
+	}
+
+	/**
+	 * Hashes the compiled code of a solution: the jar or the class directory
+	 * that the class was loaded from. The hash changes when the solution or any
+	 * of the helpers compiled with it changes. Computed once per location.
+	 *
+	 * @param c the class to hash
+	 * @return 16 first hex digits of the SHA-256 of the code, or "unknown" if
+	 *         the code is not available.
+	 */
+	public static String sourceHash(Class<?> c) {
+		CodeSource source = c.getProtectionDomain().getCodeSource();
+		if (source == null || source.getLocation() == null) {
+			return "unknown";
+		}
+		return SOURCE_HASHES.computeIfAbsent(source.getLocation().toString(), location -> {
+			try {
+				return hashLocation(Path.of(source.getLocation().toURI()));
+			} catch (IOException | URISyntaxException | IllegalArgumentException | FileSystemNotFoundException
+					| NoSuchAlgorithmException e) {
+				return "unknown";
+			}
+		});
+	}
+
+	private static String hashLocation(Path root) throws IOException, NoSuchAlgorithmException {
+		MessageDigest md = MessageDigest.getInstance("SHA-256");
+		if (Files.isRegularFile(root)) {
+			md.update(Files.readAllBytes(root));
+		} else {
+			List<Path> files;
+			try (Stream<Path> walk = Files.walk(root)) {
+				files = walk.filter(p -> p.toString().endsWith(".class")).sorted().toList();
+			}
+			// the names are hashed too, so that moving code changes the hash
+			for (Path file : files) {
+				md.update(root.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+				md.update(Files.readAllBytes(file));
+			}
+		}
+		return HexFormat.of().formatHex(md.digest(), 0, 8);
+	}
+
+	private static String hostName() {
+		try {
+			return InetAddress.getLocalHost().getHostName();
+		} catch (UnknownHostException e) {
+			return "unknown";
+		}
+	}
+}
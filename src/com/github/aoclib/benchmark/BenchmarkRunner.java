@@ -0,0 +1,126 @@
+package com.github.aoclib.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import com.github.aoclib.api.InputParser;
+import com.github.aoclib.solver.DayX;
+import com.github.aoclib.solver.Part;
+import com.github.aoclib.solver.PartExecutor;
+import com.github.aoclib.solver.ResourceUsage;
+import com.github.aoclib.solver.Solution;
+
+/**
+ * Runs a single puzzle part repeatedly and collects the timings.
+ *
+ * Every iteration gets a new {@link InputParser} on top of the already loaded
+ * lines. The parser is created before the clock starts, so loading the input is
+ * never part of the measurement.
+ *
+ * When a time budget is set, each iteration runs on its own thread through
+ * {@link PartExecutor} and is interrupted if it exceeds the budget.
+ *
+ */
+public class BenchmarkRunner {
+
+	private final int warmupIterations;
+	private final int measurementIterations;
+	private final long timeBudgetMS;
+
+	/**
+	 * 
+	 * @param warmupIterations      iterations that are run and discarded before
+	 *                              measuring
+	 * @param measurementIterations measured iterations, at least 1
+	 */
+	public BenchmarkRunner(int warmupIterations, int measurementIterations) {
+		this(warmupIterations, measurementIterations, 0);
+	}
+
+	/**
+	 * 
+	 * @param warmupIterations      iterations that are run and discarded before
+	 *                              measuring
+	 * @param measurementIterations measured iterations, at least 1
+	 * @param timeBudgetMS          budget of a single iteration in milliseconds,
+	 *                              0 for no limit. A day may override this with
+	 *                              its own budget.
+	 */
+	public BenchmarkRunner(int warmupIterations, int measurementIterations, long timeBudgetMS) {
+		if (warmupIterations < 0 || measurementIterations < 1) {
+			throw new IllegalArgumentException(
+					"Invalid iteration counts: warmup " + warmupIterations + ", measurement " + measurementIterations);
+		}
+		this.warmupIterations = warmupIterations;
+		this.measurementIterations = measurementIterations;
+		this.timeBudgetMS = timeBudgetMS;
+	}
+
+	public int warmupIterations() {
+		return warmupIterations;
+	}
+
+	public int measurementIterations() {
+		return measurementIterations;
+	}
+
+	public long timeBudgetMS() {
+		return timeBudgetMS;
+	}
+
+	/**
+	 * Benchmarks a single part.
+	 * 
+	 * @param day   the day that has been set up for the puzzle
+	 * @param part  the part to run
+	 * @param lines the input lines
+	 * @return the measured result
+	 * @throws TimeoutException     if an iteration exceeded the time budget
+	 * @throws ExecutionException   if the part threw an exception
+	 * @throws InterruptedException if interrupted while waiting for the part
+	 */
+	public PartResult measure(DayX day, Part part, List<String> lines)
+			throws TimeoutException, ExecutionException, InterruptedException {
+		for (int i = 0; i < warmupIterations; i++) {
+			iteration(day, part, lines);
+		}
+
+		long[] samples = new long[measurementIterations];
+		List<ResourceUsage> usages = new ArrayList<>();
+		Solution last = null;
+		for (int i = 0; i < measurementIterations; i++) {
+			last = iteration(day, part, lines);
+			samples[i] = last.solutiontimeNS;
+			usages.add(last.usage);
+		}
+		return new PartResult(last.year, last.day, part, last.solution, samples, ResourceUsage.total(usages));
+	}
+
+	/**
+	 * Runs a single iteration of a part with a fresh parser, respecting the time
+	 * budget.
+	 * 
+	 * @param day   the day that has been set up for the puzzle
+	 * @param part  the part to run
+	 * @param lines the input lines
+	 * @return the timed solution
+	 * @throws TimeoutException     if the iteration exceeded the time budget
+	 * @throws ExecutionException   if the part threw an exception
+	 * @throws InterruptedException if interrupted while waiting for the part
+	 */
+	public Solution iteration(DayX day, Part part, List<String> lines)
+			throws TimeoutException, ExecutionException, InterruptedException {
+		InputParser ip = new InputParser(lines);
+		long budget = day.timeBudgetMS(timeBudgetMS);
+		if (budget <= 0) {
+			try {
+				return day.solve(part, ip);
+			} catch (RuntimeException | Error e) {
+				throw new ExecutionException(e);
+			}
+		}
+		return PartExecutor.run(() -> day.solve(part, ip), budget, PartExecutor.threadName(day, part));
+	}
+}
@@ -0,0 +1,80 @@
+package com.github.aoclib.benchmark;
+
+import java.util.List;
+
+import com.github.aoclib.solver.DayX;
+import com.github.aoclib.solver.Part;
+
+/**
+ * A single puzzle part scheduled by {@link ParallelScheduler}.
+ *
+ * Each unit has its own {@link DayX} instance, so that the parts of the same
+ * day can run at the same time without sharing any state.
+ *
+ */
+public class BenchmarkUnit {
+
+	public final int year;
+	public final int day;
+	public final Part part;
+	public final DayX solver;
+	public final List<String> lines;
+
+	/**
+	 * Set after the unit has been run
+	 */
+	PartResult result;
+	Throwable error;
+	long busyNS;
+	long cpuNS;
+
+	/**
+	 * 
+	 * @param year
+	 * @param day
+	 * @param part
+	 * @param solver a day that has already been set up for this puzzle
+	 * @param lines  the input lines
+	 */
+	public BenchmarkUnit(int year, int day, Part part, DayX solver, List<String> lines) {
+		this.year = year;
+		this.day = day;
+		this.part = part;
+		this.solver = solver;
+		this.lines = lines;
+	}
+
+	/**
+	 * 
+	 * @return the measured result, or null if the unit failed
+	 */
+	public PartResult result() {
+		return result;
+	}
+
+	/**
+	 * 
+	 * @return the exception that was thrown by the unit, or null
+	 */
+	public Throwable error() {
+		return error;
+	}
+
+	/**
+	 * 
+	 * @return total wall time of all the iterations of this unit, including
+	 *         warmup
+	 */
+	public long busyNS() {
+		return busyNS;
+	}
+
+	/**
+	 * 
+	 * @return total CPU time used by the threads that ran this unit, including
+	 *         warmup
+	 */
+	public long cpuNS() {
+		return cpuNS;
+	}
+}
@@ -0,0 +1,110 @@
+package com.github.aoclib.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import com.github.aoclib.api.Input;
+import com.github.aoclib.db.DBManager;
+import com.github.aoclib.solver.DayProvider;
+import com.github.aoclib.solver.DayX;
+import com.github.aoclib.solver.Parameters;
+import com.github.aoclib.solver.Part;
+import com.github.aoclib.solver.ReflectiveDayProvider;
+import com.github.aoclib.solver.ResourceUsage;
+
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Namespace;
+
+/**
+ * Entry point of the child JVMs started by {@link ForkedRunner}.
+ *
+ * Benchmarks the requested parts of a single day and writes each result to
+ * standard output as a single line starting with {@link #RESULT_PREFIX}.
+ * Anything else the solution prints is passed through by the parent.
+ *
+ */
+public class ForkedBenchmark {
+
+	/**
+	 * Result line: prefix, year, day, part, samples, allocated bytes, GC count,
+	 * GC time, peak heap, thread CPU time, thread user time, process CPU time
+	 * and the Base64 encoded solution, separated by tabs.
+	 */
+	static final String RESULT_PREFIX = "@@aoc-benchmark-result";
+
+	/**
+	 * Error line: prefix, year, day, part and the error message, separated by
+	 * tabs.
+	 */
+	static final String ERROR_PREFIX = "@@aoc-benchmark-error";
+
+	/**
+	 * Error message of a part that ran out of time
+	 */
+	static final String TIMEOUT = "TIMEOUT";
+
+	public static void main(String[] args) {
+		ArgumentParser parser = ArgumentParsers.newFor("forked-benchmark").build();
+		parser.addArgument("--db").required(true);
+		parser.addArgument("--root").required(true);
+		parser.addArgument("--provider").setDefault("");
+		parser.addArgument("--user").required(true);
+		parser.addArgument("--year").type(Integer.class).required(true);
+		parser.addArgument("--day").type(Integer.class).required(true);
+		parser.addArgument("--part").type(Integer.class).nargs("+").required(true);
+		parser.addArgument("--warmup").type(Integer.class).required(true);
+		parser.addArgument("--iterations").type(Integer.class).required(true);
+		parser.addArgument("--timeout").type(Long.class).setDefault(0L);
+
+		Namespace ns = null;
+		try {
+			ns = parser.parseArgs(args);
+		} catch (ArgumentParserException e) {
+			parser.handleError(e);
+			System.exit(-1);
+		}
+
+		int year = ns.getInt("year");
+		int day = ns.getInt("day");
+		DBManager.setFile(ns.getString("db"));
+		ReflectiveDayProvider.setRoot(ns.getString("root"));
+
+		BenchmarkRunner runner = new BenchmarkRunner(ns.getInt("warmup"), ns.getInt("iterations"),
+				ns.getLong("timeout"));
+		Input input = Input.get(year, day, ns.getString("user"));
+		DayProvider provider = DayProvider.create(ns.getString("provider"));
+
+		for (int p : ns.<Integer>getList("part")) {
+			Part part = p == 1 ? Part.FIRST : Part.SECOND;
+			try {
+				DayX daySolver = provider.get(year, day);
+				if (daySolver == DayProvider.NOP) {
+					throw new IllegalStateException("Day implementation was not provided.");
+				}
+				daySolver.setup(new Parameters(year, day), input.parser());
+				PartResult r = runner.measure(daySolver, part, input.lines());
+				String samples = Arrays.stream(r.samples).mapToObj(Long::toString).collect(Collectors.joining(","));
+				ResourceUsage u = r.usage;
+				System.out.println(String.join("\t", List.of(RESULT_PREFIX, "" + year, "" + day, "" + p, samples,
+						"" + u.allocatedBytes, "" + u.gcCount, "" + u.gcTimeMS, "" + u.peakHeapBytes, "" + u.threadCpuNS,
+						"" + u.threadUserNS, "" + u.processCpuNS, Base64.getEncoder().encodeToString(r.solution.getBytes(StandardCharsets.UTF_8)))));
+			} catch (TimeoutException e) {
+				System.out.println(String.join("\t", List.of(ERROR_PREFIX, "" + year, "" + day, "" + p, TIMEOUT)));
+			} catch (ExecutionException e) {
+				System.out.println(String.join("\t",
+						List.of(ERROR_PREFIX, "" + year, "" + day, "" + p, ("" + e.getCause()).replace('\n', ' '))));
+			} catch (Exception e) {
+				System.out.println(String.join("\t",
+						List.of(ERROR_PREFIX, "" + year, "" + day, "" + p, ("" + e).replace('\n', ' '))));
+			}
+		}
+		System.exit(0);
+	}
+}
@@ -0,0 +1,146 @@
+package com.github.aoclib.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import com.github.aoclib.db.DBManager;
+import com.github.aoclib.solver.DayProvider;
+import com.github.aoclib.solver.Part;
+import com.github.aoclib.solver.PartStatus;
+import com.github.aoclib.solver.ReflectiveDayProvider;
+import com.github.aoclib.solver.ResourceUsage;
+
+/**
+ * Benchmarks days in child JVMs, so that each day starts with a clean JIT
+ * profile and heap.
+ *
+ * The child runs {@link ForkedBenchmark} with the same classpath as this JVM.
+ * The results are streamed back through the standard output of the child.
+ *
+ */
+public class ForkedRunner {
+
+	/**
+	 * The outcome of the parts run in one child JVM.
+	 *
+	 * @param results  the results of the parts that succeeded
+	 * @param failures the status of the parts that the child reported as
+	 *                 failed, {@link PartStatus#TIMEOUT} or
+	 *                 {@link PartStatus#ERROR}
+	 */
+	public record Run(Map<Part, PartResult> results, Map<Part, PartStatus> failures) {
+
+		/**
+		 *
+		 * @return the status of a part that did not succeed. A part that the
+		 *         child never reported, for example because it crashed, is an
+		 *         error.
+		 */
+		public PartStatus failure(Part part) {
+			return failures.getOrDefault(part, PartStatus.ERROR);
+		}
+	}
+
+	private final String user;
+	private final String provider;
+	private final List<String> jvmArgs;
+	private final BenchmarkRunner runner;
+
+	/**
+	 *
+	 * @param user     the user whose inputs are benchmarked
+	 * @param provider the provider of the days. Anything else than
+	 *                 {@link ReflectiveDayProvider} must have a public no-arg
+	 *                 constructor, as the child has to create its own.
+	 * @param jvmArgs  extra arguments for the child JVMs
+	 * @param runner   the iteration counts
+	 */
+	public ForkedRunner(String user, DayProvider provider, List<String> jvmArgs, BenchmarkRunner runner) {
+		this.user = user;
+		this.provider = provider instanceof ReflectiveDayProvider ? "" : provider.getClass().getName();
+		this.jvmArgs = jvmArgs;
+		this.runner = runner;
+	}
+
+	/**
+	 * Benchmarks the given parts of a day in a single child JVM.
+	 *
+	 * @param year
+	 * @param day
+	 * @param parts the parts to run, in order
+	 * @return the results and the failures of the parts
+	 */
+	public Run run(int year, int day, List<Part> parts) {
+		Map<Part, PartResult> results = new EnumMap<>(Part.class);
+		Map<Part, PartStatus> failures = new EnumMap<>(Part.class);
+
+		List<String> cmd = new ArrayList<>();
+		cmd.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+		cmd.addAll(jvmArgs);
+		cmd.addAll(List.of("-cp", System.getProperty("java.class.path"), ForkedBenchmark.class.getName()));
+		cmd.addAll(List.of("--db", DBManager.getFile(), //
+				"--root", ReflectiveDayProvider.getRoot(), //
+				"--provider", provider, //
+				"--user", user, //
+				"--year", "" + year, //
+				"--day", "" + day, //
+				"--warmup", "" + runner.warmupIterations(), //
+				"--iterations", "" + runner.measurementIterations(), //
+				"--timeout", "" + runner.timeBudgetMS(), //
+				"--part"));
+		parts.forEach(p -> cmd.add("" + p.intvalue));
+
+		try {
+			Process process = new ProcessBuilder(cmd).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+			try (BufferedReader in = new BufferedReader(
+					new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+				String line;
+				while ((line = in.readLine()) != null) {
+					if (line.startsWith(ForkedBenchmark.RESULT_PREFIX + "\t")) {
+						PartResult r = parseResult(line);
+						results.put(r.part, r);
+					} else if (line.startsWith(ForkedBenchmark.ERROR_PREFIX + "\t")) {
+						String[] fields = line.split("\t", 5);
+						failures.put(fields[3].equals("1") ? Part.FIRST : Part.SECOND,
+								fields[4].equals(ForkedBenchmark.TIMEOUT) ? PartStatus.TIMEOUT : PartStatus.ERROR);
+						System.err.println(day + "/" + year + ": Part" + fields[3] + " failed in the forked JVM: "
+								+ fields[4]);
+					} else {
+						System.out.println(line);
+					}
+				}
+			}
+			int exit = process.waitFor();
+			if (exit != 0) {
+				System.err.println(day + "/" + year + ": forked JVM exited with " + exit);
+			}
+		} catch (IOException e) {
+			System.err.println(day + "/" + year + ": could not start forked JVM: " + e.getMessage());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return new Run(results, failures);
+	}
+
+	private static PartResult parseResult(String line) {
+		String[] fields = line.split("\t", -1);
+		int year = Integer.parseInt(fields[1]);
+		int day = Integer.parseInt(fields[2]);
+		Part part = fields[3].equals("1") ? Part.FIRST : Part.SECOND;
+		long[] samples = Arrays.stream(fields[4].split(",")).mapToLong(Long::parseLong).toArray();
+		ResourceUsage usage = new ResourceUsage(Long.parseLong(fields[5]), Long.parseLong(fields[6]),
+				Long.parseLong(fields[7]), Long.parseLong(fields[8]), Long.parseLong(fields[9]),
+				Long.parseLong(fields[10]), Long.parseLong(fields[11]));
+		String solution = new String(Base64.getDecoder().decode(fields[12]), StandardCharsets.UTF_8);
+		return new PartResult(year, day, part, solution, samples, usage);
+	}
+}
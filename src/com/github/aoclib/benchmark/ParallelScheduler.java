@@ -0,0 +1,171 @@
+package com.github.aoclib.benchmark;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeoutException;
+
+import com.github.aoclib.solver.ResourceUsage;
+import com.github.aoclib.solver.Solution;
+
+/**
+ * Runs benchmark units on a work-stealing pool.
+ *
+ */
+public class ParallelScheduler {
+
+	public enum Mode {
+		/**
+		 * Each unit runs all its iterations on a single worker without
+		 * interruption. The pool never has more workers than there are cores, so
+		 * every running unit has a core of its own.
+		 */
+		ISOLATED,
+		/**
+		 * Every unit is started at once and each iteration is a separate task, so
+		 * all the units progress concurrently and compete for the workers. The
+		 * pool size is not limited to the core count.
+		 */
+		THROUGHPUT
+	}
+
+	/**
+	 * Timing of a whole scheduled run.
+	 */
+	public record Report(long wallNS, long busyNS, long cpuNS, int parallelism) {
+
+		/**
+		 * 
+		 * @return how many times faster the run was compared to running all the
+		 *         iterations one after another
+		 */
+		public double speedup() {
+			return wallNS == 0 ? 0 : busyNS / (double) wallNS;
+		}
+	}
+
+	private final int parallelism;
+	private final Mode mode;
+	private final BenchmarkRunner runner;
+
+	/**
+	 * 
+	 * @param parallelism the number of workers. In {@link Mode#ISOLATED} it is
+	 *                    capped to the number of available cores.
+	 * @param mode        how the units are scheduled
+	 * @param runner      the iteration counts for the units
+	 */
+	public ParallelScheduler(int parallelism, Mode mode, BenchmarkRunner runner) {
+		int cores = Runtime.getRuntime().availableProcessors();
+		this.parallelism = mode == Mode.ISOLATED ? Math.min(parallelism, cores) : parallelism;
+		this.mode = mode;
+		this.runner = runner;
+	}
+
+	/**
+	 * Runs all the units and blocks until they are done. The results are stored
+	 * to the units.
+	 * 
+	 * @param units the units to run
+	 * @return timing of the whole run
+	 */
+	public Report run(List<BenchmarkUnit> units) {
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		long start = System.nanoTime();
+		try {
+			CompletableFuture<?>[] futures = units.stream()//
+					.map(u -> mode == Mode.ISOLATED ? runIsolated(u, pool) : runInterleaved(u, pool))//
+					.toArray(CompletableFuture[]::new);
+			CompletableFuture.allOf(futures).join();
+		} finally {
+			pool.shutdown();
+		}
+		long wall = System.nanoTime() - start;
+
+		long busy = 0;
+		long cpu = 0;
+		for (BenchmarkUnit u : units) {
+			busy += u.busyNS;
+			cpu += u.cpuNS;
+		}
+		return new Report(wall, busy, cpu, parallelism);
+	}
+
+	private CompletableFuture<Void> runIsolated(BenchmarkUnit u, ForkJoinPool pool) {
+		return CompletableFuture.runAsync(() -> {
+			int warmup = runner.warmupIterations();
+			Collector c = new Collector(u);
+			for (int i = 0; i < warmup + runner.measurementIterations() && u.error == null; i++) {
+				c.iteration(i);
+			}
+			c.finish();
+		}, pool);
+	}
+
+	/**
+	 * Chains the iterations of the unit as separate tasks. The next iteration is
+	 * submitted only after the previous one is done, so a single unit never runs
+	 * in parallel with itself.
+	 */
+	private CompletableFuture<Void> runInterleaved(BenchmarkUnit u, ForkJoinPool pool) {
+		int total = runner.warmupIterations() + runner.measurementIterations();
+		Collector c = new Collector(u);
+
+		CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+		for (int i = 0; i < total; i++) {
+			int iteration = i;
+			chain = chain.thenRunAsync(() -> {
+				if (u.error == null) {
+					c.iteration(iteration);
+				}
+			}, pool);
+		}
+		return chain.thenRun(c::finish);
+	}
+
+	/**
+	 * Collects the iterations of a single unit. Both wall and CPU time include
+	 * the warmup iterations, so they can be compared to the wall time of the
+	 * whole run.
+	 */
+	private class Collector {
+		private final BenchmarkUnit u;
+		private final long[] samples = new long[runner.measurementIterations()];
+		private final ResourceUsage[] usages = new ResourceUsage[runner.measurementIterations()];
+		private String solution;
+
+		Collector(BenchmarkUnit u) {
+			this.u = u;
+		}
+
+		void iteration(int iteration) {
+			int warmup = runner.warmupIterations();
+			try {
+				Solution s = runner.iteration(u.solver, u.part, u.lines);
+				if (iteration >= warmup) {
+					samples[iteration - warmup] = s.solutiontimeNS;
+					usages[iteration - warmup] = s.usage;
+				}
+				solution = s.solution;
+				u.busyNS += s.solutiontimeNS;
+				u.cpuNS += Math.max(0, s.usage.threadCpuNS);
+			} catch (ExecutionException e) {
+				u.error = e.getCause();
+			} catch (TimeoutException e) {
+				u.error = e;
+			} catch (InterruptedException e) {
+				u.error = e;
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		void finish() {
+			if (u.error == null) {
+				// the units reset each other's heap peaks
+				u.result = new PartResult(u.year, u.day, u.part, solution, samples,
+						ResourceUsage.total(List.of(usages)).withoutPeakHeap());
+			}
+		}
+	}
+}
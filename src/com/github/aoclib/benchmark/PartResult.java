@@ -0,0 +1,69 @@
+package com.github.aoclib.benchmark;
+
+import com.github.aoclib.solver.Part;
+import com.github.aoclib.solver.ResourceUsage;
+
+/**
+ * The measured result of benchmarking a single puzzle part.
+ *
+ */
+public class PartResult {
+
+	public final int year;
+	public final int day;
+	public final Part part;
+
+	/**
+	 * The solution returned by the last measured iteration
+	 */
+	public final String solution;
+
+	/**
+	 * Wall time of each measured iteration in nanoseconds, in execution order
+	 */
+	public final long[] samples;
+
+	public final Statistics time;
+
+	/**
+	 * CPU and memory usage summed over all the measured iterations
+	 */
+	public final ResourceUsage usage;
+
+	public PartResult(int year, int day, Part part, String solution, long[] samples, ResourceUsage usage) {
+		this.year = year;
+		this.day = day;
+		this.part = part;
+		this.solution = solution;
+		this.samples = samples;
+		this.time = new Statistics(samples);
+		this.usage = usage;
+	}
+
+	/**
+	 * 
+	 * @return sum of the wall times of the measured iterations
+	 */
+	public long totalTimeNS() {
+		long sum = 0;
+		for (long l : samples) {
+			sum += l;
+		}
+		return sum;
+	}
+
+	/**
+	 * 
+	 * @return bytes allocated by a single iteration on average, -1 if not
+	 *         measured
+	 */
+	public long allocatedBytesPerIteration() {
+		return usage.allocatedBytes < 0 ? -1 : usage.allocatedBytes / samples.length;
+	}
+
+	@Override
+	public String toString() {
+		return "PartResult [year=" + year + ", day=" + day + ", part=" + part + ", solution=" + solution + ", time="
+				+ time + ", usage=" + usage + "]";
+	}
+}
@@ -0,0 +1,136 @@
+package com.github.aoclib.benchmark;
+
+import java.util.Arrays;
+
+import com.github.aoclib.utils.TimeUtils;
+
+/**
+ * Descriptive statistics over a set of measured nanosecond samples.
+ *
+ * Percentiles use the nearest-rank method. The confidence interval is the 95%
+ * interval of the mean, based on the Student's t-distribution.
+ *
+ */
+public class Statistics {
+
+	/**
+	 * Two-sided 95% critical values of the t-distribution for 1..30 degrees of
+	 * freedom.
+	 */
+	private static final double[] T95 = { 12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+			2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086, 2.080, 2.074, 2.069, 2.064, 2.060,
+			2.056, 2.052, 2.048, 2.045, 2.042 };
+
+	public final int count;
+	public final long min;
+	public final long max;
+	public final double mean;
+	public final double stddev;
+	public final long p50;
+	public final long p90;
+	public final long p99;
+
+	/**
+	 * Lower and upper bound of the 95% confidence interval of the mean
+	 */
+	public final double ciLow;
+	public final double ciHigh;
+
+	/**
+	 * 
+	 * @param samples measured values in nanoseconds. Must not be empty.
+	 */
+	public Statistics(long[] samples) {
+		if (samples.length == 0) {
+			throw new IllegalArgumentException("No samples to compute statistics from");
+		}
+		long[] sorted = samples.clone();
+		Arrays.sort(sorted);
+		count = sorted.length;
+		min = sorted[0];
+		max = sorted[count - 1];
+
+		double sum = 0;
+		for (long l : sorted) {
+			sum += l;
+		}
+		mean = sum / count;
+
+		double squares = 0;
+		for (long l : sorted) {
+			squares += (l - mean) * (l - mean);
+		}
+		stddev = count > 1 ? Math.sqrt(squares / (count - 1)) : 0;
+
+		p50 = percentile(sorted, 50);
+		p90 = percentile(sorted, 90);
+		p99 = percentile(sorted, 99);
+
+		double halfWidth = count > 1 ? tCritical95(count - 1) * stddev / Math.sqrt(count) : 0;
+		ciLow = mean - halfWidth;
+		ciHigh = mean + halfWidth;
+	}
+
+	/**
+	 * Nearest-rank percentile of an already sorted array.
+	 * 
+	 * @param sorted     values in ascending order
+	 * @param percentile between 0 and 100
+	 * @return the smallest value that has at least {@code percentile} percent of
+	 *         the values at or below it
+	 */
+	public static long percentile(long[] sorted, double percentile) {
+		int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+		return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+	}
+
+	/**
+	 * Two-sided 95% critical value of the t-distribution. Degrees of freedom
+	 * between the table entries are rounded down, so the value is never too
+	 * small and the intervals never too narrow.
+	 * 
+	 * @param degreesOfFreedom at least 1
+	 * @return the critical value
+	 */
+	public static double tCritical95(double degreesOfFreedom) {
+		if (degreesOfFreedom < 1) {
+			return Double.NaN;
+		}
+		if (degreesOfFreedom <= T95.length) {
+			return T95[(int) Math.floor(degreesOfFreedom) - 1];
+		}
+		if (degreesOfFreedom < 40) {
+			return 2.042;
+		}
+		if (degreesOfFreedom < 60) {
+			return 2.021;
+		}
+		if (degreesOfFreedom < 120) {
+			return 2.000;
+		}
+		return 1.980;
+	}
+
+	/**
+	 * 
+	 * @return a single line summary of these statistics
+	 */
+	public String summary() {
+		return "min " + TimeUtils.getTimeString(min) //
+				+ ", mean " + TimeUtils.getTimeString((long) mean) //
+				+ " +/-" + TimeUtils.getTimeString((long) (ciHigh - mean)) //
+				+ ", p50 " + TimeUtils.getTimeString(p50) //
+				+ ", p90 " + TimeUtils.getTimeString(p90) //
+				+ ", p99 " + TimeUtils.getTimeString(p99) //
+				+ ", max " + TimeUtils.getTimeString(max) //
+				+ ", stddev " + TimeUtils.getTimeString((long) stddev) //
+				+ " (n=" + count + ")";
+	}
+
+	@Override
+	public String toString() {
+		return "Statistics [count=" + count + ", min=" + min + ", max=" + max + ", mean=" + mean + ", stddev="
+				+ stddev + ", p50=" + p50 + ", p90=" + p90 + ", p99=" + p99 + ", ciLow=" + ciLow + ", ciHigh="
+				+ ciHigh + "]";
+	}
+}
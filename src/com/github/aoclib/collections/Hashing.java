@@ -0,0 +1,38 @@
+package com.github.aoclib.collections;
+
+/**
+ * Hash functions and table sizes of the hash based collections, shared with
+ * the other open addressing tables of the library such as
+ * {@link com.github.aoclib.grid.SparseGrid}.
+ */
+public final class Hashing {
+
+	private Hashing() {
+	}
+
+	/**
+	 * Spreads the bits of a key, so that keys that differ only in their high
+	 * bits, such as packed coordinates, do not collide in the low bits that
+	 * select the slot.
+	 */
+	public static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	public static int hash(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 *
+	 * @return a power of two table size that keeps the table at most half full
+	 */
+	public static int capacity(int expectedSize, int minCapacity) {
+		if (expectedSize > 1 << 29) {
+			throw new IllegalArgumentException("Too many elements: " + expectedSize);
+		}
+		return Integer.highestOneBit(Math.max(minCapacity, expectedSize * 2 - 1)) << 1;
+	}
+}
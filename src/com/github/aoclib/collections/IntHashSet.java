@@ -0,0 +1,206 @@
+package com.github.aoclib.collections;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A hash set of ints without boxing, for example of visited states.
+ *
+ * The elements are kept in an open addressing table with linear probing, and
+ * removal shifts the following elements back instead of leaving tombstones.
+ * The table is at most half full.
+ *
+ */
+public class IntHashSet {
+
+	/**
+	 * Marks free slots. This element is stored separately.
+	 */
+	private static final int EMPTY = Integer.MIN_VALUE;
+	private static final int MIN_CAPACITY = 16;
+
+	private int[] keys;
+	private int size;
+	private int mask;
+	private boolean hasEmptyKey;
+
+	public IntHashSet() {
+		this(MIN_CAPACITY);
+	}
+
+	/**
+	 *
+	 * @param expectedSize how many elements the set is expected to hold
+	 */
+	public IntHashSet(int expectedSize) {
+		int capacity = Hashing.capacity(expectedSize, MIN_CAPACITY);
+		keys = new int[capacity];
+		Arrays.fill(keys, EMPTY);
+		mask = capacity - 1;
+	}
+
+	/**
+	 *
+	 * @return a set of the values
+	 */
+	public static IntHashSet of(int... values) {
+		IntHashSet set = new IntHashSet(values.length);
+		for (int v : values) {
+			set.add(v);
+		}
+		return set;
+	}
+
+	public int size() {
+		return size + (hasEmptyKey ? 1 : 0);
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	public boolean contains(int value) {
+		if (value == EMPTY) {
+			return hasEmptyKey;
+		}
+		int i = Hashing.hash(value) & mask;
+		while (true) {
+			int k = keys[i];
+			if (k == value) {
+				return true;
+			}
+			if (k == EMPTY) {
+				return false;
+			}
+			i = (i + 1) & mask;
+		}
+	}
+
+	/**
+	 * Adds a value.
+	 *
+	 * @return true if the value was not in the set
+	 */
+	public boolean add(int value) {
+		if (value == EMPTY) {
+			boolean added = !hasEmptyKey;
+			hasEmptyKey = true;
+			return added;
+		}
+		int i = Hashing.hash(value) & mask;
+		while (true) {
+			int k = keys[i];
+			if (k == value) {
+				return false;
+			}
+			if (k == EMPTY) {
+				keys[i] = value;
+				if (++size * 2 > keys.length) {
+					rehash(keys.length * 2);
+				}
+				return true;
+			}
+			i = (i + 1) & mask;
+		}
+	}
+
+	/**
+	 * Removes a value.
+	 *
+	 * @return true if the value was in the set
+	 */
+	public boolean remove(int value) {
+		if (value == EMPTY) {
+			boolean had = hasEmptyKey;
+			hasEmptyKey = false;
+			return had;
+		}
+		int i = Hashing.hash(value) & mask;
+		while (keys[i] != value) {
+			if (keys[i] == EMPTY) {
+				return false;
+			}
+			i = (i + 1) & mask;
+		}
+		// backward shift deletion keeps the probe sequences intact
+		int gap = i;
+		int j = i;
+		while (true) {
+			j = (j + 1) & mask;
+			int k = keys[j];
+			if (k == EMPTY) {
+				break;
+			}
+			int home = Hashing.hash(k) & mask;
+			if (((j - home) & mask) >= ((j - gap) & mask)) {
+				keys[gap] = k;
+				gap = j;
+			}
+		}
+		keys[gap] = EMPTY;
+		size--;
+		return true;
+	}
+
+	private void rehash(int capacity) {
+		int[] old = keys;
+		keys = new int[capacity];
+		Arrays.fill(keys, EMPTY);
+		mask = capacity - 1;
+		for (int k : old) {
+			if (k != EMPTY) {
+				int j = Hashing.hash(k) & mask;
+				while (keys[j] != EMPTY) {
+					j = (j + 1) & mask;
+				}
+				keys[j] = k;
+			}
+		}
+	}
+
+	public void clear() {
+		Arrays.fill(keys, EMPTY);
+		size = 0;
+		hasEmptyKey = false;
+	}
+
+	/**
+	 * Visits every value, in no particular order. The set must not be modified
+	 * during the visit.
+	 */
+	public void forEach(IntConsumer action) {
+		if (hasEmptyKey) {
+			action.accept(EMPTY);
+		}
+		for (int k : keys) {
+			if (k != EMPTY) {
+				action.accept(k);
+			}
+		}
+	}
+
+	/**
+	 *
+	 * @return the values, in no particular order
+	 */
+	public int[] toArray() {
+		int[] result = new int[size()];
+		int n = 0;
+		if (hasEmptyKey) {
+			result[n++] = EMPTY;
+		}
+		for (int k : keys) {
+			if (k != EMPTY) {
+				result[n++] = k;
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		int[] values = toArray();
+		Arrays.sort(values);
+		return Arrays.toString(values);
+	}
+}
@@ -0,0 +1,156 @@
+package com.github.aoclib.collections;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+/**
+ * A growable array of ints, without boxing.
+ *
+ * It can also be used as a stack with {@link #add(int)} and
+ * {@link #removeLast()}.
+ *
+ */
+public class IntList {
+
+	private int[] values;
+	private int size;
+
+	public IntList() {
+		this(16);
+	}
+
+	/**
+	 *
+	 * @param capacity initial capacity, the list grows as needed
+	 */
+	public IntList(int capacity) {
+		values = new int[Math.max(1, capacity)];
+	}
+
+	/**
+	 *
+	 * @return a list of the values
+	 */
+	public static IntList of(int... values) {
+		IntList list = new IntList(values.length);
+		list.addAll(values);
+		return list;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void add(int value) {
+		if (size == values.length) {
+			values = Arrays.copyOf(values, values.length * 2);
+		}
+		values[size++] = value;
+	}
+
+	public void addAll(int... more) {
+		if (size + more.length > values.length) {
+			values = Arrays.copyOf(values, Math.max(values.length * 2, size + more.length));
+		}
+		System.arraycopy(more, 0, values, size, more.length);
+		size += more.length;
+	}
+
+	public int get(int i) {
+		checkIndex(i);
+		return values[i];
+	}
+
+	public void set(int i, int value) {
+		checkIndex(i);
+		values[i] = value;
+	}
+
+	private void checkIndex(int i) {
+		if (i < 0 || i >= size) {
+			throw new IndexOutOfBoundsException("Index " + i + " of " + size);
+		}
+	}
+
+	/**
+	 * Removes the last value.
+	 *
+	 * @throws NoSuchElementException if the list is empty
+	 */
+	public int removeLast() {
+		if (size == 0) {
+			throw new NoSuchElementException("List is empty");
+		}
+		return values[--size];
+	}
+
+	/**
+	 *
+	 * @throws NoSuchElementException if the list is empty
+	 */
+	public int last() {
+		if (size == 0) {
+			throw new NoSuchElementException("List is empty");
+		}
+		return values[size - 1];
+	}
+
+	/**
+	 *
+	 * @return index of the first occurrence of the value, or -1
+	 */
+	public int indexOf(int value) {
+		for (int i = 0; i < size; i++) {
+			if (values[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	public boolean contains(int value) {
+		return indexOf(value) >= 0;
+	}
+
+	/**
+	 * Shrinks the list, keeping the first values.
+	 */
+	public void truncate(int newSize) {
+		if (newSize < 0 || newSize > size) {
+			throw new IndexOutOfBoundsException("Size " + newSize + " of " + size);
+		}
+		size = newSize;
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	public void sort() {
+		Arrays.sort(values, 0, size);
+	}
+
+	public void forEach(IntConsumer action) {
+		for (int i = 0; i < size; i++) {
+			action.accept(values[i]);
+		}
+	}
+
+	/**
+	 *
+	 * @return a copy of the values
+	 */
+	public int[] toArray() {
+		return Arrays.copyOf(values, size);
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+}
@@ -0,0 +1,146 @@
+package com.github.aoclib.collections;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A double ended queue of longs on a growable ring buffer, for example the
+ * queue of a breadth first search without boxing.
+ *
+ */
+public class LongDeque {
+
+	private long[] buffer;
+	private int head;
+	private int size;
+
+	public LongDeque() {
+		this(16);
+	}
+
+	/**
+	 *
+	 * @param capacity initial capacity, the deque grows as needed
+	 */
+	public LongDeque(int capacity) {
+		buffer = new long[Integer.highestOneBit(Math.max(2, capacity) - 1) << 1];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void addLast(long value) {
+		if (size == buffer.length) {
+			grow();
+		}
+		buffer[(head + size) & (buffer.length - 1)] = value;
+		size++;
+	}
+
+	public void addFirst(long value) {
+		if (size == buffer.length) {
+			grow();
+		}
+		head = (head - 1) & (buffer.length - 1);
+		buffer[head] = value;
+		size++;
+	}
+
+	/**
+	 * Removes the first value.
+	 *
+	 * @throws NoSuchElementException if the deque is empty
+	 */
+	public long pollFirst() {
+		if (size == 0) {
+			throw new NoSuchElementException("Deque is empty");
+		}
+		long v = buffer[head];
+		head = (head + 1) & (buffer.length - 1);
+		size--;
+		return v;
+	}
+
+	/**
+	 * Removes the last value.
+	 *
+	 * @throws NoSuchElementException if the deque is empty
+	 */
+	public long pollLast() {
+		if (size == 0) {
+			throw new NoSuchElementException("Deque is empty");
+		}
+		size--;
+		return buffer[(head + size) & (buffer.length - 1)];
+	}
+
+	/**
+	 *
+	 * @throws NoSuchElementException if the deque is empty
+	 */
+	public long peekFirst() {
+		if (size == 0) {
+			throw new NoSuchElementException("Deque is empty");
+		}
+		return buffer[head];
+	}
+
+	/**
+	 *
+	 * @throws NoSuchElementException if the deque is empty
+	 */
+	public long peekLast() {
+		if (size == 0) {
+			throw new NoSuchElementException("Deque is empty");
+		}
+		return buffer[(head + size - 1) & (buffer.length - 1)];
+	}
+
+	/**
+	 *
+	 * @param i index from the first value
+	 * @return the value
+	 */
+	public long get(int i) {
+		if (i < 0 || i >= size) {
+			throw new IndexOutOfBoundsException("Index " + i + " of " + size);
+		}
+		return buffer[(head + i) & (buffer.length - 1)];
+	}
+
+	public void clear() {
+		head = 0;
+		size = 0;
+	}
+
+	private void grow() {
+		long[] grown = new long[buffer.length * 2];
+		int firstPart = buffer.length - head;
+		System.arraycopy(buffer, head, grown, 0, firstPart);
+		System.arraycopy(buffer, 0, grown, firstPart, head);
+		buffer = grown;
+		head = 0;
+	}
+
+	/**
+	 *
+	 * @return the values from first to last
+	 */
+	public long[] toArray() {
+		long[] result = new long[size];
+		for (int i = 0; i < size; i++) {
+			result[i] = buffer[(head + i) & (buffer.length - 1)];
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+}
@@ -0,0 +1,156 @@
+package com.github.aoclib.collections;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.function.LongConsumer;
+
+/**
+ * A growable array of longs, without boxing.
+ *
+ * It can also be used as a stack with {@link #add(long)} and
+ * {@link #removeLast()}.
+ *
+ */
+public class LongList {
+
+	private long[] values;
+	private int size;
+
+	public LongList() {
+		this(16);
+	}
+
+	/**
+	 *
+	 * @param capacity initial capacity, the list grows as needed
+	 */
+	public LongList(int capacity) {
+		values = new long[Math.max(1, capacity)];
+	}
+
+	/**
+	 *
+	 * @return a list of the values
+	 */
+	public static LongList of(long... values) {
+		LongList list = new LongList(values.length);
+		list.addAll(values);
+		return list;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void add(long value) {
+		if (size == values.length) {
+			values = Arrays.copyOf(values, values.length * 2);
+		}
+		values[size++] = value;
+	}
+
+	public void addAll(long... more) {
+		if (size + more.length > values.length) {
+			values = Arrays.copyOf(values, Math.max(values.length * 2, size + more.length));
+		}
+		System.arraycopy(more, 0, values, size, more.length);
+		size += more.length;
+	}
+
+	public long get(int i) {
+		checkIndex(i);
+		return values[i];
+	}
+
+	public void set(int i, long value) {
+		checkIndex(i);
+		values[i] = value;
+	}
+
+	private void checkIndex(int i) {
+		if (i < 0 || i >= size) {
+			throw new IndexOutOfBoundsException("Index " + i + " of " + size);
+		}
+	}
+
+	/**
+	 * Removes the last value.
+	 *
+	 * @throws NoSuchElementException if the list is empty
+	 */
+	public long removeLast() {
+		if (size == 0) {
+			throw new NoSuchElementException("List is empty");
+		}
+		return values[--size];
+	}
+
+	/**
+	 *
+	 * @throws NoSuchElementException if the list is empty
+	 */
+	public long last() {
+		if (size == 0) {
+			throw new NoSuchElementException("List is empty");
+		}
+		return values[size - 1];
+	}
+
+	/**
+	 *
+	 * @return index of the first occurrence of the value, or -1
+	 */
+	public int indexOf(long value) {
+		for (int i = 0; i < size; i++) {
+			if (values[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	public boolean contains(long value) {
+		return indexOf(value) >= 0;
+	}
+
+	/**
+	 * Shrinks the list, keeping the first values.
+	 */
+	public void truncate(int newSize) {
+		if (newSize < 0 || newSize > size) {
+			throw new IndexOutOfBoundsException("Size " + newSize + " of " + size);
+		}
+		size = newSize;
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	public void sort() {
+		Arrays.sort(values, 0, size);
+	}
+
+	public void forEach(LongConsumer action) {
+		for (int i = 0; i < size; i++) {
+			action.accept(values[i]);
+		}
+	}
+
+	/**
+	 *
+	 * @return a copy of the values
+	 */
+	public long[] toArray() {
+		return Arrays.copyOf(values, size);
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+}
@@ -0,0 +1,327 @@
+package com.github.aoclib.collections;
+
+import java.util.Arrays;
+
+/**
+ * A hash map from long keys to long values without boxing.
+ *
+ * The entries are kept in an open addressing table of primitive arrays with
+ * linear probing, and removal shifts the following entries back instead of
+ * leaving tombstones. The table is at most half full.
+ *
+ * Example, counting:
+ *
+ * <pre>
+ * LongLongMap counts = new LongLongMap();
+ * for (long x : values) {
+ * 	counts.addTo(x, 1);
+ * }
+ * </pre>
+ *
+ */
+public class LongLongMap {
+
+	/**
+	 * Receives the entries of the map
+	 */
+	@FunctionalInterface
+	public interface EntryVisitor {
+		void visit(long key, long value);
+	}
+
+	/**
+	 * Marks free slots. The entry with this key is stored separately.
+	 */
+	private static final long EMPTY = Long.MIN_VALUE;
+	private static final int MIN_CAPACITY = 16;
+
+	private long[] keys;
+	private long[] values;
+	private int size;
+	private int mask;
+
+	private boolean hasEmptyKey;
+	private long emptyKeyValue;
+
+	public LongLongMap() {
+		this(MIN_CAPACITY);
+	}
+
+	/**
+	 *
+	 * @param expectedSize how many entries the map is expected to hold
+	 */
+	public LongLongMap(int expectedSize) {
+		int capacity = Hashing.capacity(expectedSize, MIN_CAPACITY);
+		keys = new long[capacity];
+		Arrays.fill(keys, EMPTY);
+		values = new long[capacity];
+		mask = capacity - 1;
+	}
+
+	/**
+	 *
+	 * @return number of entries
+	 */
+	public int size() {
+		return size + (hasEmptyKey ? 1 : 0);
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	public boolean containsKey(long key) {
+		if (key == EMPTY) {
+			return hasEmptyKey;
+		}
+		return slot(key) >= 0;
+	}
+
+	/**
+	 *
+	 * @return the value of the key, or 0 if there is no such key
+	 */
+	public long get(long key) {
+		return get(key, 0);
+	}
+
+	/**
+	 *
+	 * @param key          the key
+	 * @param defaultValue returned if there is no such key
+	 * @return the value of the key
+	 */
+	public long get(long key, long defaultValue) {
+		if (key == EMPTY) {
+			return hasEmptyKey ? emptyKeyValue : defaultValue;
+		}
+		int slot = slot(key);
+		return slot >= 0 ? values[slot] : defaultValue;
+	}
+
+	/**
+	 *
+	 * @return the index of the key, or -1
+	 */
+	private int slot(long key) {
+		int i = Hashing.hash(key) & mask;
+		while (true) {
+			long k = keys[i];
+			if (k == key) {
+				return i;
+			}
+			if (k == EMPTY) {
+				return -1;
+			}
+			i = (i + 1) & mask;
+		}
+	}
+
+	/**
+	 * Sets the value of a key.
+	 */
+	public void put(long key, long value) {
+		if (key == EMPTY) {
+			hasEmptyKey = true;
+			emptyKeyValue = value;
+			return;
+		}
+		int i = Hashing.hash(key) & mask;
+		while (true) {
+			long k = keys[i];
+			if (k == key) {
+				values[i] = value;
+				return;
+			}
+			if (k == EMPTY) {
+				insert(i, key, value);
+				return;
+			}
+			i = (i + 1) & mask;
+		}
+	}
+
+	/**
+	 * Sets the value of a key, unless the key already has a value.
+	 *
+	 * @return true if the value was set
+	 */
+	public boolean putIfAbsent(long key, long value) {
+		if (key == EMPTY) {
+			if (hasEmptyKey) {
+				return false;
+			}
+			hasEmptyKey = true;
+			emptyKeyValue = value;
+			return true;
+		}
+		int i = Hashing.hash(key) & mask;
+		while (true) {
+			long k = keys[i];
+			if (k == key) {
+				return false;
+			}
+			if (k == EMPTY) {
+				insert(i, key, value);
+				return true;
+			}
+			i = (i + 1) & mask;
+		}
+	}
+
+	/**
+	 * Adds to the value of a key. Missing keys start from 0.
+	 *
+	 * @param key   the key
+	 * @param delta the amount to add
+	 * @return the new value
+	 */
+	public long addTo(long key, long delta) {
+		if (key == EMPTY) {
+			emptyKeyValue = hasEmptyKey ? emptyKeyValue + delta : delta;
+			hasEmptyKey = true;
+			return emptyKeyValue;
+		}
+		int i = Hashing.hash(key) & mask;
+		while (true) {
+			long k = keys[i];
+			if (k == key) {
+				return values[i] += delta;
+			}
+			if (k == EMPTY) {
+				insert(i, key, delta);
+				return delta;
+			}
+			i = (i + 1) & mask;
+		}
+	}
+
+	private void insert(int i, long key, long value) {
+		keys[i] = key;
+		values[i] = value;
+		if (++size * 2 > keys.length) {
+			rehash(keys.length * 2);
+		}
+	}
+
+	/**
+	 * Removes a key.
+	 *
+	 * @return true if the key was in the map
+	 */
+	public boolean remove(long key) {
+		if (key == EMPTY) {
+			boolean had = hasEmptyKey;
+			hasEmptyKey = false;
+			return had;
+		}
+		int i = slot(key);
+		if (i < 0) {
+			return false;
+		}
+		// backward shift deletion keeps the probe sequences intact
+		int gap = i;
+		int j = i;
+		while (true) {
+			j = (j + 1) & mask;
+			long k = keys[j];
+			if (k == EMPTY) {
+				break;
+			}
+			int home = Hashing.hash(k) & mask;
+			if (((j - home) & mask) >= ((j - gap) & mask)) {
+				keys[gap] = k;
+				values[gap] = values[j];
+				gap = j;
+			}
+		}
+		keys[gap] = EMPTY;
+		size--;
+		return true;
+	}
+
+	private void rehash(int capacity) {
+		long[] oldKeys = keys;
+		long[] oldValues = values;
+		keys = new long[capacity];
+		Arrays.fill(keys, EMPTY);
+		values = new long[capacity];
+		mask = capacity - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			long k = oldKeys[i];
+			if (k != EMPTY) {
+				int j = Hashing.hash(k) & mask;
+				while (keys[j] != EMPTY) {
+					j = (j + 1) & mask;
+				}
+				keys[j] = k;
+				values[j] = oldValues[i];
+			}
+		}
+	}
+
+	public void clear() {
+		Arrays.fill(keys, EMPTY);
+		size = 0;
+		hasEmptyKey = false;
+	}
+
+	/**
+	 * Visits every entry, in no particular order. The map must not be modified
+	 * during the visit.
+	 */
+	public void forEach(EntryVisitor visitor) {
+		if (hasEmptyKey) {
+			visitor.visit(EMPTY, emptyKeyValue);
+		}
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != EMPTY) {
+				visitor.visit(keys[i], values[i]);
+			}
+		}
+	}
+
+	/**
+	 *
+	 * @return the keys, in no particular order
+	 */
+	public long[] keys() {
+		long[] result = new long[size()];
+		int n = 0;
+		if (hasEmptyKey) {
+			result[n++] = EMPTY;
+		}
+		for (long k : keys) {
+			if (k != EMPTY) {
+				result[n++] = k;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 *
+	 * @return the values, in the same order as {@link #keys()}
+	 */
+	public long[] values() {
+		long[] result = new long[size()];
+		int n = 0;
+		if (hasEmptyKey) {
+			result[n++] = emptyKeyValue;
+		}
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != EMPTY) {
+				result[n++] = values[i];
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("{");
+		forEach((k, v) -> sb.append(sb.length() > 1 ? ", " : "").append(k).append('=').append(v));
+		return sb.append('}').toString();
+	}
+}
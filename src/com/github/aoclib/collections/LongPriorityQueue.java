@@ -0,0 +1,138 @@
+package com.github.aoclib.collections;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A binary min-heap of long values ordered by long priorities, without
+ * boxing. For example the queue of Dijkstra's algorithm with the distance as
+ * the priority and a packed state as the value.
+ *
+ * Example:
+ *
+ * <pre>
+ * LongPriorityQueue queue = new LongPriorityQueue();
+ * queue.add(0, start);
+ * while (!queue.isEmpty()) {
+ * 	long dist = queue.peekPriority();
+ * 	long state = queue.poll();
+ * 	...
+ * }
+ * </pre>
+ *
+ * Values with the same priority are polled in no particular order. If the
+ * priorities never decrease below the last polled one, {@link RadixHeap} is
+ * faster.
+ *
+ */
+public class LongPriorityQueue {
+
+	private long[] priorities;
+	private long[] values;
+	private int size;
+
+	public LongPriorityQueue() {
+		this(16);
+	}
+
+	/**
+	 *
+	 * @param capacity initial capacity, the queue grows as needed
+	 */
+	public LongPriorityQueue(int capacity) {
+		priorities = new long[Math.max(1, capacity)];
+		values = new long[priorities.length];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void add(long priority, long value) {
+		if (size == priorities.length) {
+			priorities = Arrays.copyOf(priorities, size * 2);
+			values = Arrays.copyOf(values, size * 2);
+		}
+		int i = size++;
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (priorities[parent] <= priority) {
+				break;
+			}
+			priorities[i] = priorities[parent];
+			values[i] = values[parent];
+			i = parent;
+		}
+		priorities[i] = priority;
+		values[i] = value;
+	}
+
+	/**
+	 *
+	 * @return the smallest priority
+	 * @throws NoSuchElementException if the queue is empty
+	 */
+	public long peekPriority() {
+		checkNotEmpty();
+		return priorities[0];
+	}
+
+	/**
+	 *
+	 * @return the value with the smallest priority
+	 * @throws NoSuchElementException if the queue is empty
+	 */
+	public long peek() {
+		checkNotEmpty();
+		return values[0];
+	}
+
+	/**
+	 * Removes the value with the smallest priority.
+	 *
+	 * @return the value
+	 * @throws NoSuchElementException if the queue is empty
+	 */
+	public long poll() {
+		checkNotEmpty();
+		long result = values[0];
+		size--;
+		if (size > 0) {
+			siftDown(priorities[size], values[size]);
+		}
+		return result;
+	}
+
+	private void siftDown(long priority, long value) {
+		int i = 0;
+		int half = size >>> 1;
+		while (i < half) {
+			int child = 2 * i + 1;
+			if (child + 1 < size && priorities[child + 1] < priorities[child]) {
+				child++;
+			}
+			if (priority <= priorities[child]) {
+				break;
+			}
+			priorities[i] = priorities[child];
+			values[i] = values[child];
+			i = child;
+		}
+		priorities[i] = priority;
+		values[i] = value;
+	}
+
+	private void checkNotEmpty() {
+		if (size == 0) {
+			throw new NoSuchElementException("Queue is empty");
+		}
+	}
+
+	public void clear() {
+		size = 0;
+	}
+}
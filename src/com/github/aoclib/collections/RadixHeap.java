@@ -0,0 +1,133 @@
+package com.github.aoclib.collections;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A monotone priority queue of long values with non-negative long
+ * priorities. A priority may not be smaller than the last polled one, which is
+ * always true for the distances of Dijkstra's algorithm with non-negative
+ * edge weights.
+ *
+ * An entry is in a bucket by the highest bit in which its priority differs
+ * from the last polled priority, and it moves to a lower bucket at most 64
+ * times. This makes adding constant time and polling amortized O(log C),
+ * where C is the largest difference between priorities, and the buckets are
+ * scanned sequentially instead of sifting a heap.
+ *
+ * The API is the same as in {@link LongPriorityQueue}.
+ *
+ */
+public class RadixHeap {
+
+	private final LongList[] priorities = new LongList[65];
+	private final LongList[] values = new LongList[65];
+	private long last;
+	private int size;
+
+	public RadixHeap() {
+		for (int i = 0; i < priorities.length; i++) {
+			priorities[i] = new LongList(4);
+			values[i] = new LongList(4);
+		}
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 *
+	 * @throws IllegalArgumentException if the priority is smaller than the last
+	 *                                  polled priority
+	 */
+	public void add(long priority, long value) {
+		if (priority < last) {
+			throw new IllegalArgumentException("Priority " + priority + " is smaller than the last polled " + last);
+		}
+		int b = bucket(priority);
+		priorities[b].add(priority);
+		values[b].add(value);
+		size++;
+	}
+
+	private int bucket(long priority) {
+		return 64 - Long.numberOfLeadingZeros(priority ^ last);
+	}
+
+	/**
+	 *
+	 * @return the smallest priority
+	 * @throws NoSuchElementException if the heap is empty
+	 */
+	public long peekPriority() {
+		pull();
+		return priorities[0].last();
+	}
+
+	/**
+	 *
+	 * @return the value with the smallest priority
+	 * @throws NoSuchElementException if the heap is empty
+	 */
+	public long peek() {
+		pull();
+		return values[0].last();
+	}
+
+	/**
+	 * Removes the value with the smallest priority.
+	 *
+	 * @return the value
+	 * @throws NoSuchElementException if the heap is empty
+	 */
+	public long poll() {
+		pull();
+		size--;
+		priorities[0].removeLast();
+		return values[0].removeLast();
+	}
+
+	/**
+	 * Makes sure that bucket 0, the entries with the smallest priority, is not
+	 * empty.
+	 */
+	private void pull() {
+		if (size == 0) {
+			throw new NoSuchElementException("Heap is empty");
+		}
+		if (!priorities[0].isEmpty()) {
+			return;
+		}
+		int b = 1;
+		while (priorities[b].isEmpty()) {
+			b++;
+		}
+		LongList p = priorities[b];
+		LongList v = values[b];
+		long min = Long.MAX_VALUE;
+		for (int i = 0; i < p.size(); i++) {
+			min = Math.min(min, p.get(i));
+		}
+		last = min;
+		for (int i = 0; i < p.size(); i++) {
+			int to = bucket(p.get(i));
+			priorities[to].add(p.get(i));
+			values[to].add(v.get(i));
+		}
+		p.clear();
+		v.clear();
+	}
+
+	public void clear() {
+		for (int i = 0; i < priorities.length; i++) {
+			priorities[i].clear();
+			values[i].clear();
+		}
+		size = 0;
+		last = 0;
+	}
+}
@@ -0,0 +1,44 @@
+package com.github.aoclib.cycle;
+
+/**
+ * A cycle of a sequence of states: from step {@link #start} on, the state at
+ * step n + {@link #length} is the same as at step n.
+ *
+ */
+public class Cycle {
+
+	/**
+	 * The first step that is part of the cycle
+	 */
+	public final long start;
+
+	/**
+	 * Number of steps in the cycle
+	 */
+	public final long length;
+
+	public Cycle(long start, long length) {
+		if (start < 0 || length <= 0) {
+			throw new IllegalArgumentException("Invalid cycle start " + start + ", length " + length);
+		}
+		this.start = start;
+		this.length = length;
+	}
+
+	/**
+	 *
+	 * @param step any step
+	 * @return the earliest step with the same state
+	 */
+	public long reduce(long step) {
+		if (step < start) {
+			return step;
+		}
+		return start + (step - start) % length;
+	}
+
+	@Override
+	public String toString() {
+		return "Cycle[start=" + start + ", length=" + length + "]";
+	}
+}
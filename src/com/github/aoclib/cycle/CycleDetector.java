@@ -0,0 +1,95 @@
+package com.github.aoclib.cycle;
+
+import com.github.aoclib.collections.LongLongMap;
+
+/**
+ * Remembers the step at which each state was first seen, by the hash of the
+ * state, and reports the cycle when a state is seen again.
+ *
+ * Unlike {@link CycleFinder#brent(long, java.util.function.LongUnaryOperator)},
+ * this needs no way to go back to an earlier state, so it works for
+ * simulations that mutate their state in place.
+ *
+ * Example:
+ *
+ * <pre>
+ * CycleDetector detector = new CycleDetector();
+ * long step = 0;
+ * while (!detector.seen(StateHash.hash(grid), step)) {
+ * 	tick(grid);
+ * 	step++;
+ * }
+ * // the state of this step repeats every cycle().length steps
+ * long remaining = (1_000_000_000 - step) % detector.cycle().length;
+ * </pre>
+ *
+ */
+public class CycleDetector {
+
+	private final LongLongMap firstSeen = new LongLongMap();
+	private final LongLongMap check = new LongLongMap();
+	private Cycle cycle;
+
+	/**
+	 * Records the state of a step.
+	 *
+	 * @param hash 64-bit hash of the state
+	 * @param step the step, increasing between calls
+	 * @return true if the state was seen before, see {@link #cycle()}
+	 */
+	public boolean seen(long hash, long step) {
+		long first = firstSeen.get(hash, -1);
+		if (first >= 0) {
+			cycle = new Cycle(first, step - first);
+			return true;
+		}
+		firstSeen.put(hash, step);
+		return false;
+	}
+
+	/**
+	 * Records the state of a step by a 128-bit hash, for very long simulations
+	 * where a collision of 64-bit hashes is a risk.
+	 *
+	 * @param hash  the first 64 bits of the hash
+	 * @param hash2 the other 64 bits of the hash, from an independent function
+	 * @param step  the step, increasing between calls
+	 * @return true if the state was seen before, see {@link #cycle()}
+	 */
+	public boolean seen(long hash, long hash2, long step) {
+		long first = firstSeen.get(hash, -1);
+		if (first >= 0 && check.get(hash) == hash2) {
+			cycle = new Cycle(first, step - first);
+			return true;
+		}
+		// a new state, or a collision of the first half that replaces the old state
+		firstSeen.put(hash, step);
+		check.put(hash, hash2);
+		return false;
+	}
+
+	/**
+	 *
+	 * @return the cycle found by the last {@code seen} that returned true, or
+	 *         null
+	 */
+	public Cycle cycle() {
+		return cycle;
+	}
+
+	/**
+	 *
+	 * @return the step where the state was first seen, or -1
+	 */
+	public long firstSeen(long hash) {
+		return firstSeen.get(hash, -1);
+	}
+
+	/**
+	 *
+	 * @return number of distinct states seen
+	 */
+	public int size() {
+		return firstSeen.size();
+	}
+}
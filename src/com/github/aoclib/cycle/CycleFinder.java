@@ -0,0 +1,202 @@
+package com.github.aoclib.cycle;
+
+import java.util.Objects;
+import java.util.function.LongUnaryOperator;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Finds the cycle of a deterministic sequence of states, and computes the state
+ * at a step far in the future by skipping the repeated cycles.
+ *
+ * Floyd's and Brent's algorithms need constant memory, but they run the
+ * sequence several times from the start, so they are meant for states that are
+ * cheap to compute and compare, such as longs. For large mutable states such
+ * as grids, {@link #stateAt(Object, UnaryOperator, ToLongFunction, long)}
+ * remembers the hash of every state instead.
+ *
+ * Example, the grid after a billion steps:
+ *
+ * <pre>
+ * char[][] result = CycleFinder.stateAt(input.charMatrix(), g -&gt; tick(g), StateHash::hash, 1_000_000_000);
+ * </pre>
+ *
+ */
+public final class CycleFinder {
+
+	private CycleFinder() {
+	}
+
+	/**
+	 * Floyd's tortoise and hare.
+	 *
+	 * @param x0 the state at step 0
+	 * @param f  computes the next state
+	 * @return the cycle of the sequence
+	 */
+	public static Cycle floyd(long x0, LongUnaryOperator f) {
+		long tortoise = f.applyAsLong(x0);
+		long hare = f.applyAsLong(tortoise);
+		while (tortoise != hare) {
+			tortoise = f.applyAsLong(tortoise);
+			hare = f.applyAsLong(f.applyAsLong(hare));
+		}
+		long start = 0;
+		tortoise = x0;
+		while (tortoise != hare) {
+			tortoise = f.applyAsLong(tortoise);
+			hare = f.applyAsLong(hare);
+			start++;
+		}
+		long length = 1;
+		hare = f.applyAsLong(tortoise);
+		while (tortoise != hare) {
+			hare = f.applyAsLong(hare);
+			length++;
+		}
+		return new Cycle(start, length);
+	}
+
+	/**
+	 * Brent's algorithm. Calls f fewer times than Floyd's.
+	 *
+	 * @param x0 the state at step 0
+	 * @param f  computes the next state
+	 * @return the cycle of the sequence
+	 */
+	public static Cycle brent(long x0, LongUnaryOperator f) {
+		long power = 1;
+		long length = 1;
+		long tortoise = x0;
+		long hare = f.applyAsLong(x0);
+		while (tortoise != hare) {
+			if (power == length) {
+				tortoise = hare;
+				power *= 2;
+				length = 0;
+			}
+			hare = f.applyAsLong(hare);
+			length++;
+		}
+		tortoise = x0;
+		hare = x0;
+		for (long i = 0; i < length; i++) {
+			hare = f.applyAsLong(hare);
+		}
+		long start = 0;
+		while (tortoise != hare) {
+			tortoise = f.applyAsLong(tortoise);
+			hare = f.applyAsLong(hare);
+			start++;
+		}
+		return new Cycle(start, length);
+	}
+
+	/**
+	 * Brent's algorithm for immutable states compared with equals.
+	 *
+	 * @param <T> the type of the state
+	 * @param x0  the state at step 0
+	 * @param f   computes the next state without modifying the previous one
+	 * @return the cycle of the sequence
+	 */
+	public static <T> Cycle brent(T x0, UnaryOperator<T> f) {
+		long power = 1;
+		long length = 1;
+		T tortoise = x0;
+		T hare = f.apply(x0);
+		while (!Objects.equals(tortoise, hare)) {
+			if (power == length) {
+				tortoise = hare;
+				power *= 2;
+				length = 0;
+			}
+			hare = f.apply(hare);
+			length++;
+		}
+		tortoise = x0;
+		hare = x0;
+		for (long i = 0; i < length; i++) {
+			hare = f.apply(hare);
+		}
+		long start = 0;
+		while (!Objects.equals(tortoise, hare)) {
+			tortoise = f.apply(tortoise);
+			hare = f.apply(hare);
+			start++;
+		}
+		return new Cycle(start, length);
+	}
+
+	/**
+	 * Computes the state at a step with {@link #brent(long, LongUnaryOperator)}
+	 * and the cycle.
+	 *
+	 * @param x0     the state at step 0
+	 * @param f      computes the next state
+	 * @param target the step
+	 * @return the state at the step
+	 */
+	public static long stateAt(long x0, LongUnaryOperator f, long target) {
+		long x = x0;
+		long step = 0;
+		// short sequences do not need the cycle
+		for (; step < target && step < 1024; step++) {
+			x = f.applyAsLong(x);
+		}
+		if (step == target) {
+			return x;
+		}
+		// continue from the state already reached
+		Cycle cycle = brent(x0, f);
+		long remaining = step >= cycle.start ? (target - step) % cycle.length : cycle.reduce(target) - step;
+		for (long i = 0; i < remaining; i++) {
+			x = f.applyAsLong(x);
+		}
+		return x;
+	}
+
+	/**
+	 * Runs a simulation to a step, skipping the cycles. The state is hashed
+	 * after each step, and when a hash repeats, the remaining steps are reduced
+	 * to less than one cycle.
+	 *
+	 * @param <T>     the type of the state
+	 * @param initial the state at step 0
+	 * @param step    computes the next state. May modify the state in place and
+	 *                return it.
+	 * @param hash    64-bit hash of a state, for example from {@link StateHash}
+	 * @param target  the step
+	 * @return the state at the step
+	 */
+	public static <T> T stateAt(T initial, UnaryOperator<T> step, ToLongFunction<T> hash, long target) {
+		return stateAt(initial, step, hash, null, target);
+	}
+
+	/**
+	 * Like {@link #stateAt(Object, UnaryOperator, ToLongFunction, long)} with a
+	 * 128-bit hash.
+	 *
+	 * @param hash2 the other 64 bits of the hash, from an independent function
+	 */
+	public static <T> T stateAt(T initial, UnaryOperator<T> step, ToLongFunction<T> hash, ToLongFunction<T> hash2,
+			long target) {
+		CycleDetector detector = new CycleDetector();
+		T state = initial;
+		long n = 0;
+		while (n < target) {
+			long h = hash.applyAsLong(state);
+			boolean seen = hash2 == null ? detector.seen(h, n) : detector.seen(h, hash2.applyAsLong(state), n);
+			if (seen) {
+				long remaining = (target - n) % detector.cycle().length;
+				for (long i = 0; i < remaining; i++) {
+					state = step.apply(state);
+				}
+				return state;
+			}
+			state = step.apply(state);
+			n++;
+		}
+		return state;
+	}
+}
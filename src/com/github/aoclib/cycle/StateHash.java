@@ -0,0 +1,141 @@
+package com.github.aoclib.cycle;
+
+import com.github.aoclib.grid.Grid;
+
+/**
+ * Fast 64-bit hashes of whole states, for {@link CycleDetector}. Each
+ * function has a second variant with a different seed, for 128-bit hashes.
+ *
+ * To update the hash of a large grid after a few changes instead of hashing
+ * it again, see {@link Zobrist}.
+ *
+ */
+public final class StateHash {
+
+	private static final long SEED = 0x243F6A8885A308D3L;
+	private static final long SEED2 = 0x13198A2E03707344L;
+
+	private StateHash() {
+	}
+
+	/**
+	 * The finalizer of SplitMix64, a bijective mix of the bits
+	 */
+	static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	private static long combine(long h, long value) {
+		return mix(h + value) * 0x9E3779B97F4A7C15L;
+	}
+
+	public static long hash(long[] values) {
+		return hash(values, SEED);
+	}
+
+	public static long hash2(long[] values) {
+		return hash(values, SEED2);
+	}
+
+	private static long hash(long[] values, long seed) {
+		long h = seed ^ values.length;
+		for (long v : values) {
+			h = combine(h, v);
+		}
+		return mix(h);
+	}
+
+	public static long hash(int[] values) {
+		return hash(values, SEED);
+	}
+
+	public static long hash2(int[] values) {
+		return hash(values, SEED2);
+	}
+
+	private static long hash(int[] values, long seed) {
+		long h = seed ^ values.length;
+		int i = 0;
+		for (; i + 1 < values.length; i += 2) {
+			h = combine(h, ((long) values[i] << 32) | (values[i + 1] & 0xffffffffL));
+		}
+		if (i < values.length) {
+			h = combine(h, values[i]);
+		}
+		return mix(h);
+	}
+
+	public static long hash(byte[] values) {
+		return hash(values, SEED);
+	}
+
+	public static long hash2(byte[] values) {
+		return hash(values, SEED2);
+	}
+
+	/**
+	 * Hashes 8 bytes at a time
+	 */
+	private static long hash(byte[] values, long seed) {
+		long h = seed ^ values.length;
+		int i = 0;
+		for (; i + 8 <= values.length; i += 8) {
+			long word = 0;
+			for (int j = 0; j < 8; j++) {
+				word = (word << 8) | (values[i + j] & 0xff);
+			}
+			h = combine(h, word);
+		}
+		long word = 0;
+		for (; i < values.length; i++) {
+			word = (word << 8) | (values[i] & 0xff);
+		}
+		return mix(combine(h, word));
+	}
+
+	/**
+	 * Hashes a character matrix, for example from
+	 * {@link com.github.aoclib.api.InputParser#charMatrix()}. The row lengths
+	 * are part of the hash.
+	 */
+	public static long hash(char[][] rows) {
+		return hash(rows, SEED);
+	}
+
+	public static long hash2(char[][] rows) {
+		return hash(rows, SEED2);
+	}
+
+	/**
+	 * Hashes 4 chars at a time
+	 */
+	private static long hash(char[][] rows, long seed) {
+		long h = seed ^ rows.length;
+		for (char[] row : rows) {
+			h = combine(h, row.length);
+			int i = 0;
+			for (; i + 4 <= row.length; i += 4) {
+				h = combine(h, ((long) row[i] << 48) | ((long) row[i + 1] << 32) | ((long) row[i + 2] << 16) | row[i + 3]);
+			}
+			long word = 0;
+			for (; i < row.length; i++) {
+				word = (word << 16) | row[i];
+			}
+			h = combine(h, word);
+		}
+		return mix(h);
+	}
+
+	/**
+	 * Hashes the cells of a grid, including the border.
+	 */
+	public static long hash(Grid grid) {
+		return hash(grid.cells, SEED);
+	}
+
+	public static long hash2(Grid grid) {
+		return hash(grid.cells, SEED2);
+	}
+}
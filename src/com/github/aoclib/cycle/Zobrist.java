@@ -0,0 +1,115 @@
+package com.github.aoclib.cycle;
+
+import com.github.aoclib.grid.Grid;
+
+/**
+ * Zobrist hashing of grids: the hash is the XOR of a random key for the value
+ * of each cell, so changing a cell updates the hash in constant time with
+ * {@link #update(long, int, int, int)}.
+ *
+ * The keys are derived from a random number per cell and the value, so any
+ * byte or char values can be stored without a table per value.
+ *
+ * Example, a simulation that changes only some cells per step:
+ *
+ * <pre>
+ * Zobrist z = new Zobrist(grid.cells.length);
+ * long hash = z.hash(grid);
+ * ...
+ * hash = z.update(hash, i, grid.cells[i], newValue);
+ * grid.cells[i] = newValue;
+ * </pre>
+ *
+ * Two instances with different seeds give a 128-bit hash for
+ * {@link CycleDetector#seen(long, long, long)}.
+ *
+ */
+public class Zobrist {
+
+	private final long[] cellKeys;
+
+	/**
+	 *
+	 * @param cells the number of cells
+	 */
+	public Zobrist(int cells) {
+		this(cells, 0x5DEECE66DL);
+	}
+
+	/**
+	 *
+	 * @param cells the number of cells
+	 * @param seed  the seed of the random keys
+	 */
+	public Zobrist(int cells, long seed) {
+		cellKeys = new long[cells];
+		long state = seed;
+		for (int i = 0; i < cells; i++) {
+			state += 0x9E3779B97F4A7C15L;
+			cellKeys[i] = StateHash.mix(state);
+		}
+	}
+
+	/**
+	 *
+	 * @return the key of a value in a cell
+	 */
+	public long key(int cell, int value) {
+		return StateHash.mix(cellKeys[cell] + value * 0xD6E8FEB86659FD93L);
+	}
+
+	/**
+	 *
+	 * @param hash     the hash before the change
+	 * @param cell     the index of the changed cell
+	 * @param oldValue the value before the change
+	 * @param newValue the value after the change
+	 * @return the hash after the change
+	 */
+	public long update(long hash, int cell, int oldValue, int newValue) {
+		return hash ^ key(cell, oldValue) ^ key(cell, newValue);
+	}
+
+	/**
+	 * Hashes cells. The array must not be longer than the number of cells.
+	 */
+	public long hash(byte[] cells) {
+		long h = 0;
+		for (int i = 0; i < cells.length; i++) {
+			h ^= key(i, cells[i]);
+		}
+		return h;
+	}
+
+	/**
+	 * Hashes the cells of a grid, including the border. Use the indices of
+	 * {@link Grid#cells} with {@link #update(long, int, int, int)}.
+	 */
+	public long hash(Grid grid) {
+		return hash(grid.cells);
+	}
+
+	/**
+	 * Hashes a character matrix, for example from
+	 * {@link com.github.aoclib.api.InputParser#charMatrix()}. The cells are
+	 * numbered row by row, see {@link #index(char[][], int, int)}.
+	 */
+	public long hash(char[][] rows) {
+		long h = 0;
+		int i = 0;
+		for (char[] row : rows) {
+			for (char c : row) {
+				h ^= key(i++, c);
+			}
+		}
+		return h;
+	}
+
+	/**
+	 *
+	 * @return the cell number of a character of a rectangular matrix
+	 */
+	public static int index(char[][] rows, int x, int y) {
+		return y * rows[0].length + x;
+	}
+}
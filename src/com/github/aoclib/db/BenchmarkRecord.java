@@ -0,0 +1,40 @@
+package com.github.aoclib.db;
+
+import com.github.aoclib.benchmark.Statistics;
+import com.github.aoclib.solver.Part;
+
+/**
+ * A single stored benchmark result of one puzzle part.
+ *
+ */
+public class BenchmarkRecord {
+	public final String runId;
+	public final long timestamp;
+	public final String user;
+	public final int year;
+	public final int day;
+	public final Part part;
+	public final int warmup;
+	public final long[] samples;
+	public final Statistics time;
+	public final String jvmVersion;
+	public final String host;
+	public final String sourceHash;
+
+	public BenchmarkRecord(String runId, long timestamp, String user, int year, int day, Part part, int warmup,
+			long[] samples, String jvmVersion, String host, String sourceHash) {
+		super();
+		this.runId = runId;
+		this.timestamp = timestamp;
+		this.user = user;
+		this.year = year;
+		this.day = day;
+		this.part = part;
+		this.warmup = warmup;
+		this.samples = samples;
+		this.time = new Statistics(samples);
+		this.jvmVersion = jvmVersion;
+		this.host = host;
+		this.sourceHash = sourceHash;
+	}
+}
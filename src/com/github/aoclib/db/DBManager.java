@@ -7,8 +7,12 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import com.github.aoclib.api.AOCApi.AOCRequestType;
 import com.github.aoclib.solver.Part;
@@ -60,15 +64,22 @@ public class DBManager {
 		setFile("aoc.db");
 	}
 
+	/**
+	 * 
+	 * @return the path of the database file in use, or null if not connected
+	 */
+	public static String getFile() {
+		return dbfile;
+	}
+
 	public static void setFile(String filename) {
 		dbfile = filename;
 		String url = "jdbc:sqlite:" + filename;
-		boolean initDB = !new File(filename).exists();
 		try {
 			c = DriverManager.getConnection(url);
-			if (initDB) {
-				initDB();
-			}
+			// all the tables are created with IF NOT EXISTS, so this also adds the
+			// tables that are missing from databases created by older versions.
+			initDB();
 		} catch (SQLException e) {
 			System.err.println("DB connection error:" + e.getMessage());
 			System.err.println("");
@@ -297,6 +308,119 @@ public class DBManager {
 		return new SolutionData(first, second);
 	}
 
+	/**
+	 * Store the result of a benchmarked part.
+	 * 
+	 * @param r the result to store
+	 * @throws SQLException
+	 */
+	public static synchronized void insertBenchmark(BenchmarkRecord r) throws SQLException {
+		nonNullCheck();
+		String sql = """
+				INSERT INTO benchmark_runs(run_id,timestamp,user,year,day,part,warmup,iterations,
+				min_ns,mean_ns,stddev_ns,p50_ns,p90_ns,p99_ns,max_ns,ci_low_ns,ci_high_ns,samples,
+				jvm_version,host,source_hash)
+				VALUES(?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?)
+				""";
+		try (PreparedStatement ps = c.prepareStatement(sql)) {
+			ps.setString(1, r.runId);
+			ps.setLong(2, r.timestamp);
+			ps.setString(3, r.user);
+			ps.setInt(4, r.year);
+			ps.setInt(5, r.day);
+			ps.setInt(6, r.part.intvalue);
+			ps.setInt(7, r.warmup);
+			ps.setInt(8, r.time.count);
+			ps.setLong(9, r.time.min);
+			ps.setDouble(10, r.time.mean);
+			ps.setDouble(11, r.time.stddev);
+			ps.setLong(12, r.time.p50);
+			ps.setLong(13, r.time.p90);
+			ps.setLong(14, r.time.p99);
+			ps.setLong(15, r.time.max);
+			ps.setDouble(16, r.time.ciLow);
+			ps.setDouble(17, r.time.ciHigh);
+			ps.setString(18, Arrays.stream(r.samples).mapToObj(Long::toString).collect(Collectors.joining(",")));
+			ps.setString(19, r.jvmVersion);
+			ps.setString(20, r.host);
+			ps.setString(21, r.sourceHash);
+			ps.execute();
+		}
+	}
+
+	/**
+	 * Finds the benchmark result to compare a new result against.
+	 * 
+	 * @param user         the username the benchmark was run for
+	 * @param year
+	 * @param day
+	 * @param part
+	 * @param runId        the run to compare against, or null for the latest
+	 *                     stored run
+	 * @param excludeRunId a run that is never used as the baseline, usually the
+	 *                     current run
+	 * @return the baseline, if one exists
+	 * @throws SQLException
+	 */
+	public static synchronized Optional<BenchmarkRecord> getBenchmarkBaseline(String user, int year, int day,
+			Part part, String runId, String excludeRunId) throws SQLException {
+		nonNullCheck();
+		String sql = "SELECT * FROM benchmark_runs WHERE user=? AND year=? AND day=? AND part=? AND run_id!=?"
+				+ (runId != null ? " AND run_id=?" : "") + " ORDER BY timestamp DESC LIMIT 1";
+		try (PreparedStatement ps = c.prepareStatement(sql)) {
+			ps.setString(1, user);
+			ps.setInt(2, year);
+			ps.setInt(3, day);
+			ps.setInt(4, part.intvalue);
+			ps.setString(5, excludeRunId);
+			if (runId != null) {
+				ps.setString(6, runId);
+			}
+			ResultSet rs = ps.executeQuery();
+			if (rs.next()) {
+				return Optional.of(readBenchmark(rs));
+			}
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Loads all the stored results of a benchmark run.
+	 * 
+	 * @param runId the run to load
+	 * @return the results of the run ordered by year, day and part. Empty if
+	 *         the run does not exist.
+	 * @throws SQLException
+	 */
+	public static synchronized List<BenchmarkRecord> getBenchmarks(String runId) throws SQLException {
+		nonNullCheck();
+		String sql = "SELECT * FROM benchmark_runs WHERE run_id=? ORDER BY year, day, part";
+		try (PreparedStatement ps = c.prepareStatement(sql)) {
+			ps.setString(1, runId);
+			ResultSet rs = ps.executeQuery();
+			List<BenchmarkRecord> records = new ArrayList<>();
+			while (rs.next()) {
+				records.add(readBenchmark(rs));
+			}
+			return records;
+		}
+	}
+
+	private static BenchmarkRecord readBenchmark(ResultSet rs) throws SQLException {
+		long[] samples = Arrays.stream(rs.getString("samples").split(",")).mapToLong(Long::parseLong).toArray();
+		return new BenchmarkRecord(rs.getString("run_id"), //
+				rs.getLong("timestamp"), //
+				rs.getString("user"), //
+				rs.getInt("year"), //
+				rs.getInt("day"), //
+				rs.getInt("part") == 1 ? Part.FIRST : Part.SECOND, //
+				rs.getInt("warmup"), //
+				samples, //
+				rs.getString("jvm_version"), //
+				rs.getString("host"), //
+				rs.getString("source_hash"));
+	}
+
 	private class CreateStatements {
 		static String apidelay = """
 				CREATE TABLE IF NOT EXISTS "apidelay" (
@@ -353,6 +477,35 @@ public class DBManager {
 				);
 				""";
 
-		static String[] createstatements = { apidelay, cookies, users, solutions, userinput, wrongsolutions };
+		static String benchmarkRuns = """
+				CREATE TABLE IF NOT EXISTS "benchmark_runs" (
+				"run_id"	TEXT NOT NULL,
+				"timestamp"	INTEGER NOT NULL,
+				"user"	TEXT NOT NULL,
+				"year"	INTEGER NOT NULL,
+				"day"	INTEGER NOT NULL,
+				"part"	INTEGER NOT NULL,
+				"warmup"	INTEGER NOT NULL,
+				"iterations"	INTEGER NOT NULL,
+				"min_ns"	INTEGER NOT NULL,
+				"mean_ns"	REAL NOT NULL,
+				"stddev_ns"	REAL NOT NULL,
+				"p50_ns"	INTEGER NOT NULL,
+				"p90_ns"	INTEGER NOT NULL,
+				"p99_ns"	INTEGER NOT NULL,
+				"max_ns"	INTEGER NOT NULL,
+				"ci_low_ns"	REAL NOT NULL,
+				"ci_high_ns"	REAL NOT NULL,
+				"samples"	TEXT NOT NULL,
+				"jvm_version"	TEXT NOT NULL,
+				"host"	TEXT NOT NULL,
+				"source_hash"	TEXT NOT NULL,
+				FOREIGN KEY("user") REFERENCES "users"("username"),
+				UNIQUE("run_id","year","day","part")
+				);
+				""";
+
+		static String[] createstatements = { apidelay, cookies, users, solutions, userinput, wrongsolutions,
+				benchmarkRuns };
 	}
 }
@@ -0,0 +1,429 @@
+package com.github.aoclib.graph;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import com.github.aoclib.collections.IntDeque;
+import com.github.aoclib.collections.IntList;
+import com.github.aoclib.collections.LongList;
+
+/**
+ * An immutable directed graph in compressed sparse row form. The nodes are
+ * dense int ids, and the edges of node u are the indices
+ * {@code offsets[u]..offsets[u + 1]} of {@link #targets} and
+ * {@link #weights}.
+ *
+ * Example, looping over the edges without any objects:
+ *
+ * <pre>
+ * CsrGraph g = input.graph("-&gt;", true);
+ * int start = g.id("start");
+ * for (int e = g.offsets[start]; e &lt; g.offsets[start + 1]; e++) {
+ * 	int next = g.targets[e];
+ * }
+ * </pre>
+ *
+ * Undirected graphs are stored with an edge in both directions.
+ *
+ */
+public class CsrGraph {
+
+	/**
+	 * Distance of an unreachable node in {@link #allPairsShortestPaths()}
+	 */
+	public static final long UNREACHABLE = Long.MAX_VALUE;
+
+	/**
+	 * Index of the first edge of each node in {@link #targets}, with one extra
+	 * element for the end of the last node. Do not modify.
+	 */
+	public final int[] offsets;
+
+	/**
+	 * The target node of each edge. Do not modify.
+	 */
+	public final int[] targets;
+
+	/**
+	 * The weight of each edge, or null if the graph has no weights. Do not
+	 * modify.
+	 */
+	public final long[] weights;
+
+	private final NameIndex names;
+
+	private CsrGraph(int[] offsets, int[] targets, long[] weights, NameIndex names) {
+		this.offsets = offsets;
+		this.targets = targets;
+		this.weights = weights;
+		this.names = names;
+	}
+
+	public int nodeCount() {
+		return offsets.length - 1;
+	}
+
+	public int edgeCount() {
+		return targets.length;
+	}
+
+	/**
+	 *
+	 * @return number of edges out of the node
+	 */
+	public int degree(int node) {
+		return offsets[node + 1] - offsets[node];
+	}
+
+	/**
+	 *
+	 * @return the weight of an edge, 1 if the graph has no weights
+	 */
+	public long weight(int edge) {
+		return weights == null ? 1 : weights[edge];
+	}
+
+	/**
+	 *
+	 * @return the id of a node name
+	 * @throws IllegalArgumentException if there is no such node
+	 */
+	public int id(String name) {
+		int id = names.find(name);
+		if (id < 0) {
+			throw new IllegalArgumentException("Unknown node " + name);
+		}
+		return id;
+	}
+
+	/**
+	 *
+	 * @return the name of a node
+	 */
+	public String name(int id) {
+		return names.name(id);
+	}
+
+	public void forEachNeighbour(int node, IntConsumer action) {
+		for (int e = offsets[node]; e < offsets[node + 1]; e++) {
+			action.accept(targets[e]);
+		}
+	}
+
+	/**
+	 *
+	 * @return a copy of the targets of the node's edges
+	 */
+	public int[] neighbours(int node) {
+		return Arrays.copyOfRange(targets, offsets[node], offsets[node + 1]);
+	}
+
+	/**
+	 *
+	 * @return the graph with every edge reversed
+	 */
+	public CsrGraph reversed() {
+		Builder b = new Builder(names);
+		for (int u = 0; u < nodeCount(); u++) {
+			for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+				if (weights == null) {
+					b.addEdge(targets[e], u);
+				} else {
+					b.addEdge(targets[e], u, weights[e]);
+				}
+			}
+		}
+		return b.build();
+	}
+
+	/**
+	 * Breadth first search, ignoring the weights.
+	 *
+	 * @param from the start node
+	 * @return the number of edges to each node, -1 for unreachable nodes
+	 */
+	public int[] bfs(int from) {
+		int[] dist = new int[nodeCount()];
+		Arrays.fill(dist, -1);
+		int[] queue = new int[nodeCount()];
+		int head = 0;
+		int tail = 0;
+		dist[from] = 0;
+		queue[tail++] = from;
+		while (head < tail) {
+			int u = queue[head++];
+			for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+				int v = targets[e];
+				if (dist[v] < 0) {
+					dist[v] = dist[u] + 1;
+					queue[tail++] = v;
+				}
+			}
+		}
+		return dist;
+	}
+
+	/**
+	 * Kahn's algorithm. The nodes without incoming edges come first, by their
+	 * ids.
+	 *
+	 * @return the nodes so that every edge goes forward
+	 * @throws IllegalStateException if the graph has a cycle
+	 */
+	public int[] topologicalOrder() {
+		int n = nodeCount();
+		int[] inDegree = new int[n];
+		for (int t : targets) {
+			inDegree[t]++;
+		}
+		IntDeque ready = new IntDeque();
+		for (int u = 0; u < n; u++) {
+			if (inDegree[u] == 0) {
+				ready.addLast(u);
+			}
+		}
+		int[] order = new int[n];
+		int count = 0;
+		while (!ready.isEmpty()) {
+			int u = ready.pollFirst();
+			order[count++] = u;
+			for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+				if (--inDegree[targets[e]] == 0) {
+					ready.addLast(targets[e]);
+				}
+			}
+		}
+		if (count < n) {
+			throw new IllegalStateException("Graph has a cycle");
+		}
+		return order;
+	}
+
+	/**
+	 * Tarjan's algorithm, without recursion.
+	 *
+	 * @return the component of each node. The components are numbered in
+	 *         reverse topological order: edges between components go to a
+	 *         smaller number.
+	 */
+	public int[] stronglyConnectedComponents() {
+		int n = nodeCount();
+		int[] index = new int[n];
+		int[] low = new int[n];
+		int[] component = new int[n];
+		Arrays.fill(index, -1);
+		boolean[] onStack = new boolean[n];
+		int[] stack = new int[n];
+		int sp = 0;
+		// the call stack: node and the next edge to look at
+		int[] callNode = new int[n];
+		int[] callEdge = new int[n];
+		int counter = 0;
+		int components = 0;
+		for (int root = 0; root < n; root++) {
+			if (index[root] >= 0) {
+				continue;
+			}
+			int depth = 0;
+			callNode[0] = root;
+			callEdge[0] = offsets[root];
+			index[root] = low[root] = counter++;
+			stack[sp++] = root;
+			onStack[root] = true;
+			while (depth >= 0) {
+				int u = callNode[depth];
+				if (callEdge[depth] < offsets[u + 1]) {
+					int v = targets[callEdge[depth]++];
+					if (index[v] < 0) {
+						index[v] = low[v] = counter++;
+						stack[sp++] = v;
+						onStack[v] = true;
+						depth++;
+						callNode[depth] = v;
+						callEdge[depth] = offsets[v];
+					} else if (onStack[v]) {
+						low[u] = Math.min(low[u], index[v]);
+					}
+					continue;
+				}
+				if (low[u] == index[u]) {
+					int v;
+					do {
+						v = stack[--sp];
+						onStack[v] = false;
+						component[v] = components;
+					} while (v != u);
+					components++;
+				}
+				depth--;
+				if (depth >= 0) {
+					int parent = callNode[depth];
+					low[parent] = Math.min(low[parent], low[u]);
+				}
+			}
+		}
+		return component;
+	}
+
+	/**
+	 * Shortest distances between all nodes: a breadth first search from every
+	 * node if the graph has no weights, otherwise Floyd-Warshall.
+	 *
+	 * @return the distance from i to j at [i][j], {@link #UNREACHABLE} if there
+	 *         is no path
+	 * @throws IllegalStateException if the graph has a negative cycle
+	 */
+	public long[][] allPairsShortestPaths() {
+		int n = nodeCount();
+		long[][] dist = new long[n][n];
+		if (weights == null) {
+			for (int u = 0; u < n; u++) {
+				int[] d = bfs(u);
+				for (int v = 0; v < n; v++) {
+					dist[u][v] = d[v] < 0 ? UNREACHABLE : d[v];
+				}
+			}
+			return dist;
+		}
+		for (long[] row : dist) {
+			Arrays.fill(row, UNREACHABLE);
+		}
+		for (int u = 0; u < n; u++) {
+			dist[u][u] = 0;
+			for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+				dist[u][targets[e]] = Math.min(dist[u][targets[e]], weights[e]);
+			}
+		}
+		for (int k = 0; k < n; k++) {
+			long[] dk = dist[k];
+			for (int i = 0; i < n; i++) {
+				long dik = dist[i][k];
+				if (dik == UNREACHABLE) {
+					continue;
+				}
+				long[] di = dist[i];
+				for (int j = 0; j < n; j++) {
+					if (dk[j] != UNREACHABLE && dik + dk[j] < di[j]) {
+						di[j] = dik + dk[j];
+					}
+				}
+			}
+		}
+		for (int u = 0; u < n; u++) {
+			if (dist[u][u] < 0) {
+				throw new IllegalStateException("Graph has a negative cycle through " + name(u));
+			}
+		}
+		return dist;
+	}
+
+	/**
+	 * Collects edges and builds a {@link CsrGraph} with a counting sort. The node
+	 * ids are given in the order the names are first seen.
+	 */
+	public static class Builder {
+		private final NameIndex names;
+		private final IntList from = new IntList();
+		private final IntList to = new IntList();
+		private LongList weights;
+
+		public Builder() {
+			this(new NameIndex());
+		}
+
+		private Builder(NameIndex names) {
+			this.names = names;
+		}
+
+		/**
+		 * Adds a node without edges, or returns the id of an existing one.
+		 *
+		 * @return the id of the node
+		 */
+		public int addNode(String name) {
+			return names.id(name);
+		}
+
+		public Builder addEdge(String from, String to) {
+			return addEdge(names.id(from), names.id(to));
+		}
+
+		public Builder addEdge(String from, String to, long weight) {
+			return addEdge(names.id(from), names.id(to), weight);
+		}
+
+		/**
+		 * Adds an edge in both directions.
+		 */
+		public Builder addUndirectedEdge(String a, String b) {
+			return addEdge(a, b).addEdge(b, a);
+		}
+
+		/**
+		 * Adds a weighted edge in both directions.
+		 */
+		public Builder addUndirectedEdge(String a, String b, long weight) {
+			return addEdge(a, b, weight).addEdge(b, a, weight);
+		}
+
+		/**
+		 * Adds an edge between nodes that were added by name.
+		 */
+		public Builder addEdge(int from, int to) {
+			checkNode(from);
+			checkNode(to);
+			this.from.add(from);
+			this.to.add(to);
+			if (weights != null) {
+				weights.add(1);
+			}
+			return this;
+		}
+
+		/**
+		 * Adds a weighted edge between nodes that were added by name. The edges
+		 * added without a weight get weight 1.
+		 */
+		public Builder addEdge(int from, int to, long weight) {
+			if (weights == null) {
+				weights = new LongList(Math.max(16, this.from.size() * 2));
+				for (int i = 0; i < this.from.size(); i++) {
+					weights.add(1);
+				}
+			}
+			addEdge(from, to);
+			weights.set(weights.size() - 1, weight);
+			return this;
+		}
+
+		private void checkNode(int id) {
+			if (id < 0 || id >= names.size()) {
+				throw new IllegalArgumentException("Unknown node id " + id);
+			}
+		}
+
+		public CsrGraph build() {
+			int n = names.size();
+			int m = from.size();
+			int[] offsets = new int[n + 1];
+			for (int i = 0; i < m; i++) {
+				offsets[from.get(i) + 1]++;
+			}
+			for (int u = 0; u < n; u++) {
+				offsets[u + 1] += offsets[u];
+			}
+			int[] next = Arrays.copyOf(offsets, n);
+			int[] targets = new int[m];
+			long[] w = weights == null ? null : new long[m];
+			// stable, so the edges of a node keep the input order
+			for (int i = 0; i < m; i++) {
+				int e = next[from.get(i)]++;
+				targets[e] = to.get(i);
+				if (w != null) {
+					w[e] = weights.get(i);
+				}
+			}
+			return new CsrGraph(offsets, targets, w, names);
+		}
+	}
+}
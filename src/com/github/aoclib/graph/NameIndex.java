@@ -0,0 +1,47 @@
+package com.github.aoclib.graph;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interns names to dense int ids 0, 1, 2, ... in the order they are first
+ * seen.
+ *
+ */
+public class NameIndex {
+
+	private final Map<String, Integer> ids = new HashMap<>();
+	private final List<String> names = new ArrayList<>();
+
+	/**
+	 *
+	 * @return the id of the name, a new one if the name was not seen before
+	 */
+	public int id(String name) {
+		Integer id = ids.get(name);
+		if (id == null) {
+			id = names.size();
+			ids.put(name, id);
+			names.add(name);
+		}
+		return id;
+	}
+
+	/**
+	 *
+	 * @return the id of the name, or -1
+	 */
+	public int find(String name) {
+		return ids.getOrDefault(name, -1);
+	}
+
+	public String name(int id) {
+		return names.get(id);
+	}
+
+	public int size() {
+		return names.size();
+	}
+}
@@ -0,0 +1,463 @@
+package com.github.aoclib.grid;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A rectangular grid of bytes stored in a single flat array, row by row.
+ *
+ * A cell is addressed either by its coordinates or by its index in
+ * {@link #cells}. The index works as a packed coordinate: moving to a
+ * neighbour is an addition of one of the offsets in {@link #neighbours4()} or
+ * {@link #neighbours8()}, and {@link #x(int)} and {@link #y(int)} unpack it.
+ *
+ * The grid can have a sentinel border of constant cells around it. With a
+ * border of 1, the neighbours of every cell inside the grid are valid indices,
+ * so walking the grid needs no bounds checks: the walk stops at the border
+ * value instead. Coordinates are always relative to the top left cell inside
+ * the border.
+ *
+ * Example:
+ *
+ * <pre>
+ * Grid g = input.grid('#');
+ * int start = g.find('S');
+ * int[] dist = g.bfs(start, c -&gt; c != '#');
+ * </pre>
+ *
+ */
+public class Grid {
+
+	/**
+	 * Tests the value of a cell
+	 */
+	@FunctionalInterface
+	public interface CellPredicate {
+		boolean test(byte value);
+	}
+
+	public final int width;
+	public final int height;
+
+	/**
+	 * Width of the sentinel border, 0 or more
+	 */
+	public final int border;
+
+	/**
+	 * Distance between the indices of two vertically adjacent cells
+	 */
+	public final int stride;
+
+	/**
+	 * All the cells including the border, row by row
+	 */
+	public final byte[] cells;
+
+	private final int[] n4;
+	private final int[] n8;
+
+	/**
+	 * Creates a grid filled with a single value.
+	 *
+	 * @param width  width without the border
+	 * @param height height without the border
+	 * @param border width of the sentinel border
+	 * @param fill   the value of every cell, including the border
+	 */
+	public Grid(int width, int height, int border, byte fill) {
+		if (width < 0 || height < 0 || border < 0) {
+			throw new IllegalArgumentException("Invalid grid size " + width + "x" + height + ", border " + border);
+		}
+		this.width = width;
+		this.height = height;
+		this.border = border;
+		this.stride = width + 2 * border;
+		this.cells = new byte[stride * (height + 2 * border)];
+		Arrays.fill(cells, fill);
+		this.n4 = new int[] { -stride, 1, stride, -1 };
+		this.n8 = new int[] { -stride, -stride + 1, 1, stride + 1, stride, stride - 1, -1, -stride - 1 };
+	}
+
+	/**
+	 * Creates a grid from lines of text. All the lines must have the same
+	 * length.
+	 *
+	 * @param lines       the rows of the grid
+	 * @param border      width of the sentinel border
+	 * @param borderValue value of the border cells
+	 * @param digits      if true, the digit characters are stored as their
+	 *                    numeric values, '7' as 7
+	 * @return the grid
+	 * @throws IllegalArgumentException if the lines have different lengths
+	 */
+	public static Grid of(List<? extends CharSequence> lines, int border, byte borderValue, boolean digits) {
+		int width = lines.isEmpty() ? 0 : lines.get(0).length();
+		Grid g = new Grid(width, lines.size(), border, borderValue);
+		int offset = digits ? '0' : 0;
+		for (int y = 0; y < lines.size(); y++) {
+			CharSequence line = lines.get(y);
+			if (line.length() != width) {
+				throw new IllegalArgumentException(
+						"Line " + (y + 1) + " has length " + line.length() + ", expected " + width);
+			}
+			int row = g.index(0, y);
+			for (int x = 0; x < width; x++) {
+				g.cells[row + x] = (byte) (line.charAt(x) - offset);
+			}
+		}
+		return g;
+	}
+
+	/**
+	 *
+	 * @return a copy of this grid
+	 */
+	public Grid copy() {
+		Grid g = new Grid(width, height, border, (byte) 0);
+		System.arraycopy(cells, 0, g.cells, 0, cells.length);
+		return g;
+	}
+
+	/**
+	 *
+	 * @return the index of the cell at the coordinates
+	 */
+	public int index(int x, int y) {
+		return (y + border) * stride + x + border;
+	}
+
+	/**
+	 *
+	 * @return the x coordinate of the index
+	 */
+	public int x(int index) {
+		return index % stride - border;
+	}
+
+	/**
+	 *
+	 * @return the y coordinate of the index
+	 */
+	public int y(int index) {
+		return index / stride - border;
+	}
+
+	/**
+	 *
+	 * @return true if the coordinates are inside the grid, not on the border
+	 */
+	public boolean inside(int x, int y) {
+		return x >= 0 && y >= 0 && x < width && y < height;
+	}
+
+	/**
+	 *
+	 * @return true if the index is inside the grid, not on the border
+	 */
+	public boolean inside(int index) {
+		return index >= 0 && index < cells.length && inside(x(index), y(index));
+	}
+
+	public byte get(int x, int y) {
+		return cells[index(x, y)];
+	}
+
+	public byte get(int index) {
+		return cells[index];
+	}
+
+	public void set(int x, int y, byte value) {
+		cells[index(x, y)] = value;
+	}
+
+	public void set(int index, byte value) {
+		cells[index] = value;
+	}
+
+	public void set(int x, int y, char value) {
+		cells[index(x, y)] = (byte) value;
+	}
+
+	public void set(int index, char value) {
+		cells[index] = (byte) value;
+	}
+
+	/**
+	 * Index offsets of the up, right, down and left neighbours, in clockwise
+	 * order. Do not modify.
+	 */
+	public int[] neighbours4() {
+		return n4;
+	}
+
+	/**
+	 * Index offsets of the 8 surrounding cells in clockwise order, starting
+	 * from up. Do not modify.
+	 */
+	public int[] neighbours8() {
+		return n8;
+	}
+
+	/**
+	 *
+	 * @param value the value to find
+	 * @return the index of the first cell inside the grid with the value, or -1
+	 */
+	public int find(byte value) {
+		for (int y = 0; y < height; y++) {
+			int row = index(0, y);
+			for (int i = row; i < row + width; i++) {
+				if (cells[i] == value) {
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	public int find(char value) {
+		return find((byte) value);
+	}
+
+	/**
+	 *
+	 * @param value the value to find
+	 * @return the indices of all the cells inside the grid with the value, in
+	 *         row order
+	 */
+	public int[] findAll(byte value) {
+		int[] found = new int[count(value)];
+		int n = 0;
+		for (int y = 0; y < height; y++) {
+			int row = index(0, y);
+			for (int i = row; i < row + width; i++) {
+				if (cells[i] == value) {
+					found[n++] = i;
+				}
+			}
+		}
+		return found;
+	}
+
+	public int[] findAll(char value) {
+		return findAll((byte) value);
+	}
+
+	/**
+	 *
+	 * @return how many cells inside the grid have the value
+	 */
+	public int count(byte value) {
+		int count = 0;
+		for (int y = 0; y < height; y++) {
+			int row = index(0, y);
+			for (int i = row; i < row + width; i++) {
+				if (cells[i] == value) {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	public int count(char value) {
+		return count((byte) value);
+	}
+
+	/**
+	 * Replaces a value in all the cells inside the grid.
+	 *
+	 * @return the number of replaced cells
+	 */
+	public int replace(byte from, byte to) {
+		int count = 0;
+		for (int y = 0; y < height; y++) {
+			int row = index(0, y);
+			for (int i = row; i < row + width; i++) {
+				if (cells[i] == from) {
+					cells[i] = to;
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	public int replace(char from, char to) {
+		return replace((byte) from, (byte) to);
+	}
+
+	/**
+	 *
+	 * @param y the row
+	 * @return a view of the row, changes write through to the grid
+	 */
+	public Line row(int y) {
+		return new Line(index(0, y), 1, width);
+	}
+
+	/**
+	 *
+	 * @param x the column
+	 * @return a view of the column, changes write through to the grid
+	 */
+	public Line column(int x) {
+		return new Line(index(x, 0), stride, height);
+	}
+
+	/**
+	 * Breadth first search over the 4-neighbourhood.
+	 *
+	 * @param start    the index to start from
+	 * @param passable which cells can be entered. The start is always entered.
+	 *                 With a border, the border value should not be passable.
+	 * @return the distance to each index in {@link #cells}, -1 for the cells
+	 *         that were not reached
+	 */
+	public int[] bfs(int start, CellPredicate passable) {
+		int[] dist = new int[cells.length];
+		Arrays.fill(dist, -1);
+		int[] queue = new int[cells.length];
+		int head = 0;
+		int tail = 0;
+		dist[start] = 0;
+		queue[tail++] = start;
+		while (head < tail) {
+			int cur = queue[head++];
+			for (int o : n4) {
+				int next = cur + o;
+				if (next >= 0 && next < cells.length && dist[next] < 0 && (border > 0 || isAdjacent(cur, next))
+						&& passable.test(cells[next])) {
+					dist[next] = dist[cur] + 1;
+					queue[tail++] = next;
+				}
+			}
+		}
+		return dist;
+	}
+
+	/**
+	 * Replaces the 4-connected region of cells with the same value as the start
+	 * cell. With a border, the start should not have the border value.
+	 *
+	 * @param start       the index to start from
+	 * @param replacement the new value of the region
+	 * @return the size of the region
+	 */
+	public int floodFill(int start, byte replacement) {
+		byte target = cells[start];
+		if (target == replacement) {
+			return count(bfs(start, c -> c == target));
+		}
+		int[] queue = new int[cells.length];
+		int head = 0;
+		int tail = 0;
+		cells[start] = replacement;
+		queue[tail++] = start;
+		while (head < tail) {
+			int cur = queue[head++];
+			for (int o : n4) {
+				int next = cur + o;
+				if (next >= 0 && next < cells.length && cells[next] == target
+						&& (border > 0 || isAdjacent(cur, next))) {
+					cells[next] = replacement;
+					queue[tail++] = next;
+				}
+			}
+		}
+		return tail;
+	}
+
+	private static int count(int[] dist) {
+		int n = 0;
+		for (int d : dist) {
+			if (d >= 0) {
+				n++;
+			}
+		}
+		return n;
+	}
+
+	/**
+	 * Without a border, a step left or right from the edge would wrap to the
+	 * neighbouring row. A horizontal step must stay on the same row.
+	 */
+	private boolean isAdjacent(int from, int to) {
+		return from / stride == to / stride || from % stride == to % stride;
+	}
+
+	/**
+	 *
+	 * @return the rows inside the border, one per line
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder((width + 1) * height);
+		for (int y = 0; y < height; y++) {
+			sb.append(row(y)).append('\n');
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * A row or a column of the grid
+	 */
+	public class Line implements CharSequence {
+		private final int start;
+		private final int step;
+		private final int length;
+
+		private Line(int start, int step, int length) {
+			this.start = start;
+			this.step = step;
+			this.length = length;
+		}
+
+		/**
+		 *
+		 * @return the index of the i:th cell of the line in {@link Grid#cells}
+		 */
+		public int index(int i) {
+			return start + i * step;
+		}
+
+		public byte get(int i) {
+			return cells[index(i)];
+		}
+
+		public void set(int i, byte value) {
+			cells[index(i)] = value;
+		}
+
+		@Override
+		public int length() {
+			return length;
+		}
+
+		@Override
+		public char charAt(int i) {
+			if (i < 0 || i >= length) {
+				throw new IndexOutOfBoundsException(i);
+			}
+			return (char) (cells[index(i)] & 0xff);
+		}
+
+		@Override
+		public CharSequence subSequence(int s, int e) {
+			if (s < 0 || e < s || e > length) {
+				throw new IndexOutOfBoundsException("Range " + s + ".." + e + " of " + length);
+			}
+			return new Line(index(s), step, e - s);
+		}
+
+		@Override
+		public String toString() {
+			char[] c = new char[length];
+			for (int i = 0; i < length; i++) {
+				c[i] = charAt(i);
+			}
+			return new String(c);
+		}
+	}
+}
@@ -0,0 +1,527 @@
+package com.github.aoclib.grid;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.github.aoclib.collections.Hashing;
+
+/**
+ * An unbounded grid that only stores the cells that have been set, for
+ * puzzles on infinite or very sparse planes.
+ *
+ * Coordinates are packed to a single long with {@link #pack(int, int)} and the
+ * cells are kept in an open addressing hash table of primitive keys and byte
+ * values, so nothing is boxed. The bounding box of the cells is tracked as
+ * they are added.
+ *
+ * For cellular automata, the stored cells are the live ones and
+ * {@link #step(Neighbourhood, Rule)} computes the next generation.
+ *
+ */
+public class SparseGrid {
+
+	/**
+	 * Decides whether a cell is alive in the next generation
+	 */
+	@FunctionalInterface
+	public interface Rule {
+		/**
+		 *
+		 * @param alive      whether the cell is alive now
+		 * @param neighbours number of live neighbours
+		 * @return whether the cell is alive in the next generation
+		 */
+		boolean alive(boolean alive, int neighbours);
+	}
+
+	/**
+	 * Receives the cells of the grid
+	 */
+	@FunctionalInterface
+	public interface CellVisitor {
+		void visit(int x, int y, byte value);
+	}
+
+	/**
+	 * Offsets of the neighbours of a cell
+	 */
+	public static final class Neighbourhood {
+		/**
+		 * Up, right, down and left
+		 */
+		public static final Neighbourhood FOUR = new Neighbourhood(new int[] { 0, 1, 0, -1 },
+				new int[] { -1, 0, 1, 0 });
+
+		/**
+		 * The 8 surrounding cells
+		 */
+		public static final Neighbourhood EIGHT = new Neighbourhood(new int[] { 0, 1, 1, 1, 0, -1, -1, -1 },
+				new int[] { -1, -1, 0, 1, 1, 1, 0, -1 });
+
+		/**
+		 * The 6 neighbours of a hexagonal grid in axial coordinates, where x grows
+		 * to the east and y to the south-east.
+		 */
+		public static final Neighbourhood HEX = new Neighbourhood(new int[] { 1, -1, 0, 0, 1, -1 },
+				new int[] { 0, 0, 1, -1, -1, 1 });
+
+		private final int[] dx;
+		private final int[] dy;
+
+		/**
+		 *
+		 * @param dx x offsets of the neighbours
+		 * @param dy y offsets of the neighbours, in the same order
+		 */
+		public Neighbourhood(int[] dx, int[] dy) {
+			if (dx.length != dy.length) {
+				throw new IllegalArgumentException("Offsets have different lengths");
+			}
+			this.dx = dx.clone();
+			this.dy = dy.clone();
+		}
+
+		public int size() {
+			return dx.length;
+		}
+
+		public int dx(int i) {
+			return dx[i];
+		}
+
+		public int dy(int i) {
+			return dy[i];
+		}
+	}
+
+	/**
+	 * Marks free slots. The cell with this key is stored separately.
+	 */
+	private static final long EMPTY = Long.MIN_VALUE;
+	private static final int MIN_CAPACITY = 16;
+	private static final byte ALIVE = '#';
+
+	private long[] keys;
+	private byte[] values;
+	private int size;
+	private int mask;
+
+	private boolean hasEmptyKey;
+	private byte emptyKeyValue;
+
+	private int minX = Integer.MAX_VALUE;
+	private int minY = Integer.MAX_VALUE;
+	private int maxX = Integer.MIN_VALUE;
+	private int maxY = Integer.MIN_VALUE;
+
+	/**
+	 * True if cells have been removed after the bounds were computed
+	 */
+	private boolean boundsStale;
+
+	public SparseGrid() {
+		this(MIN_CAPACITY);
+	}
+
+	/**
+	 *
+	 * @param expectedCells how many cells the grid is expected to hold
+	 */
+	public SparseGrid(int expectedCells) {
+		int capacity = Hashing.capacity(expectedCells, MIN_CAPACITY);
+		keys = new long[capacity];
+		Arrays.fill(keys, EMPTY);
+		values = new byte[capacity];
+		mask = capacity - 1;
+	}
+
+	/**
+	 * Creates a grid from lines of text. The first character of the first line
+	 * is at (0, 0).
+	 *
+	 * @param lines   the rows of the text
+	 * @param include which characters are stored
+	 * @return the grid with the included characters as values
+	 */
+	public static SparseGrid of(List<? extends CharSequence> lines, Grid.CellPredicate include) {
+		SparseGrid g = new SparseGrid();
+		for (int y = 0; y < lines.size(); y++) {
+			CharSequence line = lines.get(y);
+			for (int x = 0; x < line.length(); x++) {
+				byte c = (byte) line.charAt(x);
+				if (include.test(c)) {
+					g.put(x, y, c);
+				}
+			}
+		}
+		return g;
+	}
+
+	/**
+	 *
+	 * @return the coordinates packed to a single key
+	 */
+	public static long pack(int x, int y) {
+		return ((long) x << 32) | (y & 0xffffffffL);
+	}
+
+	/**
+	 *
+	 * @return the x coordinate of a packed key
+	 */
+	public static int x(long key) {
+		return (int) (key >> 32);
+	}
+
+	/**
+	 *
+	 * @return the y coordinate of a packed key
+	 */
+	public static int y(long key) {
+		return (int) key;
+	}
+
+	/**
+	 *
+	 * @return number of stored cells
+	 */
+	public int size() {
+		return size + (hasEmptyKey ? 1 : 0);
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	public boolean contains(int x, int y) {
+		return contains(pack(x, y));
+	}
+
+	public boolean contains(long key) {
+		if (key == EMPTY) {
+			return hasEmptyKey;
+		}
+		return slot(key) >= 0;
+	}
+
+	/**
+	 *
+	 * @return the value of the cell, or 0 if it is not stored
+	 */
+	public byte get(int x, int y) {
+		return get(pack(x, y), (byte) 0);
+	}
+
+	/**
+	 *
+	 * @param key          packed coordinates
+	 * @param defaultValue returned if the cell is not stored
+	 * @return the value of the cell
+	 */
+	public byte get(long key, byte defaultValue) {
+		if (key == EMPTY) {
+			return hasEmptyKey ? emptyKeyValue : defaultValue;
+		}
+		int slot = slot(key);
+		return slot >= 0 ? values[slot] : defaultValue;
+	}
+
+	/**
+	 *
+	 * @return the index of the key, or -1
+	 */
+	private int slot(long key) {
+		int i = Hashing.hash(key) & mask;
+		while (true) {
+			long k = keys[i];
+			if (k == key) {
+				return i;
+			}
+			if (k == EMPTY) {
+				return -1;
+			}
+			i = (i + 1) & mask;
+		}
+	}
+
+	public void put(int x, int y, byte value) {
+		put(pack(x, y), value);
+	}
+
+	public void put(int x, int y, char value) {
+		put(pack(x, y), (byte) value);
+	}
+
+	/**
+	 * Stores a cell.
+	 *
+	 * @param key   packed coordinates
+	 * @param value the value of the cell
+	 */
+	public void put(long key, byte value) {
+		expandBounds(key);
+		if (key == EMPTY) {
+			hasEmptyKey = true;
+			emptyKeyValue = value;
+			return;
+		}
+		int i = Hashing.hash(key) & mask;
+		while (true) {
+			long k = keys[i];
+			if (k == key) {
+				values[i] = value;
+				return;
+			}
+			if (k == EMPTY) {
+				keys[i] = key;
+				values[i] = value;
+				if (++size * 2 > keys.length) {
+					rehash(keys.length * 2);
+				}
+				return;
+			}
+			i = (i + 1) & mask;
+		}
+	}
+
+	/**
+	 * Adds to the value of a cell. Missing cells start from 0.
+	 *
+	 * @param key   packed coordinates
+	 * @param delta the amount to add
+	 * @return the new value
+	 */
+	public byte add(long key, int delta) {
+		byte v = (byte) (get(key, (byte) 0) + delta);
+		put(key, v);
+		return v;
+	}
+
+	public boolean remove(int x, int y) {
+		return remove(pack(x, y));
+	}
+
+	/**
+	 * Removes a cell.
+	 *
+	 * @param key packed coordinates
+	 * @return true if the cell was stored
+	 */
+	public boolean remove(long key) {
+		if (key == EMPTY) {
+			boolean had = hasEmptyKey;
+			hasEmptyKey = false;
+			boundsStale |= had;
+			return had;
+		}
+		int i = slot(key);
+		if (i < 0) {
+			return false;
+		}
+		// backward shift deletion keeps the probe sequences intact
+		int gap = i;
+		int j = i;
+		while (true) {
+			j = (j + 1) & mask;
+			long k = keys[j];
+			if (k == EMPTY) {
+				break;
+			}
+			int home = Hashing.hash(k) & mask;
+			if (((j - home) & mask) >= ((j - gap) & mask)) {
+				keys[gap] = k;
+				values[gap] = values[j];
+				gap = j;
+			}
+		}
+		keys[gap] = EMPTY;
+		size--;
+		boundsStale = true;
+		return true;
+	}
+
+	private void rehash(int capacity) {
+		long[] oldKeys = keys;
+		byte[] oldValues = values;
+		keys = new long[capacity];
+		Arrays.fill(keys, EMPTY);
+		values = new byte[capacity];
+		mask = capacity - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			long k = oldKeys[i];
+			if (k != EMPTY) {
+				int j = Hashing.hash(k) & mask;
+				while (keys[j] != EMPTY) {
+					j = (j + 1) & mask;
+				}
+				keys[j] = k;
+				values[j] = oldValues[i];
+			}
+		}
+	}
+
+	public void clear() {
+		Arrays.fill(keys, EMPTY);
+		size = 0;
+		hasEmptyKey = false;
+		resetBounds();
+	}
+
+	private void expandBounds(long key) {
+		int x = x(key);
+		int y = y(key);
+		if (x < minX) {
+			minX = x;
+		}
+		if (x > maxX) {
+			maxX = x;
+		}
+		if (y < minY) {
+			minY = y;
+		}
+		if (y > maxY) {
+			maxY = y;
+		}
+	}
+
+	private void resetBounds() {
+		minX = Integer.MAX_VALUE;
+		minY = Integer.MAX_VALUE;
+		maxX = Integer.MIN_VALUE;
+		maxY = Integer.MIN_VALUE;
+		boundsStale = false;
+	}
+
+	private void updateBounds() {
+		if (boundsStale) {
+			resetBounds();
+			forEachKey(this::expandBounds);
+		}
+	}
+
+	/**
+	 * The bounding box of the stored cells. Computed as the cells are added and
+	 * recomputed after removals.
+	 *
+	 * @return minimum x, minimum y, maximum x and maximum y, inclusive. All zero
+	 *         if the grid is empty.
+	 */
+	public int[] bounds() {
+		updateBounds();
+		if (isEmpty()) {
+			return new int[4];
+		}
+		return new int[] { minX, minY, maxX, maxY };
+	}
+
+	/**
+	 *
+	 * @return number of stored neighbours of the cell
+	 */
+	public int countNeighbours(int x, int y, Neighbourhood n) {
+		int count = 0;
+		for (int i = 0; i < n.dx.length; i++) {
+			if (contains(pack(x + n.dx[i], y + n.dy[i]))) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Calls the visitor with each stored cell, in no particular order.
+	 */
+	public void forEach(CellVisitor visitor) {
+		for (int i = 0; i < keys.length; i++) {
+			long k = keys[i];
+			if (k != EMPTY) {
+				visitor.visit(x(k), y(k), values[i]);
+			}
+		}
+		if (hasEmptyKey) {
+			visitor.visit(x(EMPTY), y(EMPTY), emptyKeyValue);
+		}
+	}
+
+	private interface KeyVisitor {
+		void visit(long key);
+	}
+
+	private void forEachKey(KeyVisitor visitor) {
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != EMPTY) {
+				visitor.visit(keys[i]);
+			}
+		}
+		if (hasEmptyKey) {
+			visitor.visit(EMPTY);
+		}
+	}
+
+	/**
+	 *
+	 * @return the packed coordinates of the stored cells, in no particular order
+	 */
+	public long[] keys() {
+		long[] result = new long[size()];
+		int[] n = { 0 };
+		forEachKey(k -> result[n[0]++] = k);
+		return result;
+	}
+
+	/**
+	 * Computes the next generation of a cellular automaton, where the stored
+	 * cells are the live ones. Cells that stay alive keep their values, new
+	 * cells get the value '#'.
+	 *
+	 * @param n    the neighbourhood of a cell
+	 * @param rule decides which cells are alive in the next generation
+	 * @return the next generation
+	 */
+	public SparseGrid step(Neighbourhood n, Rule rule) {
+		SparseGrid counts = new SparseGrid(size() * n.size());
+		forEachKey(k -> {
+			int x = x(k);
+			int y = y(k);
+			for (int i = 0; i < n.dx.length; i++) {
+				counts.add(pack(x + n.dx[i], y + n.dy[i]), 1);
+			}
+		});
+		SparseGrid next = new SparseGrid(size());
+		counts.forEachKey(k -> {
+			boolean alive = contains(k);
+			// counts are bytes, neighbourhoods have at most 255 cells
+			if (rule.alive(alive, counts.get(k, (byte) 0) & 0xff)) {
+				next.put(k, alive ? get(k, ALIVE) : ALIVE);
+			}
+		});
+		forEachKey(k -> {
+			if (!counts.contains(k) && rule.alive(true, 0)) {
+				next.put(k, get(k, ALIVE));
+			}
+		});
+		return next;
+	}
+
+	/**
+	 *
+	 * @return the cells inside the bounding box, '.' for cells that are not
+	 *         stored
+	 */
+	@Override
+	public String toString() {
+		if (isEmpty()) {
+			return "";
+		}
+		int[] b = bounds();
+		StringBuilder sb = new StringBuilder();
+		for (int y = b[1]; y <= b[3]; y++) {
+			for (int x = b[0]; x <= b[2]; x++) {
+				long k = pack(x, y);
+				sb.append(contains(k) ? (char) (get(k, (byte) 0) & 0xff) : '.');
+			}
+			sb.append('\n');
+		}
+		return sb.toString();
+	}
+}
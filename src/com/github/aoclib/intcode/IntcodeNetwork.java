@@ -0,0 +1,143 @@
+package com.github.aoclib.intcode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A network of {@link IntcodeVM}s that send packets to each other, like the
+ * 50 computers of 2019 day 23.
+ *
+ * Each VM gets its address as the first input. A packet is three outputs: the
+ * destination address, X and Y. A VM that asks for input when it has no
+ * packets receives -1. Packets to addresses outside the network go to a
+ * {@link PacketHandler}, which can for example act as the NAT.
+ *
+ * The network runs cooperatively on the calling thread, one round at a time,
+ * so the result does not depend on thread scheduling.
+ *
+ * Example:
+ *
+ * <pre>
+ * IntcodeNetwork net = new IntcodeNetwork(program, 50);
+ * long[] nat = new long[2];
+ * net.setHandler((to, x, y) -&gt; { nat[0] = x; nat[1] = y; });
+ * while (!net.isIdle()) {
+ * 	net.step();
+ * }
+ * </pre>
+ *
+ */
+public class IntcodeNetwork {
+
+	/**
+	 * Receives packets sent to addresses outside the network
+	 */
+	@FunctionalInterface
+	public interface PacketHandler {
+		void receive(long address, long x, long y);
+	}
+
+	private final List<IntcodeVM> nodes = new ArrayList<>();
+	private PacketHandler handler = (a, x, y) -> {
+	};
+
+	private long packets;
+	private boolean idle;
+
+	/**
+	 *
+	 * @param program the program of every node
+	 * @param size    number of nodes, with addresses 0..size-1
+	 */
+	public IntcodeNetwork(long[] program, int size) {
+		for (int i = 0; i < size; i++) {
+			IntcodeVM vm = new IntcodeVM(program);
+			vm.input().add(i);
+			nodes.add(vm);
+		}
+	}
+
+	public void setHandler(PacketHandler handler) {
+		this.handler = handler;
+	}
+
+	public IntcodeVM node(int address) {
+		return nodes.get(address);
+	}
+
+	public int size() {
+		return nodes.size();
+	}
+
+	/**
+	 *
+	 * @return total number of packets sent
+	 */
+	public long packets() {
+		return packets;
+	}
+
+	/**
+	 * Sends a packet to a node, or to the handler if the address is outside the
+	 * network.
+	 */
+	public void send(long address, long x, long y) {
+		if (address >= 0 && address < nodes.size()) {
+			LongChannel in = nodes.get((int) address).input();
+			in.add(x);
+			in.add(y);
+			idle = false;
+		} else {
+			handler.receive(address, x, y);
+		}
+	}
+
+	/**
+	 * Runs every node once until it waits for input, and delivers the packets
+	 * they sent. A node without incoming packets receives -1.
+	 *
+	 * @return the number of packets sent during the round
+	 */
+	public int step() {
+		int sent = 0;
+		boolean allWaiting = true;
+		for (IntcodeVM vm : nodes) {
+			if (vm.halted()) {
+				continue;
+			}
+			boolean received = !vm.input().isEmpty();
+			if (!received) {
+				vm.input().add(-1);
+			}
+			vm.run();
+			LongChannel out = vm.output();
+			while (out.size() >= 3) {
+				send(out.poll(), out.poll(), out.poll());
+				sent++;
+			}
+			allWaiting &= !received;
+		}
+		packets += sent;
+		idle = sent == 0 && allWaiting && allInputsEmpty();
+		return sent;
+	}
+
+	private boolean allInputsEmpty() {
+		for (IntcodeVM vm : nodes) {
+			if (!vm.input().isEmpty()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 *
+	 * @return true if during the last {@link #step()} no node received or sent
+	 *         packets, and no packets are waiting. {@link #send(long, long, long)}
+	 *         clears the flag.
+	 */
+	public boolean isIdle() {
+		return idle;
+	}
+}
@@ -0,0 +1,136 @@
+package com.github.aoclib.intcode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A chain of {@link IntcodeVM}s where the output of each VM is the input of
+ * the next one, like the amplifiers of 2019 day 7. With feedback, the output
+ * of the last VM is connected back to the first one.
+ *
+ * The VMs share their channels, so the pipeline can be run either
+ * cooperatively on the calling thread with {@link #run()}, or with a thread
+ * per VM with {@link #runThreaded()}. Both give the same result.
+ *
+ * Example:
+ *
+ * <pre>
+ * IntcodePipeline p = new IntcodePipeline(program, new long[] { 9, 8, 7, 6, 5 }, true);
+ * p.input().add(0);
+ * p.run();
+ * long signal = p.output().poll();
+ * </pre>
+ *
+ */
+public class IntcodePipeline {
+
+	private final List<IntcodeVM> vms = new ArrayList<>();
+	private final LongChannel output;
+
+	/**
+	 * Creates a pipeline of VMs running the same program.
+	 *
+	 * @param program  the program
+	 * @param settings the first input of each VM, such as the phase settings.
+	 *                 The length is the number of VMs.
+	 * @param feedback if true, the output of the last VM is connected to the
+	 *                 input of the first one
+	 */
+	public IntcodePipeline(long[] program, long[] settings, boolean feedback) {
+		if (settings.length == 0) {
+			throw new IllegalArgumentException("A pipeline needs at least one VM");
+		}
+		LongChannel first = LongChannel.of(settings[0]);
+		LongChannel in = first;
+		for (int i = 0; i < settings.length; i++) {
+			LongChannel out;
+			if (i + 1 < settings.length) {
+				out = LongChannel.of(settings[i + 1]);
+			} else {
+				out = feedback ? first : new LongChannel();
+			}
+			vms.add(new IntcodeVM(program, in, out));
+			in = out;
+		}
+		this.output = in;
+	}
+
+	/**
+	 *
+	 * @return the input of the first VM
+	 */
+	public LongChannel input() {
+		return vms.get(0).input();
+	}
+
+	/**
+	 *
+	 * @return the output of the last VM. With feedback, this is the input of the
+	 *         first VM.
+	 */
+	public LongChannel output() {
+		return output;
+	}
+
+	public List<IntcodeVM> vms() {
+		return vms;
+	}
+
+	/**
+	 * Runs the VMs in turn on the calling thread, until all of them have halted
+	 * or none of them can continue without more input.
+	 *
+	 * @return true if all the VMs halted
+	 */
+	public boolean run() {
+		boolean progress = true;
+		while (progress) {
+			progress = false;
+			boolean allHalted = true;
+			for (IntcodeVM vm : vms) {
+				if (vm.halted()) {
+					continue;
+				}
+				long before = vm.steps();
+				vm.run();
+				progress |= vm.steps() != before;
+				allHalted &= vm.halted();
+			}
+			if (allHalted) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Runs each VM on its own thread until all of them have halted. The VMs
+	 * block when waiting for input, so the pipeline must not run out of input.
+	 *
+	 * @throws InterruptedException  if interrupted while waiting for the VMs
+	 * @throws IllegalStateException if a VM fails
+	 */
+	public void runThreaded() throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(vms.size());
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (IntcodeVM vm : vms) {
+				futures.add(executor.submit(() -> {
+					vm.runBlocking();
+					return null;
+				}));
+			}
+			for (Future<?> f : futures) {
+				f.get();
+			}
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Intcode VM failed", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
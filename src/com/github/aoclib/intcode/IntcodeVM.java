@@ -0,0 +1,291 @@
+package com.github.aoclib.intcode;
+
+import java.util.Arrays;
+
+/**
+ * Virtual machine for the Intcode programs of 2019.
+ *
+ * The memory is a primitive array that grows when the program writes past
+ * its end. Reads past the end return 0. Input and output go through
+ * {@link LongChannel}s, which can be shared with other VMs to connect them.
+ *
+ * {@link #run()} executes until the program halts or needs input that is not
+ * available, so the VM can be resumed after more input has been added. Use
+ * {@link #copy()} to save the state for searches that branch.
+ *
+ * Example:
+ *
+ * <pre>
+ * IntcodeVM vm = new IntcodeVM(input.intCodeProgram());
+ * vm.input().add(1);
+ * vm.run();
+ * long answer = vm.output().poll();
+ * </pre>
+ *
+ */
+public class IntcodeVM {
+
+	public enum State {
+		/**
+		 * Not run yet, or paused after an output by {@link IntcodeVM#runUntilOutput()}
+		 */
+		READY,
+		/**
+		 * Paused, because the input channel was empty
+		 */
+		WAITING_INPUT,
+		/**
+		 * The program executed opcode 99
+		 */
+		HALTED
+	}
+
+	private long[] memory;
+	private int ip;
+	private long relativeBase;
+	private State state = State.READY;
+	private LongChannel input;
+	private LongChannel output;
+
+	/**
+	 * Executed instructions, for profiling
+	 */
+	private long steps;
+
+	/**
+	 *
+	 * @param program the program. The array is copied.
+	 */
+	public IntcodeVM(long[] program) {
+		this(program, new LongChannel(), new LongChannel());
+	}
+
+	/**
+	 *
+	 * @param program the program. The array is copied.
+	 * @param input   where the input instructions read from
+	 * @param output  where the output instructions write to
+	 */
+	public IntcodeVM(long[] program, LongChannel input, LongChannel output) {
+		this.memory = program.clone();
+		this.input = input;
+		this.output = output;
+	}
+
+	private IntcodeVM(IntcodeVM other) {
+		this.memory = other.memory.clone();
+		this.ip = other.ip;
+		this.relativeBase = other.relativeBase;
+		this.state = other.state;
+		this.steps = other.steps;
+		this.input = other.input.copy();
+		this.output = other.output.copy();
+	}
+
+	/**
+	 * Runs a program to completion.
+	 *
+	 * @param program the program
+	 * @param inputs  all the input of the program
+	 * @return all the output of the program
+	 * @throws IllegalStateException if the program needs more input
+	 */
+	public static long[] execute(long[] program, long... inputs) {
+		IntcodeVM vm = new IntcodeVM(program, LongChannel.of(inputs), new LongChannel());
+		if (vm.run() != State.HALTED) {
+			throw new IllegalStateException("Program needs more input than " + inputs.length + " values");
+		}
+		return vm.output.drain();
+	}
+
+	/**
+	 * Copies the whole state, including the memory and the contents of the
+	 * channels. The copy has its own channels.
+	 *
+	 * @return an independent copy of this VM
+	 */
+	public IntcodeVM copy() {
+		return new IntcodeVM(this);
+	}
+
+	public LongChannel input() {
+		return input;
+	}
+
+	public LongChannel output() {
+		return output;
+	}
+
+	public void setInput(LongChannel input) {
+		this.input = input;
+	}
+
+	public void setOutput(LongChannel output) {
+		this.output = output;
+	}
+
+	public State state() {
+		return state;
+	}
+
+	public boolean halted() {
+		return state == State.HALTED;
+	}
+
+	/**
+	 *
+	 * @return number of executed instructions
+	 */
+	public long steps() {
+		return steps;
+	}
+
+	/**
+	 *
+	 * @return the value at the address, 0 past the end of the memory
+	 */
+	public long get(long address) {
+		if (address < 0) {
+			throw new IllegalStateException("Negative address " + address + " at " + ip);
+		}
+		return address < memory.length ? memory[(int) address] : 0;
+	}
+
+	/**
+	 * Writes to the memory, growing it if needed.
+	 */
+	public void set(long address, long value) {
+		if (address < 0) {
+			throw new IllegalStateException("Negative address " + address + " at " + ip);
+		}
+		if (address >= memory.length) {
+			if (address >= Integer.MAX_VALUE - 8) {
+				throw new IllegalStateException("Address " + address + " is too large at " + ip);
+			}
+			memory = Arrays.copyOf(memory, (int) Math.max(memory.length * 2L, address + 1));
+		}
+		memory[(int) address] = value;
+	}
+
+	/**
+	 * Runs until the program halts or needs input that the input channel does
+	 * not have.
+	 *
+	 * @return {@link State#HALTED} or {@link State#WAITING_INPUT}
+	 */
+	public State run() {
+		try {
+			return execute(false, false);
+		} catch (InterruptedException e) {
+			// does not block
+			throw new AssertionError(e);
+		}
+	}
+
+	/**
+	 * Like {@link #run()}, but also pauses after each output.
+	 *
+	 * @return {@link State#READY} after an output, otherwise as {@link #run()}
+	 */
+	public State runUntilOutput() {
+		try {
+			return execute(false, true);
+		} catch (InterruptedException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	/**
+	 * Runs until the program halts, waiting for input when the input channel is
+	 * empty. For VMs that run on their own threads.
+	 *
+	 * @throws InterruptedException if interrupted while waiting for input
+	 */
+	public void runBlocking() throws InterruptedException {
+		execute(true, false);
+	}
+
+	private State execute(boolean block, boolean pauseOnOutput) throws InterruptedException {
+		if (state == State.HALTED) {
+			return state;
+		}
+		while (true) {
+			int instruction = (int) get(ip);
+			int opcode = instruction % 100;
+			steps++;
+			switch (opcode) {
+			case 1 -> {
+				set(address(instruction, 3), get(address(instruction, 1)) + get(address(instruction, 2)));
+				ip += 4;
+			}
+			case 2 -> {
+				set(address(instruction, 3), get(address(instruction, 1)) * get(address(instruction, 2)));
+				ip += 4;
+			}
+			case 3 -> {
+				long value;
+				if (!input.isEmpty()) {
+					value = input.poll();
+				} else if (block) {
+					value = input.take();
+				} else {
+					steps--;
+					return state = State.WAITING_INPUT;
+				}
+				set(address(instruction, 1), value);
+				ip += 2;
+			}
+			case 4 -> {
+				output.add(get(address(instruction, 1)));
+				ip += 2;
+				if (pauseOnOutput) {
+					return state = State.READY;
+				}
+			}
+			case 5 -> ip = get(address(instruction, 1)) != 0 ? jumpTarget(get(address(instruction, 2))) : ip + 3;
+			case 6 -> ip = get(address(instruction, 1)) == 0 ? jumpTarget(get(address(instruction, 2))) : ip + 3;
+			case 7 -> {
+				set(address(instruction, 3), get(address(instruction, 1)) < get(address(instruction, 2)) ? 1 : 0);
+				ip += 4;
+			}
+			case 8 -> {
+				set(address(instruction, 3), get(address(instruction, 1)) == get(address(instruction, 2)) ? 1 : 0);
+				ip += 4;
+			}
+			case 9 -> {
+				relativeBase += get(address(instruction, 1));
+				ip += 2;
+			}
+			case 99 -> {
+				return state = State.HALTED;
+			}
+			default -> throw new IllegalStateException("Unknown opcode " + instruction + " at " + ip);
+			}
+		}
+	}
+
+	private static final int[] MODE_DIVISORS = { 0, 100, 1000, 10000 };
+
+	/**
+	 *
+	 * @param instruction the current instruction with the parameter modes
+	 * @param n           the parameter, 1..3
+	 * @return the address that the parameter refers to
+	 */
+	private long address(int instruction, int n) {
+		int mode = instruction / MODE_DIVISORS[n] % 10;
+		return switch (mode) {
+		case 0 -> get(ip + n);
+		case 1 -> ip + n;
+		case 2 -> relativeBase + get(ip + n);
+		default -> throw new IllegalStateException("Unknown parameter mode " + instruction + " at " + ip);
+		};
+	}
+
+	private int jumpTarget(long target) {
+		if (target < 0 || target > Integer.MAX_VALUE) {
+			throw new IllegalStateException("Jump to " + target + " at " + ip);
+		}
+		return (int) target;
+	}
+}
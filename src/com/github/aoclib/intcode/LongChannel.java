@@ -0,0 +1,153 @@
+package com.github.aoclib.intcode;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * An unbounded FIFO queue of longs on a ring buffer, used for the input and
+ * output of {@link IntcodeVM}s.
+ *
+ * The channel is thread safe, so that VMs running on separate threads can be
+ * connected with it. {@link #take()} blocks until a value is available.
+ *
+ */
+public class LongChannel {
+
+	private long[] buffer;
+	private int head;
+	private int size;
+
+	public LongChannel() {
+		this(16);
+	}
+
+	/**
+	 *
+	 * @param capacity initial capacity, the channel grows as needed
+	 */
+	public LongChannel(int capacity) {
+		buffer = new long[Math.max(1, capacity)];
+	}
+
+	/**
+	 * Creates a channel with the given values queued.
+	 */
+	public static LongChannel of(long... values) {
+		LongChannel c = new LongChannel(values.length);
+		for (long v : values) {
+			c.add(v);
+		}
+		return c;
+	}
+
+	/**
+	 * Appends a value and wakes up a thread waiting in {@link #take()}.
+	 */
+	public synchronized void add(long value) {
+		if (size == buffer.length) {
+			long[] grown = new long[buffer.length * 2];
+			int firstPart = Math.min(size, buffer.length - head);
+			System.arraycopy(buffer, head, grown, 0, firstPart);
+			System.arraycopy(buffer, 0, grown, firstPart, size - firstPart);
+			buffer = grown;
+			head = 0;
+		}
+		buffer[(head + size) % buffer.length] = value;
+		size++;
+		notifyAll();
+	}
+
+	/**
+	 * Removes the first value.
+	 *
+	 * @return the value
+	 * @throws NoSuchElementException if the channel is empty
+	 */
+	public synchronized long poll() {
+		if (size == 0) {
+			throw new NoSuchElementException("Channel is empty");
+		}
+		long v = buffer[head];
+		head = (head + 1) % buffer.length;
+		size--;
+		return v;
+	}
+
+	/**
+	 * Removes the first value, waiting for one if the channel is empty.
+	 *
+	 * @return the value
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public synchronized long take() throws InterruptedException {
+		while (size == 0) {
+			wait();
+		}
+		return poll();
+	}
+
+	/**
+	 *
+	 * @return the first value without removing it
+	 * @throws NoSuchElementException if the channel is empty
+	 */
+	public synchronized long peek() {
+		if (size == 0) {
+			throw new NoSuchElementException("Channel is empty");
+		}
+		return buffer[head];
+	}
+
+	public synchronized boolean isEmpty() {
+		return size == 0;
+	}
+
+	public synchronized int size() {
+		return size;
+	}
+
+	public synchronized void clear() {
+		head = 0;
+		size = 0;
+	}
+
+	/**
+	 * Removes all the values.
+	 *
+	 * @return the removed values in order
+	 */
+	public synchronized long[] drain() {
+		long[] values = toArray();
+		clear();
+		return values;
+	}
+
+	/**
+	 *
+	 * @return the queued values in order, without removing them
+	 */
+	public synchronized long[] toArray() {
+		long[] values = new long[size];
+		for (int i = 0; i < size; i++) {
+			values[i] = buffer[(head + i) % buffer.length];
+		}
+		return values;
+	}
+
+	/**
+	 *
+	 * @return a new channel with the same values
+	 */
+	public synchronized LongChannel copy() {
+		LongChannel c = new LongChannel(buffer.length);
+		long[] values = toArray();
+		System.arraycopy(values, 0, c.buffer, 0, values.length);
+		c.size = values.length;
+		return c;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return Arrays.toString(toArray());
+	}
+}
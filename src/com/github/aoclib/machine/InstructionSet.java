@@ -0,0 +1,211 @@
+package com.github.aoclib.machine;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The mnemonics of an assembly-like puzzle language, and how they map to the
+ * {@link Op}s of a {@link RegisterMachine}.
+ *
+ * Each mnemonic has an operand specification with one token per argument, in
+ * the order they appear on the line. A token is one or more roles and a kind:
+ * <ul>
+ * <li>roles {@code d}, {@code x} or {@code y}: the operands of the {@link Op}
+ * the argument is. {@code dx} makes the argument both the destination and the
+ * first value, as in {@code add X Y} of duet.</li>
+ * <li>kind {@code r}: a register, {@code i}: an immediate value, {@code v}:
+ * either, a register if the argument is a register name</li>
+ * </ul>
+ *
+ * For example the elfcode instruction {@code gtir a b c} is defined as
+ * {@code define("gtir", Op.GT, "xi yr dr")}.
+ *
+ * Example of a new language:
+ *
+ * <pre>
+ * InstructionSet set = new InstructionSet("a", "b")
+ * 		.define("inc", Op.INC, "dr")
+ * 		.define("dbl", Op.MUL, "dxr yi")
+ * 		.define("jnz", Op.JNZ, "xv yv");
+ * Program program = input.registerProgram(set);
+ * </pre>
+ *
+ */
+public class InstructionSet {
+
+	/**
+	 * How a mnemonic is compiled
+	 */
+	record Definition(Op op, String[] roles, char[] kinds) {
+	}
+
+	private final String[] registers;
+	private final Map<String, Integer> registerIndex = new HashMap<>();
+	private final Map<String, Definition> definitions = new HashMap<>();
+	private final Map<String, String> toggles = new HashMap<>();
+	private String toggleOneArg;
+	private String toggleTwoArgs;
+
+	/**
+	 *
+	 * @param registers the names of the registers
+	 */
+	public InstructionSet(String... registers) {
+		this.registers = registers.clone();
+		for (int i = 0; i < registers.length; i++) {
+			registerIndex.put(registers[i], i);
+		}
+	}
+
+	/**
+	 * Adds a mnemonic.
+	 *
+	 * @param mnemonic the name of the instruction
+	 * @param op       the operation it executes
+	 * @param operands the operand specification, see {@link InstructionSet}
+	 * @return this
+	 * @throws IllegalArgumentException if the specification is invalid
+	 */
+	public InstructionSet define(String mnemonic, Op op, String operands) {
+		String[] tokens = operands.isBlank() ? new String[0] : operands.trim().split("\\s+");
+		String[] roles = new String[tokens.length];
+		char[] kinds = new char[tokens.length];
+		for (int i = 0; i < tokens.length; i++) {
+			String t = tokens[i];
+			roles[i] = t.substring(0, t.length() - 1);
+			kinds[i] = t.charAt(t.length() - 1);
+			if (roles[i].isEmpty() || !roles[i].matches("[dxy]+") || "riv".indexOf(kinds[i]) < 0) {
+				throw new IllegalArgumentException("Invalid operand " + t + " of " + mnemonic);
+			}
+		}
+		definitions.put(mnemonic, new Definition(op, roles, kinds));
+		return this;
+	}
+
+	/**
+	 * Defines what {@link Op#TGL} turns an instruction into.
+	 *
+	 * @param from the mnemonic of the toggled instruction
+	 * @param to   the mnemonic it becomes
+	 * @return this
+	 */
+	public InstructionSet toggle(String from, String to) {
+		toggles.put(from, to);
+		return this;
+	}
+
+	/**
+	 * Defines what {@link Op#TGL} turns the instructions without a
+	 * {@link #toggle(String, String)} rule into, by their number of arguments.
+	 *
+	 * @param oneArg  the mnemonic for instructions with one argument
+	 * @param twoArgs the mnemonic for instructions with two arguments
+	 * @return this
+	 */
+	public InstructionSet toggleDefault(String oneArg, String twoArgs) {
+		this.toggleOneArg = oneArg;
+		this.toggleTwoArgs = twoArgs;
+		return this;
+	}
+
+	/**
+	 *
+	 * @return number of registers
+	 */
+	public int registerCount() {
+		return registers.length;
+	}
+
+	/**
+	 *
+	 * @return index of the register, or -1 if there is no such register
+	 */
+	public int register(String name) {
+		return registerIndex.getOrDefault(name, -1);
+	}
+
+	public String registerName(int index) {
+		return registers[index];
+	}
+
+	Definition definition(String mnemonic) {
+		return definitions.get(mnemonic);
+	}
+
+	/**
+	 *
+	 * @return the mnemonic after a toggle, or null if the instruction is not
+	 *         changed
+	 */
+	String toggled(String mnemonic, int argCount) {
+		String to = toggles.get(mnemonic);
+		if (to != null) {
+			return to;
+		}
+		return argCount == 1 ? toggleOneArg : argCount == 2 ? toggleTwoArgs : null;
+	}
+
+	/**
+	 * Assembunny of 2016 days 12, 23 and 25: registers a-d, {@code cpy inc dec
+	 * jnz tgl out}.
+	 */
+	public static InstructionSet assembunny() {
+		return new InstructionSet("a", "b", "c", "d")//
+				.define("cpy", Op.SET, "xv dv")//
+				.define("inc", Op.INC, "dv")//
+				.define("dec", Op.DEC, "dv")//
+				.define("jnz", Op.JNZ, "xv yv")//
+				.define("tgl", Op.TGL, "xv")//
+				.define("out", Op.OUT, "xv")//
+				.toggle("inc", "dec")//
+				.toggleDefault("inc", "jnz")//
+				.toggle("jnz", "cpy");
+	}
+
+	/**
+	 * Duet of 2017 day 18 part 1: registers a-z, {@code snd} outputs and
+	 * {@code rcv} pauses the machine if its argument is not 0. The last output
+	 * is the recovered frequency.
+	 */
+	public static InstructionSet duet() {
+		return duetRegisters().define("snd", Op.OUT, "xv").define("rcv", Op.BREAK_NZ, "xv");
+	}
+
+	/**
+	 * Duet of 2017 day 18 part 2: {@code snd} sends to the output channel and
+	 * {@code rcv} receives from the input channel. Also the coprocessor of 2017
+	 * day 23, which adds {@code sub} and {@code jnz}.
+	 */
+	public static InstructionSet duetMessages() {
+		return duetRegisters().define("snd", Op.OUT, "xv").define("rcv", Op.RCV, "dr");
+	}
+
+	private static InstructionSet duetRegisters() {
+		String[] registers = new String[26];
+		for (int i = 0; i < registers.length; i++) {
+			registers[i] = String.valueOf((char) ('a' + i));
+		}
+		return new InstructionSet(registers)//
+				.define("set", Op.SET, "dr xv")//
+				.define("add", Op.ADD, "dxr yv").define("sub", Op.SUB, "dxr yv")//
+				.define("mul", Op.MUL, "dxr yv").define("mod", Op.MOD, "dxr yv")//
+				.define("jgz", Op.JGZ, "xv yv").define("jnz", Op.JNZ, "xv yv");
+	}
+
+	/**
+	 * Elfcode of 2018 days 16, 19 and 21: registers 0-5, the 16 opcodes and the
+	 * {@code #ip} directive.
+	 */
+	public static InstructionSet elfcode() {
+		return new InstructionSet("0", "1", "2", "3", "4", "5")//
+				.define("addr", Op.ADD, "xr yr dr").define("addi", Op.ADD, "xr yi dr")//
+				.define("mulr", Op.MUL, "xr yr dr").define("muli", Op.MUL, "xr yi dr")//
+				.define("banr", Op.AND, "xr yr dr").define("bani", Op.AND, "xr yi dr")//
+				.define("borr", Op.OR, "xr yr dr").define("bori", Op.OR, "xr yi dr")//
+				.define("setr", Op.SET, "xr yi dr").define("seti", Op.SET, "xi yi dr")//
+				.define("gtir", Op.GT, "xi yr dr").define("gtri", Op.GT, "xr yi dr")//
+				.define("gtrr", Op.GT, "xr yr dr")//
+				.define("eqir", Op.EQ, "xi yr dr").define("eqri", Op.EQ, "xr yi dr")//
+				.define("eqrr", Op.EQ, "xr yr dr");
+	}
+}
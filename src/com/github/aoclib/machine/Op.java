@@ -0,0 +1,53 @@
+package com.github.aoclib.machine;
+
+/**
+ * The operations that a {@link RegisterMachine} executes. An
+ * {@link InstructionSet} maps the mnemonics of a puzzle to these.
+ *
+ * The operands are a destination register D and two values X and Y, each of
+ * which is a register or an immediate value. A write to an immediate
+ * destination is skipped, as an invalid toggled instruction of assembunny is.
+ *
+ */
+public enum Op {
+	/** D = X */
+	SET,
+	/** D = X + Y */
+	ADD,
+	/** D = X - Y */
+	SUB,
+	/** D = X * Y */
+	MUL,
+	/** D = X / Y */
+	DIV,
+	/** D = X % Y */
+	MOD,
+	/** D = X &amp; Y */
+	AND,
+	/** D = X | Y */
+	OR,
+	/** D = 1 if X &gt; Y, otherwise 0 */
+	GT,
+	/** D = 1 if X == Y, otherwise 0 */
+	EQ,
+	/** D = D + 1 */
+	INC,
+	/** D = D - 1 */
+	DEC,
+	/** Jumps Y instructions if X is not 0 */
+	JNZ,
+	/** Jumps Y instructions if X is greater than 0 */
+	JGZ,
+	/** Toggles the instruction X instructions away, see {@link InstructionSet#toggle(String, String)} */
+	TGL,
+	/** Writes X to the output channel */
+	OUT,
+	/** Reads D from the input channel, or pauses if the channel is empty */
+	RCV,
+	/** Pauses after the instruction if X is not 0 */
+	BREAK_NZ,
+	/** Does nothing */
+	NOP,
+	/** A hot loop replaced by {@link Program#fuse(int, int, Program.Fused)}, not used by instruction sets */
+	FUSED
+}
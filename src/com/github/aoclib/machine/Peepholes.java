@@ -0,0 +1,105 @@
+package com.github.aoclib.machine;
+
+import com.github.aoclib.machine.Program.Peephole;
+
+/**
+ * Replacements for common hot loops. They match the compiled {@link Op}s, so
+ * they work for any instruction set that compiles to the same operations.
+ *
+ * Example:
+ *
+ * <pre>
+ * Program program = input.registerProgram(InstructionSet.assembunny()).optimize(Peepholes.ASSEMBUNNY);
+ * </pre>
+ *
+ */
+public final class Peepholes {
+
+	private Peepholes() {
+	}
+
+	/**
+	 * {@code inc a; dec b; jnz b -2} in either order of the first two
+	 * instructions, replaced by {@code a += b; b = 0} when b is positive.
+	 */
+	public static final Peephole ADD_LOOP = (p, i) -> {
+		if (i + 3 > p.size() || !isJump(p, i + 2, -2)) {
+			return false;
+		}
+		int inc = p.op(i) == Op.INC ? i : i + 1;
+		int dec = inc == i ? i + 1 : i;
+		if (!isRegister(p, inc, Op.INC) || !isRegister(p, dec, Op.DEC)) {
+			return false;
+		}
+		int a = (int) p.d(inc);
+		int b = (int) p.d(dec);
+		if (a == b || p.x(i + 2) != b) {
+			return false;
+		}
+		p.fuse(i, 3, (r, ip) -> {
+			if (r[b] <= 0) {
+				return -1;
+			}
+			r[a] += r[b];
+			r[b] = 0;
+			return ip + 3;
+		});
+		return true;
+	};
+
+	/**
+	 * {@code cpy b c; inc a; dec c; jnz c -2; dec d; jnz d -5}, replaced by
+	 * {@code a += b * d; c = 0; d = 0} when b and d are positive. The loop of 2016
+	 * day 23.
+	 */
+	public static final Peephole MULTIPLY_LOOP = (p, i) -> {
+		if (i + 6 > p.size() || p.op(i) != Op.SET || (p.flags(i) & Program.D_REGISTER) == 0
+				|| !isJump(p, i + 3, -2) || !isRegister(p, i + 4, Op.DEC) || !isJump(p, i + 5, -5)) {
+			return false;
+		}
+		int inc = p.op(i + 1) == Op.INC ? i + 1 : i + 2;
+		int dec = inc == i + 1 ? i + 2 : i + 1;
+		if (!isRegister(p, inc, Op.INC) || !isRegister(p, dec, Op.DEC)) {
+			return false;
+		}
+		int a = (int) p.d(inc);
+		int c = (int) p.d(i);
+		int d = (int) p.d(i + 4);
+		boolean bIsRegister = (p.flags(i) & Program.X_REGISTER) != 0;
+		long b = p.x(i);
+		if (p.d(dec) != c || p.x(i + 3) != c || p.x(i + 5) != d || a == c || a == d || c == d
+				|| (bIsRegister && (b == a || b == c || b == d))) {
+			return false;
+		}
+		p.fuse(i, 6, (r, ip) -> {
+			long times = bIsRegister ? r[(int) b] : b;
+			if (times <= 0 || r[d] <= 0) {
+				return -1;
+			}
+			r[a] += times * r[d];
+			r[c] = 0;
+			r[d] = 0;
+			return ip + 6;
+		});
+		return true;
+	};
+
+	/**
+	 * All the loops of assembunny
+	 */
+	public static final Peephole[] ASSEMBUNNY = { MULTIPLY_LOOP, ADD_LOOP };
+
+	private static boolean isRegister(Program p, int i, Op op) {
+		return p.op(i) == op && (p.flags(i) & Program.D_REGISTER) != 0;
+	}
+
+	/**
+	 *
+	 * @return true if the instruction is a JNZ on a register with a constant
+	 *         offset
+	 */
+	private static boolean isJump(Program p, int i, long offset) {
+		return p.op(i) == Op.JNZ && (p.flags(i) & (Program.X_REGISTER | Program.Y_REGISTER)) == Program.X_REGISTER
+				&& p.y(i) == offset;
+	}
+}
@@ -0,0 +1,358 @@
+package com.github.aoclib.machine;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.github.aoclib.utils.Instruction;
+
+/**
+ * A register machine program compiled once from {@link Instruction}s.
+ *
+ * Every instruction is an {@link Op} and three operands in parallel primitive
+ * arrays, so the machine does not look at Strings while it runs. The operands
+ * that are registers are marked in {@link #flags(int)}.
+ *
+ * Hot loops can be replaced with a single Java function with
+ * {@link #optimize(Peephole...)} or {@link #fuse(int, int, Fused)}. The
+ * original instructions are kept, and they are executed when the replacement
+ * does not apply, or after an instruction of the loop has been toggled.
+ *
+ */
+public class Program {
+
+	/**
+	 * Flag: the destination is a register
+	 */
+	public static final byte D_REGISTER = 1;
+	/**
+	 * Flag: X is a register
+	 */
+	public static final byte X_REGISTER = 2;
+	/**
+	 * Flag: Y is a register
+	 */
+	public static final byte Y_REGISTER = 4;
+
+	/**
+	 * A replacement for the instructions of a hot loop
+	 */
+	@FunctionalInterface
+	public interface Fused {
+		/**
+		 *
+		 * @param registers the registers of the machine
+		 * @param ip        the index of the first replaced instruction
+		 * @return the index of the next instruction, or -1 if the replacement does
+		 *         not apply to the current registers. The replacement must not
+		 *         change the registers if it returns -1.
+		 */
+		int execute(long[] registers, int ip);
+	}
+
+	/**
+	 * Finds hot loops to replace, see {@link Peepholes} for examples
+	 */
+	@FunctionalInterface
+	public interface Peephole {
+		/**
+		 * Tries to match the instructions starting at an index, and calls
+		 * {@link Program#fuse(int, int, Fused)} if they match.
+		 *
+		 * @return true if the instructions were replaced
+		 */
+		boolean apply(Program program, int start);
+	}
+
+	private final InstructionSet set;
+	private final String[] names;
+	private final String[][] args;
+
+	final Op[] ops;
+	final long[] d;
+	final long[] x;
+	final long[] y;
+	final byte[] flags;
+	final int ipRegister;
+
+	private final Fused[] fused;
+	private final int[] fusedLength;
+	private final Op[] fusedOriginal;
+	private int maxFusedLength;
+
+	private Program(InstructionSet set, String[] names, String[][] args, int ipRegister) {
+		this.set = set;
+		this.names = names;
+		this.args = args;
+		this.ipRegister = ipRegister;
+		int n = names.length;
+		ops = new Op[n];
+		d = new long[n];
+		x = new long[n];
+		y = new long[n];
+		flags = new byte[n];
+		fused = new Fused[n];
+		fusedLength = new int[n];
+		fusedOriginal = new Op[n];
+		for (int i = 0; i < n; i++) {
+			compile(i, names[i]);
+		}
+	}
+
+	private Program(Program other) {
+		set = other.set;
+		names = other.names.clone();
+		args = other.args;
+		ipRegister = other.ipRegister;
+		ops = other.ops.clone();
+		d = other.d.clone();
+		x = other.x.clone();
+		y = other.y.clone();
+		flags = other.flags.clone();
+		fused = other.fused.clone();
+		fusedLength = other.fusedLength.clone();
+		fusedOriginal = other.fusedOriginal.clone();
+		maxFusedLength = other.maxFusedLength;
+	}
+
+	/**
+	 * Compiles instructions. Blank lines are skipped, and a {@code #ip N} line
+	 * binds the instruction pointer to register N as in elfcode.
+	 *
+	 * @param instructions the instructions, see
+	 *                     {@link com.github.aoclib.api.InputParser#as2017Instruction(com.github.aoclib.utils.Delimiter)}
+	 * @param set          the language of the instructions
+	 * @return the compiled program
+	 * @throws IllegalArgumentException if an instruction is unknown or has
+	 *                                  invalid arguments
+	 */
+	public static Program compile(List<Instruction> instructions, InstructionSet set) {
+		int ipRegister = -1;
+		String[] names = new String[instructions.size()];
+		String[][] args = new String[instructions.size()][];
+		int n = 0;
+		for (Instruction in : instructions) {
+			if (in.name().isBlank()) {
+				continue;
+			}
+			if (in.name().equals("#ip")) {
+				ipRegister = register(set, in.arg(0), in.line);
+				continue;
+			}
+			names[n] = in.name();
+			args[n] = new String[in.argCount()];
+			for (int a = 0; a < args[n].length; a++) {
+				args[n][a] = in.arg(a);
+			}
+			n++;
+		}
+		return new Program(set, Arrays.copyOf(names, n), Arrays.copyOf(args, n), ipRegister);
+	}
+
+	/**
+	 *
+	 * @return an independent copy, for a machine that toggles instructions
+	 */
+	public Program copy() {
+		return new Program(this);
+	}
+
+	private void compile(int i, String mnemonic) {
+		InstructionSet.Definition def = set.definition(mnemonic);
+		if (def == null) {
+			throw new IllegalArgumentException("Unknown instruction " + (i + 1) + ": " + line(i));
+		}
+		if (def.roles().length != args[i].length) {
+			throw new IllegalArgumentException("Instruction " + (i + 1) + " needs " + def.roles().length
+					+ " arguments: " + line(i));
+		}
+		names[i] = mnemonic;
+		ops[i] = def.op();
+		d[i] = x[i] = y[i] = 0;
+		byte f = 0;
+		for (int a = 0; a < args[i].length; a++) {
+			String arg = args[i][a];
+			int reg = set.register(arg);
+			boolean isRegister = switch (def.kinds()[a]) {
+			case 'r' -> true;
+			case 'i' -> false;
+			default -> reg >= 0;
+			};
+			long value;
+			if (isRegister) {
+				value = def.kinds()[a] == 'r' ? register(set, arg, line(i)) : reg;
+			} else {
+				try {
+					value = Long.parseLong(arg);
+				} catch (NumberFormatException e) {
+					throw new IllegalArgumentException("Invalid value " + arg + " in instruction " + (i + 1) + ": "
+							+ line(i));
+				}
+			}
+			for (char role : def.roles()[a].toCharArray()) {
+				switch (role) {
+				case 'd' -> {
+					d[i] = value;
+					f |= isRegister ? D_REGISTER : 0;
+				}
+				case 'x' -> {
+					x[i] = value;
+					f |= isRegister ? X_REGISTER : 0;
+				}
+				default -> {
+					y[i] = value;
+					f |= isRegister ? Y_REGISTER : 0;
+				}
+				}
+			}
+		}
+		flags[i] = f;
+	}
+
+	private static int register(InstructionSet set, String name, String line) {
+		int reg = set.register(name);
+		if (reg < 0) {
+			throw new IllegalArgumentException("Unknown register " + name + ": " + line);
+		}
+		return reg;
+	}
+
+	/**
+	 * Toggles an instruction, see {@link InstructionSet#toggle(String, String)}.
+	 * Replacements of loops that contain the instruction are removed.
+	 *
+	 * @param i the index of the instruction
+	 * @return false if the index is outside the program or the instruction has
+	 *         no toggle rule
+	 */
+	public boolean toggle(int i) {
+		if (i < 0 || i >= names.length) {
+			return false;
+		}
+		String to = set.toggled(names[i], args[i].length);
+		if (to == null) {
+			return false;
+		}
+		for (int s = Math.max(0, i - maxFusedLength + 1); s <= i; s++) {
+			if (fused[s] != null && s + fusedLength[s] > i) {
+				ops[s] = fusedOriginal[s];
+				fused[s] = null;
+			}
+		}
+		compile(i, to);
+		return true;
+	}
+
+	/**
+	 * Replaces instructions with a Java function. The first instruction becomes
+	 * {@link Op#FUSED}, the others are kept for jumps into the middle of the
+	 * loop.
+	 *
+	 * @param start  the index of the first replaced instruction
+	 * @param length the number of replaced instructions
+	 * @param f      the replacement
+	 */
+	public void fuse(int start, int length, Fused f) {
+		if (fused[start] == null) {
+			fusedOriginal[start] = ops[start];
+		}
+		ops[start] = Op.FUSED;
+		fused[start] = f;
+		fusedLength[start] = length;
+		maxFusedLength = Math.max(maxFusedLength, length);
+	}
+
+	/**
+	 * Applies peephole optimizations to every instruction. The first one that
+	 * matches an index wins.
+	 *
+	 * @param peepholes the optimizations, see {@link Peepholes}
+	 * @return this
+	 */
+	public Program optimize(Peephole... peepholes) {
+		for (int i = 0; i < size(); i++) {
+			for (Peephole p : peepholes) {
+				if (p.apply(this, i)) {
+					break;
+				}
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * The original instruction, when a loop starting from it could not be
+	 * replaced
+	 */
+	Op original(int i) {
+		return fusedOriginal[i];
+	}
+
+	Fused fused(int i) {
+		return fused[i];
+	}
+
+	public int size() {
+		return ops.length;
+	}
+
+	/**
+	 *
+	 * @return the operation of the instruction, not {@link Op#FUSED}
+	 */
+	public Op op(int i) {
+		return ops[i] == Op.FUSED ? fusedOriginal[i] : ops[i];
+	}
+
+	public long d(int i) {
+		return d[i];
+	}
+
+	public long x(int i) {
+		return x[i];
+	}
+
+	public long y(int i) {
+		return y[i];
+	}
+
+	/**
+	 *
+	 * @return which operands are registers, a combination of
+	 *         {@link #D_REGISTER}, {@link #X_REGISTER} and {@link #Y_REGISTER}
+	 */
+	public byte flags(int i) {
+		return flags[i];
+	}
+
+	/**
+	 *
+	 * @return the register bound to the instruction pointer, or -1
+	 */
+	public int ipRegister() {
+		return ipRegister;
+	}
+
+	public InstructionSet instructionSet() {
+		return set;
+	}
+
+	/**
+	 *
+	 * @return the current text of the instruction
+	 */
+	public String line(int i) {
+		return args[i].length == 0 ? names[i] : names[i] + " " + String.join(" ", args[i]);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		if (ipRegister >= 0) {
+			sb.append("#ip ").append(set.registerName(ipRegister)).append('\n');
+		}
+		for (int i = 0; i < size(); i++) {
+			sb.append(line(i)).append('\n');
+		}
+		return sb.toString();
+	}
+}
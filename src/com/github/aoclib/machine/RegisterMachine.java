@@ -0,0 +1,330 @@
+package com.github.aoclib.machine;
+
+import com.github.aoclib.intcode.LongChannel;
+
+/**
+ * Executes a compiled {@link Program} on a register file of longs.
+ *
+ * The machine halts when the instruction pointer leaves the program. It
+ * pauses when {@link Op#RCV} finds the input channel empty, after
+ * {@link Op#BREAK_NZ} and when the step limit runs out, and
+ * {@link #run(long)} continues from where it paused.
+ *
+ * Example, 2016 day 12:
+ *
+ * <pre>
+ * RegisterMachine m = new RegisterMachine(input.registerProgram(InstructionSet.assembunny()));
+ * m.registers[2] = 1;
+ * m.run();
+ * long a = m.registers[0];
+ * </pre>
+ *
+ * Two machines of duet can be connected by giving the output of one as the
+ * input of the other, and running them in turn until both wait for input.
+ *
+ */
+public class RegisterMachine {
+
+	public enum State {
+		/**
+		 * Not run yet, or the step limit ran out
+		 */
+		READY,
+		/**
+		 * Paused at {@link Op#RCV}, because the input channel was empty
+		 */
+		WAITING_INPUT,
+		/**
+		 * Paused after {@link Op#BREAK_NZ}
+		 */
+		BREAK,
+		/**
+		 * The instruction pointer is outside the program
+		 */
+		HALTED
+	}
+
+	/**
+	 * The registers, in the order of the {@link InstructionSet}
+	 */
+	public final long[] registers;
+
+	private final Program program;
+	private int ip;
+	private State state = State.READY;
+	private LongChannel input;
+	private LongChannel output;
+	private long steps;
+	private long sent;
+
+	/**
+	 *
+	 * @param program the program. It is copied, so toggles do not change the
+	 *                original.
+	 */
+	public RegisterMachine(Program program) {
+		this(program, new LongChannel(), new LongChannel());
+	}
+
+	/**
+	 *
+	 * @param program the program. It is copied, so toggles do not change the
+	 *                original.
+	 * @param input   where {@link Op#RCV} reads from
+	 * @param output  where {@link Op#OUT} writes to
+	 */
+	public RegisterMachine(Program program, LongChannel input, LongChannel output) {
+		this.program = program.copy();
+		this.registers = new long[program.instructionSet().registerCount()];
+		this.input = input;
+		this.output = output;
+	}
+
+	private RegisterMachine(RegisterMachine other) {
+		this.program = other.program.copy();
+		this.registers = other.registers.clone();
+		this.ip = other.ip;
+		this.state = other.state;
+		this.steps = other.steps;
+		this.sent = other.sent;
+		this.input = other.input.copy();
+		this.output = other.output.copy();
+	}
+
+	/**
+	 * Copies the whole state, including the program and the contents of the
+	 * channels. The copy has its own channels.
+	 *
+	 * @return an independent copy of this machine
+	 */
+	public RegisterMachine copy() {
+		return new RegisterMachine(this);
+	}
+
+	public Program program() {
+		return program;
+	}
+
+	public int ip() {
+		return ip;
+	}
+
+	public void setIp(int ip) {
+		this.ip = ip;
+	}
+
+	public State state() {
+		return state;
+	}
+
+	public boolean halted() {
+		return state == State.HALTED;
+	}
+
+	/**
+	 *
+	 * @return number of executed instructions. A replaced loop counts as one.
+	 */
+	public long steps() {
+		return steps;
+	}
+
+	/**
+	 *
+	 * @return number of values written to the output
+	 */
+	public long sent() {
+		return sent;
+	}
+
+	public LongChannel input() {
+		return input;
+	}
+
+	public LongChannel output() {
+		return output;
+	}
+
+	public void setInput(LongChannel input) {
+		this.input = input;
+	}
+
+	public void setOutput(LongChannel output) {
+		this.output = output;
+	}
+
+	/**
+	 * Runs until the machine halts or pauses.
+	 *
+	 * @return the state after running
+	 */
+	public State run() {
+		return run(Long.MAX_VALUE);
+	}
+
+	/**
+	 * Runs at most the given number of instructions.
+	 *
+	 * @param maxSteps the step limit
+	 * @return the state after running, {@link State#READY} if the limit ran out
+	 */
+	public State run(long maxSteps) {
+		final Op[] ops = program.ops;
+		final long[] d = program.d;
+		final long[] x = program.x;
+		final long[] y = program.y;
+		final byte[] flags = program.flags;
+		final long[] r = registers;
+		final int ipRegister = program.ipRegister;
+		final int n = ops.length;
+		long budget = maxSteps;
+		int ip = this.ip;
+		try {
+			while (budget-- > 0) {
+				if (ip < 0 || ip >= n) {
+					return state = State.HALTED;
+				}
+				if (ipRegister >= 0) {
+					r[ipRegister] = ip;
+				}
+				byte f = flags[ip];
+				int next = ip + 1;
+				Op op = ops[ip];
+				if (op == Op.FUSED) {
+					int to = program.fused(ip).execute(r, ip);
+					if (to >= 0) {
+						steps++;
+						ip = to;
+						continue;
+					}
+					op = program.original(ip);
+				}
+				steps++;
+				switch (op) {
+				case SET -> {
+					if ((f & Program.D_REGISTER) != 0) {
+						r[(int) d[ip]] = value(r, x[ip], f, Program.X_REGISTER);
+					}
+				}
+				case ADD -> {
+					if ((f & Program.D_REGISTER) != 0) {
+						r[(int) d[ip]] = value(r, x[ip], f, Program.X_REGISTER) + value(r, y[ip], f, Program.Y_REGISTER);
+					}
+				}
+				case SUB -> {
+					if ((f & Program.D_REGISTER) != 0) {
+						r[(int) d[ip]] = value(r, x[ip], f, Program.X_REGISTER) - value(r, y[ip], f, Program.Y_REGISTER);
+					}
+				}
+				case MUL -> {
+					if ((f & Program.D_REGISTER) != 0) {
+						r[(int) d[ip]] = value(r, x[ip], f, Program.X_REGISTER) * value(r, y[ip], f, Program.Y_REGISTER);
+					}
+				}
+				case DIV -> {
+					if ((f & Program.D_REGISTER) != 0) {
+						r[(int) d[ip]] = value(r, x[ip], f, Program.X_REGISTER) / value(r, y[ip], f, Program.Y_REGISTER);
+					}
+				}
+				case MOD -> {
+					if ((f & Program.D_REGISTER) != 0) {
+						r[(int) d[ip]] = value(r, x[ip], f, Program.X_REGISTER) % value(r, y[ip], f, Program.Y_REGISTER);
+					}
+				}
+				case AND -> {
+					if ((f & Program.D_REGISTER) != 0) {
+						r[(int) d[ip]] = value(r, x[ip], f, Program.X_REGISTER) & value(r, y[ip], f, Program.Y_REGISTER);
+					}
+				}
+				case OR -> {
+					if ((f & Program.D_REGISTER) != 0) {
+						r[(int) d[ip]] = value(r, x[ip], f, Program.X_REGISTER) | value(r, y[ip], f, Program.Y_REGISTER);
+					}
+				}
+				case GT -> {
+					if ((f & Program.D_REGISTER) != 0) {
+						r[(int) d[ip]] = value(r, x[ip], f, Program.X_REGISTER) > value(r, y[ip], f,
+								Program.Y_REGISTER) ? 1 : 0;
+					}
+				}
+				case EQ -> {
+					if ((f & Program.D_REGISTER) != 0) {
+						r[(int) d[ip]] = value(r, x[ip], f, Program.X_REGISTER) == value(r, y[ip], f,
+								Program.Y_REGISTER) ? 1 : 0;
+					}
+				}
+				case INC -> {
+					if ((f & Program.D_REGISTER) != 0) {
+						r[(int) d[ip]]++;
+					}
+				}
+				case DEC -> {
+					if ((f & Program.D_REGISTER) != 0) {
+						r[(int) d[ip]]--;
+					}
+				}
+				case JNZ -> {
+					if (value(r, x[ip], f, Program.X_REGISTER) != 0) {
+						next = jump(ip, value(r, y[ip], f, Program.Y_REGISTER));
+					}
+				}
+				case JGZ -> {
+					if (value(r, x[ip], f, Program.X_REGISTER) > 0) {
+						next = jump(ip, value(r, y[ip], f, Program.Y_REGISTER));
+					}
+				}
+				case TGL -> {
+					long target = ip + value(r, x[ip], f, Program.X_REGISTER);
+					if (target >= 0 && target < n) {
+						program.toggle((int) target);
+					}
+				}
+				case OUT -> {
+					output.add(value(r, x[ip], f, Program.X_REGISTER));
+					sent++;
+				}
+				case RCV -> {
+					if (input.isEmpty()) {
+						steps--;
+						return state = State.WAITING_INPUT;
+					}
+					long v = input.poll();
+					if ((f & Program.D_REGISTER) != 0) {
+						r[(int) d[ip]] = v;
+					}
+				}
+				case BREAK_NZ -> {
+					if (value(r, x[ip], f, Program.X_REGISTER) != 0) {
+						ip = afterInstruction(ip, next, ipRegister);
+						return state = State.BREAK;
+					}
+				}
+				case NOP -> {
+				}
+				default -> throw new IllegalStateException("Cannot execute " + op + " at " + ip);
+				}
+				ip = afterInstruction(ip, next, ipRegister);
+			}
+			return state = ip < 0 || ip >= n ? State.HALTED : State.READY;
+		} finally {
+			this.ip = ip;
+		}
+	}
+
+	/**
+	 * With a bound instruction pointer, a write to its register is a jump.
+	 */
+	private int afterInstruction(int ip, int next, int ipRegister) {
+		return ipRegister >= 0 ? jump(0, registers[ipRegister] + next - ip) : next;
+	}
+
+	private static long value(long[] r, long operand, byte flags, byte mask) {
+		return (flags & mask) != 0 ? r[(int) operand] : operand;
+	}
+
+	private static int jump(int ip, long offset) {
+		long target = ip + offset;
+		// any target outside the program halts
+		return target < Integer.MIN_VALUE || target > Integer.MAX_VALUE ? -1 : (int) target;
+	}
+}
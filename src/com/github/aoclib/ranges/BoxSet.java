@@ -0,0 +1,320 @@
+package com.github.aoclib.ranges;
+
+import java.util.Arrays;
+
+/**
+ * A set of points in n dimensions stored as disjoint, axis-aligned boxes, for
+ * puzzles that turn huge cuboids on and off.
+ *
+ * The boxes are half-open in every dimension, [lo, hi), and kept in a single
+ * primitive array with 2n longs per box: lo0, hi0, lo1, hi1, ... Removing a box
+ * splits every overlapping box into at most 2n pieces, and adding a box first
+ * removes it and then stores it whole, so the boxes never overlap and
+ * {@link #volume()} is a plain sum.
+ *
+ * Example, 2021 day 22:
+ *
+ * <pre>
+ * BoxSet cubes = new BoxSet(3);
+ * List&lt;String&gt; lines = input.getLines();
+ * long[][] rows = input.longsPerLine();
+ * for (int i = 0; i &lt; rows.length; i++) {
+ * 	if (lines.get(i).startsWith("on")) {
+ * 		cubes.addClosedPairs(rows[i]);
+ * 	} else {
+ * 		cubes.removeClosedPairs(rows[i]);
+ * 	}
+ * }
+ * long count = cubes.volume();
+ * </pre>
+ *
+ */
+public class BoxSet {
+
+	private final int dimensions;
+	private long[] boxes;
+	private int count;
+
+	/**
+	 *
+	 * @param dimensions number of dimensions of the points
+	 */
+	public BoxSet(int dimensions) {
+		if (dimensions < 1) {
+			throw new IllegalArgumentException("Dimensions must be positive: " + dimensions);
+		}
+		this.dimensions = dimensions;
+		this.boxes = new long[16 * dimensions];
+	}
+
+	public int dimensions() {
+		return dimensions;
+	}
+
+	/**
+	 *
+	 * @return number of disjoint boxes the set is stored as
+	 */
+	public int boxCount() {
+		return count;
+	}
+
+	public boolean isEmpty() {
+		return count == 0;
+	}
+
+	/**
+	 * Adds the points of the box [lo, hi).
+	 *
+	 * @return this
+	 */
+	public BoxSet add(long[] lo, long[] hi) {
+		if (isEmpty(lo, hi)) {
+			return this;
+		}
+		remove(lo, hi);
+		append(lo, hi);
+		return this;
+	}
+
+	/**
+	 * Adds the points of the box from lo to hi, inclusive.
+	 *
+	 * @return this
+	 */
+	public BoxSet addClosed(long[] lo, long[] hi) {
+		return add(lo, plusOne(hi));
+	}
+
+	/**
+	 * Removes the points of the box [lo, hi).
+	 *
+	 * @return this
+	 */
+	public BoxSet remove(long[] lo, long[] hi) {
+		if (isEmpty(lo, hi)) {
+			return this;
+		}
+		int n = count;
+		long[] old = boxes;
+		boxes = new long[Math.max(boxes.length, 16 * dimensions)];
+		count = 0;
+		long[] fragmentLo = new long[dimensions];
+		long[] fragmentHi = new long[dimensions];
+		for (int b = 0; b < n; b++) {
+			int base = 2 * dimensions * b;
+			if (!overlaps(old, base, lo, hi)) {
+				appendBox(old, base);
+				continue;
+			}
+			// cut off the parts outside [lo, hi) one dimension at a time
+			for (int d = 0; d < dimensions; d++) {
+				fragmentLo[d] = old[base + 2 * d];
+				fragmentHi[d] = old[base + 2 * d + 1];
+			}
+			for (int d = 0; d < dimensions; d++) {
+				if (fragmentLo[d] < lo[d]) {
+					long keep = fragmentHi[d];
+					fragmentHi[d] = lo[d];
+					append(fragmentLo, fragmentHi);
+					fragmentLo[d] = lo[d];
+					fragmentHi[d] = keep;
+				}
+				if (fragmentHi[d] > hi[d]) {
+					long keep = fragmentLo[d];
+					fragmentLo[d] = hi[d];
+					append(fragmentLo, fragmentHi);
+					fragmentLo[d] = keep;
+					fragmentHi[d] = hi[d];
+				}
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Removes the points of the box from lo to hi, inclusive.
+	 *
+	 * @return this
+	 */
+	public BoxSet removeClosed(long[] lo, long[] hi) {
+		return remove(lo, plusOne(hi));
+	}
+
+	/**
+	 * Adds a box given as the first and the last coordinate of each dimension,
+	 * like "x=10..12,y=10..12,z=10..12" read with
+	 * {@link com.github.aoclib.api.InputParser#longsPerLine()}.
+	 *
+	 * @return this
+	 */
+	public BoxSet addClosedPairs(long[] pairs) {
+		return addClosed(corner(pairs, 0), corner(pairs, 1));
+	}
+
+	/**
+	 * Removes a box given like in {@link #addClosedPairs(long[])}.
+	 *
+	 * @return this
+	 */
+	public BoxSet removeClosedPairs(long[] pairs) {
+		return removeClosed(corner(pairs, 0), corner(pairs, 1));
+	}
+
+	private long[] corner(long[] pairs, int side) {
+		if (pairs.length != 2 * dimensions) {
+			throw new IllegalArgumentException("Expected " + 2 * dimensions + " values, got " + pairs.length);
+		}
+		long[] corner = new long[dimensions];
+		for (int d = 0; d < dimensions; d++) {
+			corner[d] = pairs[2 * d + side];
+		}
+		return corner;
+	}
+
+	public boolean contains(long... point) {
+		checkDimensions(point);
+		for (int b = 0; b < count; b++) {
+			int base = 2 * dimensions * b;
+			boolean inside = true;
+			for (int d = 0; d < dimensions && inside; d++) {
+				inside = point[d] >= boxes[base + 2 * d] && point[d] < boxes[base + 2 * d + 1];
+			}
+			if (inside) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 *
+	 * @return number of points in the set
+	 */
+	public long volume() {
+		long volume = 0;
+		for (int b = 0; b < count; b++) {
+			int base = 2 * dimensions * b;
+			long v = 1;
+			for (int d = 0; d < dimensions; d++) {
+				v *= boxes[base + 2 * d + 1] - boxes[base + 2 * d];
+			}
+			volume += v;
+		}
+		return volume;
+	}
+
+	/**
+	 *
+	 * @return number of points of the set inside the box [lo, hi)
+	 */
+	public long volumeWithin(long[] lo, long[] hi) {
+		checkDimensions(lo);
+		checkDimensions(hi);
+		long volume = 0;
+		for (int b = 0; b < count; b++) {
+			int base = 2 * dimensions * b;
+			long v = 1;
+			for (int d = 0; d < dimensions && v > 0; d++) {
+				v *= Math.max(0, Math.min(hi[d], boxes[base + 2 * d + 1]) - Math.max(lo[d], boxes[base + 2 * d]));
+			}
+			volume += v;
+		}
+		return volume;
+	}
+
+	/**
+	 *
+	 * @return the lower corner of the i:th box
+	 */
+	public long[] lo(int i) {
+		return corner(i, 0);
+	}
+
+	/**
+	 *
+	 * @return the upper corner of the i:th box, exclusive
+	 */
+	public long[] hi(int i) {
+		return corner(i, 1);
+	}
+
+	private long[] corner(int i, int side) {
+		if (i < 0 || i >= count) {
+			throw new IndexOutOfBoundsException("Box " + i + " of " + count);
+		}
+		long[] corner = new long[dimensions];
+		for (int d = 0; d < dimensions; d++) {
+			corner[d] = boxes[2 * dimensions * i + 2 * d + side];
+		}
+		return corner;
+	}
+
+	/**
+	 *
+	 * @return a copy of this set
+	 */
+	public BoxSet copy() {
+		BoxSet copy = new BoxSet(dimensions);
+		copy.boxes = boxes.clone();
+		copy.count = count;
+		return copy;
+	}
+
+	private boolean isEmpty(long[] lo, long[] hi) {
+		checkDimensions(lo);
+		checkDimensions(hi);
+		for (int d = 0; d < dimensions; d++) {
+			if (lo[d] >= hi[d]) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean overlaps(long[] data, int base, long[] lo, long[] hi) {
+		for (int d = 0; d < dimensions; d++) {
+			if (data[base + 2 * d] >= hi[d] || data[base + 2 * d + 1] <= lo[d]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private long[] plusOne(long[] hi) {
+		checkDimensions(hi);
+		long[] end = new long[dimensions];
+		for (int d = 0; d < dimensions; d++) {
+			end[d] = hi[d] + 1;
+		}
+		return end;
+	}
+
+	private void checkDimensions(long[] point) {
+		if (point.length != dimensions) {
+			throw new IllegalArgumentException("Expected " + dimensions + " coordinates, got " + point.length);
+		}
+	}
+
+	private void ensureCapacity() {
+		if (2 * dimensions * (count + 1) > boxes.length) {
+			boxes = Arrays.copyOf(boxes, boxes.length * 2);
+		}
+	}
+
+	private void append(long[] lo, long[] hi) {
+		ensureCapacity();
+		int base = 2 * dimensions * count;
+		for (int d = 0; d < dimensions; d++) {
+			boxes[base + 2 * d] = lo[d];
+			boxes[base + 2 * d + 1] = hi[d];
+		}
+		count++;
+	}
+
+	private void appendBox(long[] data, int base) {
+		ensureCapacity();
+		System.arraycopy(data, base, boxes, 2 * dimensions * count, 2 * dimensions);
+		count++;
+	}
+}
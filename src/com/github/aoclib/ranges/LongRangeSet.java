@@ -0,0 +1,455 @@
+package com.github.aoclib.ranges;
+
+import java.util.Arrays;
+
+/**
+ * A set of longs stored as sorted, disjoint ranges, for puzzles with huge
+ * ranges that cannot be expanded element by element.
+ *
+ * The ranges are half-open, [start, end), and kept in a single primitive
+ * array. Touching ranges are merged, so the representation of a set is
+ * unique. {@link #add(long, long)} and {@link #remove(long, long)} modify the
+ * set, {@link #union(LongRangeSet)}, {@link #intersect(LongRangeSet)} and
+ * {@link #subtract(LongRangeSet)} return new sets in linear time.
+ *
+ * Example, "3-5" style ranges from the input:
+ *
+ * <pre>
+ * LongRangeSet fresh = LongRangeSet.ofClosedRows(input.longsPerLine());
+ * long count = fresh.size();
+ * </pre>
+ *
+ * Note that {@link com.github.aoclib.api.InputParser#longsPerLine()} reads
+ * "3-5" as 3 and 5 only when the ranges do not contain negative numbers.
+ *
+ */
+public class LongRangeSet {
+
+	/**
+	 * Receives the ranges of a set
+	 */
+	@FunctionalInterface
+	public interface RangeVisitor {
+		/**
+		 *
+		 * @param start the first element
+		 * @param end   the element after the last one
+		 */
+		void visit(long start, long end);
+	}
+
+	/**
+	 * start0, end0, start1, end1, ...
+	 */
+	private long[] bounds;
+	private int count;
+
+	public LongRangeSet() {
+		bounds = new long[8];
+	}
+
+	private LongRangeSet(long[] bounds, int count) {
+		this.bounds = bounds;
+		this.count = count;
+	}
+
+	/**
+	 *
+	 * @param start the first element
+	 * @param end   the element after the last one
+	 * @return a set of a single range
+	 */
+	public static LongRangeSet of(long start, long end) {
+		LongRangeSet s = new LongRangeSet();
+		s.add(start, end);
+		return s;
+	}
+
+	/**
+	 *
+	 * @param values pairs of the first and the last element of each range, such
+	 *               as "3-5" ranges
+	 * @return the union of the ranges
+	 */
+	public static LongRangeSet ofClosedPairs(long[] values) {
+		checkPairs(values);
+		LongRangeSet s = new LongRangeSet();
+		for (int i = 0; i < values.length; i += 2) {
+			s.addClosed(values[i], values[i + 1]);
+		}
+		return s;
+	}
+
+	/**
+	 *
+	 * @param values pairs of the first element and the length of each range,
+	 *               such as the seeds of 2023 day 5
+	 * @return the union of the ranges
+	 */
+	public static LongRangeSet ofStartLengthPairs(long[] values) {
+		checkPairs(values);
+		LongRangeSet s = new LongRangeSet();
+		for (int i = 0; i < values.length; i += 2) {
+			s.add(values[i], values[i] + values[i + 1]);
+		}
+		return s;
+	}
+
+	/**
+	 *
+	 * @param rows rows of the first and the last element of each range, for
+	 *             example from
+	 *             {@link com.github.aoclib.api.InputParser#longsPerLine()}.
+	 *             Empty rows are skipped.
+	 * @return the union of the ranges
+	 */
+	public static LongRangeSet ofClosedRows(long[][] rows) {
+		LongRangeSet s = new LongRangeSet();
+		for (long[] row : rows) {
+			if (row.length == 0) {
+				continue;
+			}
+			if (row.length != 2) {
+				throw new IllegalArgumentException("Expected 2 values per row: " + Arrays.toString(row));
+			}
+			s.addClosed(row[0], row[1]);
+		}
+		return s;
+	}
+
+	private static void checkPairs(long[] values) {
+		if (values.length % 2 != 0) {
+			throw new IllegalArgumentException("Odd number of values: " + values.length);
+		}
+	}
+
+	/**
+	 *
+	 * @return number of ranges
+	 */
+	public int rangeCount() {
+		return count;
+	}
+
+	/**
+	 *
+	 * @return the first element of the i:th range
+	 */
+	public long start(int i) {
+		checkRange(i);
+		return bounds[2 * i];
+	}
+
+	/**
+	 *
+	 * @return the element after the last one of the i:th range
+	 */
+	public long end(int i) {
+		checkRange(i);
+		return bounds[2 * i + 1];
+	}
+
+	private void checkRange(int i) {
+		if (i < 0 || i >= count) {
+			throw new IndexOutOfBoundsException("Range " + i + " of " + count);
+		}
+	}
+
+	public boolean isEmpty() {
+		return count == 0;
+	}
+
+	/**
+	 *
+	 * @return number of elements in the set
+	 */
+	public long size() {
+		long size = 0;
+		for (int i = 0; i < count; i++) {
+			size += bounds[2 * i + 1] - bounds[2 * i];
+		}
+		return size;
+	}
+
+	/**
+	 *
+	 * @return the smallest element
+	 * @throws IllegalStateException if the set is empty
+	 */
+	public long min() {
+		if (count == 0) {
+			throw new IllegalStateException("Set is empty");
+		}
+		return bounds[0];
+	}
+
+	/**
+	 *
+	 * @return the largest element
+	 * @throws IllegalStateException if the set is empty
+	 */
+	public long max() {
+		if (count == 0) {
+			throw new IllegalStateException("Set is empty");
+		}
+		return bounds[2 * count - 1] - 1;
+	}
+
+	public boolean contains(long value) {
+		int i = firstEndAbove(value);
+		return i < count && bounds[2 * i] <= value;
+	}
+
+	/**
+	 *
+	 * @return the index of the first range whose end is greater than the value
+	 */
+	private int firstEndAbove(long value) {
+		int lo = 0;
+		int hi = count;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (bounds[2 * mid + 1] > value) {
+				hi = mid;
+			} else {
+				lo = mid + 1;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 *
+	 * @return the index of the first range whose start is greater than the
+	 *         value
+	 */
+	private int firstStartAbove(long value) {
+		int lo = 0;
+		int hi = count;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (bounds[2 * mid] > value) {
+				hi = mid;
+			} else {
+				lo = mid + 1;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 * Adds the elements [start, end).
+	 *
+	 * @return this
+	 */
+	public LongRangeSet add(long start, long end) {
+		if (start >= end) {
+			return this;
+		}
+		// ranges that overlap or touch the new one are merged into it
+		int i = firstEndAbove(start - 1);
+		int j = firstStartAbove(end);
+		if (i < j) {
+			start = Math.min(start, bounds[2 * i]);
+			end = Math.max(end, bounds[2 * j - 1]);
+		}
+		replace(i, j, start, end);
+		return this;
+	}
+
+	/**
+	 * Adds the elements from first to last, inclusive.
+	 *
+	 * @return this
+	 */
+	public LongRangeSet addClosed(long first, long last) {
+		return add(first, last + 1);
+	}
+
+	/**
+	 * Adds all the elements of another set.
+	 *
+	 * @return this
+	 */
+	public LongRangeSet addAll(LongRangeSet other) {
+		for (int i = 0; i < other.count; i++) {
+			add(other.bounds[2 * i], other.bounds[2 * i + 1]);
+		}
+		return this;
+	}
+
+	/**
+	 * Removes the elements [start, end).
+	 *
+	 * @return this
+	 */
+	public LongRangeSet remove(long start, long end) {
+		if (start >= end) {
+			return this;
+		}
+		int i = firstEndAbove(start);
+		int j = firstStartAbove(end - 1);
+		if (i >= j) {
+			return this;
+		}
+		long leftStart = bounds[2 * i];
+		long rightEnd = bounds[2 * j - 1];
+		if (leftStart < start && rightEnd > end) {
+			replace(i, j, leftStart, start, end, rightEnd);
+		} else if (leftStart < start) {
+			replace(i, j, leftStart, start);
+		} else if (rightEnd > end) {
+			replace(i, j, end, rightEnd);
+		} else {
+			replace(i, j);
+		}
+		return this;
+	}
+
+	/**
+	 * Replaces the ranges i..j-1 with new ones.
+	 */
+	private void replace(int i, int j, long... newBounds) {
+		int newCount = count - (j - i) + newBounds.length / 2;
+		if (2 * newCount > bounds.length) {
+			bounds = Arrays.copyOf(bounds, Math.max(2 * newCount, bounds.length * 2));
+		}
+		System.arraycopy(bounds, 2 * j, bounds, 2 * i + newBounds.length, 2 * (count - j));
+		System.arraycopy(newBounds, 0, bounds, 2 * i, newBounds.length);
+		count = newCount;
+	}
+
+	/**
+	 * Appends a range after all the others, merging it with the last one if
+	 * they touch.
+	 */
+	private void append(long start, long end) {
+		if (start >= end) {
+			return;
+		}
+		if (count > 0 && bounds[2 * count - 1] >= start) {
+			bounds[2 * count - 1] = Math.max(bounds[2 * count - 1], end);
+			return;
+		}
+		if (2 * count + 2 > bounds.length) {
+			bounds = Arrays.copyOf(bounds, bounds.length * 2);
+		}
+		bounds[2 * count] = start;
+		bounds[2 * count + 1] = end;
+		count++;
+	}
+
+	/**
+	 *
+	 * @return a new set with the elements of either set
+	 */
+	public LongRangeSet union(LongRangeSet other) {
+		LongRangeSet result = new LongRangeSet(new long[Math.max(8, 2 * (count + other.count))], 0);
+		int i = 0;
+		int j = 0;
+		while (i < count || j < other.count) {
+			if (j == other.count || (i < count && bounds[2 * i] <= other.bounds[2 * j])) {
+				result.append(bounds[2 * i], bounds[2 * i + 1]);
+				i++;
+			} else {
+				result.append(other.bounds[2 * j], other.bounds[2 * j + 1]);
+				j++;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 *
+	 * @return a new set with the elements of both sets
+	 */
+	public LongRangeSet intersect(LongRangeSet other) {
+		LongRangeSet result = new LongRangeSet(new long[Math.max(8, 2 * (count + other.count))], 0);
+		int i = 0;
+		int j = 0;
+		while (i < count && j < other.count) {
+			long start = Math.max(bounds[2 * i], other.bounds[2 * j]);
+			long end = Math.min(bounds[2 * i + 1], other.bounds[2 * j + 1]);
+			result.append(start, end);
+			if (bounds[2 * i + 1] < other.bounds[2 * j + 1]) {
+				i++;
+			} else {
+				j++;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 *
+	 * @return a new set with the elements of this set that are not in the other
+	 */
+	public LongRangeSet subtract(LongRangeSet other) {
+		LongRangeSet result = new LongRangeSet(new long[Math.max(8, 2 * (count + other.count))], 0);
+		int j = 0;
+		for (int i = 0; i < count; i++) {
+			long start = bounds[2 * i];
+			long end = bounds[2 * i + 1];
+			while (j < other.count && other.bounds[2 * j + 1] <= start) {
+				j++;
+			}
+			int k = j;
+			while (k < other.count && other.bounds[2 * k] < end) {
+				result.append(start, other.bounds[2 * k]);
+				start = Math.max(start, other.bounds[2 * k + 1]);
+				k++;
+			}
+			result.append(start, end);
+		}
+		return result;
+	}
+
+	/**
+	 *
+	 * @return a copy of this set
+	 */
+	public LongRangeSet copy() {
+		return new LongRangeSet(bounds.clone(), count);
+	}
+
+	public void forEachRange(RangeVisitor visitor) {
+		for (int i = 0; i < count; i++) {
+			visitor.visit(bounds[2 * i], bounds[2 * i + 1]);
+		}
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof LongRangeSet)) {
+			return false;
+		}
+		LongRangeSet other = (LongRangeSet) o;
+		return count == other.count
+				&& Arrays.equals(bounds, 0, 2 * count, other.bounds, 0, 2 * count);
+	}
+
+	@Override
+	public int hashCode() {
+		int h = count;
+		for (int i = 0; i < 2 * count; i++) {
+			h = 31 * h + Long.hashCode(bounds[i]);
+		}
+		return h;
+	}
+
+	/**
+	 *
+	 * @return the ranges with their first and last elements, like "[1..3, 7..7]"
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(bounds[2 * i]).append("..").append(bounds[2 * i + 1] - 1);
+		}
+		return sb.append(']').toString();
+	}
+}
@@ -0,0 +1,168 @@
+package com.github.aoclib.ranges;
+
+import java.util.Arrays;
+
+import com.github.aoclib.collections.LongList;
+
+/**
+ * A piecewise translation of longs: each rule maps a source range to a
+ * destination range of the same length, and values outside all the rules map
+ * to themselves. Like the almanac maps of 2023 day 5.
+ *
+ * Whole {@link LongRangeSet}s are mapped range by range, splitting the ranges
+ * at the rule boundaries, so the cost does not depend on the number of
+ * elements.
+ *
+ * Example:
+ *
+ * <pre>
+ * RangeMap seedToSoil = RangeMap.ofDestinationSourceLength(group.longsPerLine());
+ * LongRangeSet soils = seedToSoil.apply(seeds);
+ * </pre>
+ *
+ */
+public class RangeMap {
+
+	private final LongList rules = new LongList();
+	private long[] sorted;
+
+	/**
+	 * Adds a rule. The source ranges of the rules must not overlap.
+	 *
+	 * @param sourceStart      the first source value
+	 * @param destinationStart the value the first source value maps to
+	 * @param length           the length of the range
+	 * @return this
+	 */
+	public RangeMap add(long sourceStart, long destinationStart, long length) {
+		if (length < 0) {
+			throw new IllegalArgumentException("Negative length " + length);
+		}
+		if (length > 0) {
+			rules.addAll(sourceStart, sourceStart + length, destinationStart - sourceStart);
+			sorted = null;
+		}
+		return this;
+	}
+
+	/**
+	 *
+	 * @param rows rules in the order of 2023 day 5: destination start, source
+	 *             start and length. Empty rows are skipped.
+	 * @return the map
+	 */
+	public static RangeMap ofDestinationSourceLength(long[][] rows) {
+		RangeMap map = new RangeMap();
+		for (long[] row : rows) {
+			if (row.length == 0) {
+				continue;
+			}
+			if (row.length != 3) {
+				throw new IllegalArgumentException("Expected 3 values per row: " + Arrays.toString(row));
+			}
+			map.add(row[1], row[0], row[2]);
+		}
+		return map;
+	}
+
+	/**
+	 *
+	 * @return number of rules
+	 */
+	public int size() {
+		return rules.size() / 3;
+	}
+
+	/**
+	 * The rules as start, end, offset triples sorted by start
+	 */
+	private long[] rules() {
+		if (sorted == null) {
+			int n = size();
+			Integer[] order = new Integer[n];
+			for (int i = 0; i < n; i++) {
+				order[i] = i;
+			}
+			Arrays.sort(order, (a, b) -> Long.compare(rules.get(3 * a), rules.get(3 * b)));
+			long[] s = new long[3 * n];
+			for (int i = 0; i < n; i++) {
+				s[3 * i] = rules.get(3 * order[i]);
+				s[3 * i + 1] = rules.get(3 * order[i] + 1);
+				s[3 * i + 2] = rules.get(3 * order[i] + 2);
+				if (i > 0 && s[3 * i] < s[3 * i - 2]) {
+					throw new IllegalStateException("Overlapping source ranges at " + s[3 * i]);
+				}
+			}
+			sorted = s;
+		}
+		return sorted;
+	}
+
+	/**
+	 *
+	 * @return the value that the value maps to
+	 */
+	public long apply(long value) {
+		long[] r = rules();
+		int lo = 0;
+		int hi = r.length / 3;
+		// the last rule that starts at or before the value
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (r[3 * mid] <= value) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		int i = lo - 1;
+		return i >= 0 && value < r[3 * i + 1] ? value + r[3 * i + 2] : value;
+	}
+
+	/**
+	 *
+	 * @return a new set of the values that the values of the set map to
+	 */
+	public LongRangeSet apply(LongRangeSet values) {
+		long[] r = rules();
+		LongRangeSet result = new LongRangeSet();
+		values.forEachRange((start, end) -> {
+			long pos = start;
+			for (int i = 3 * firstEndAbove(r, start); i < r.length && pos < end; i += 3) {
+				long ruleStart = r[i];
+				long ruleEnd = r[i + 1];
+				if (ruleStart >= end) {
+					break;
+				}
+				if (pos < ruleStart) {
+					result.add(pos, ruleStart);
+					pos = ruleStart;
+				}
+				long pieceEnd = Math.min(end, ruleEnd);
+				result.add(pos + r[i + 2], pieceEnd + r[i + 2]);
+				pos = pieceEnd;
+			}
+			result.add(pos, end);
+		});
+		return result;
+	}
+
+	/**
+	 * The rules do not overlap, so their ends are sorted too.
+	 *
+	 * @return the index of the first rule whose end is greater than the value
+	 */
+	private static int firstEndAbove(long[] r, long value) {
+		int lo = 0;
+		int hi = r.length / 3;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (r[3 * mid + 1] > value) {
+				hi = mid;
+			} else {
+				lo = mid + 1;
+			}
+		}
+		return lo;
+	}
+}
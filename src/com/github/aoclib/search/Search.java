@@ -0,0 +1,432 @@
+package com.github.aoclib.search;
+
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+
+import com.github.aoclib.collections.LongDeque;
+import com.github.aoclib.collections.LongPriorityQueue;
+import com.github.aoclib.collections.RadixHeap;
+import com.github.aoclib.grid.Grid;
+
+/**
+ * Graph searches over states encoded as longs: breadth first search, 0-1 BFS,
+ * Dijkstra, A* and bidirectional BFS.
+ *
+ * The graph is given as a {@link Neighbours} callback that generates the
+ * edges of a state, so the states are never objects. A state can be an index
+ * of a {@link Grid}, coordinates packed with
+ * {@link com.github.aoclib.grid.SparseGrid#pack(int, int)}, or any other
+ * encoding of the puzzle state to 64 bits. The distances are kept in a
+ * primitive hash map, or in an array if the states are dense, see
+ * {@link #dense(int)}.
+ *
+ * Example, shortest path on a grid:
+ *
+ * <pre>
+ * Grid g = input.grid('#');
+ * SearchResult r = Search.onGrid(g, c -&gt; c != '#').bfs(g.find('S'), s -&gt; g.get((int) s) == 'E');
+ * long steps = r.distance;
+ * </pre>
+ *
+ * Example, Dijkstra over packed states:
+ *
+ * <pre>
+ * Search search = new Search((state, edges) -&gt; {
+ * 	...
+ * 	edges.add(next, cost);
+ * });
+ * long cost = search.dijkstra(start, s -&gt; isGoal(s)).distance;
+ * </pre>
+ *
+ */
+public class Search {
+
+	/**
+	 * Generates the edges from a state
+	 */
+	@FunctionalInterface
+	public interface Neighbours {
+		/**
+		 *
+		 * @param state the state
+		 * @param edges receives the neighbours of the state
+		 */
+		void expand(long state, Edges edges);
+	}
+
+	/**
+	 * Receives the edges from a state
+	 */
+	@FunctionalInterface
+	public interface Edges {
+		/**
+		 *
+		 * @param next the neighbour
+		 * @param cost the cost of the edge, non-negative. Ignored by
+		 *             {@link Search#bfs(long, LongPredicate)}.
+		 */
+		void add(long next, long cost);
+
+		/**
+		 * An edge with cost 1
+		 */
+		default void add(long next) {
+			add(next, 1);
+		}
+	}
+
+	/**
+	 * A goal that is never found, to compute the distances to all the reachable
+	 * states
+	 */
+	public static final LongPredicate EVERYTHING = s -> false;
+
+	private final Neighbours neighbours;
+	private int denseStates = -1;
+	private boolean recordPaths;
+
+	/**
+	 *
+	 * @param neighbours generates the graph
+	 */
+	public Search(Neighbours neighbours) {
+		this.neighbours = neighbours;
+	}
+
+	/**
+	 * Searches the cells of a grid, moving to the 4 neighbours. The states are
+	 * the indices of the cells, see {@link Grid#index(int, int)}.
+	 *
+	 * @param grid     the grid
+	 * @param passable which cells can be entered. With a border, the border
+	 *                 value must not be passable.
+	 * @return a search with dense states
+	 */
+	public static Search onGrid(Grid grid, Grid.CellPredicate passable) {
+		return new Search(gridNeighbours(grid, passable, false)).dense(grid.cells.length);
+	}
+
+	/**
+	 * Searches the cells of a grid, moving to the 4 neighbours. Entering a cell
+	 * costs its value, as in a grid from
+	 * {@link com.github.aoclib.api.InputParser#digitGrid()}.
+	 *
+	 * @param grid     the grid
+	 * @param passable which cells can be entered. With a border, the border
+	 *                 value must not be passable.
+	 * @return a search with dense states
+	 */
+	public static Search onWeightedGrid(Grid grid, Grid.CellPredicate passable) {
+		return new Search(gridNeighbours(grid, passable, true)).dense(grid.cells.length);
+	}
+
+	private static Neighbours gridNeighbours(Grid grid, Grid.CellPredicate passable, boolean weighted) {
+		byte[] cells = grid.cells;
+		int stride = grid.stride;
+		return (state, edges) -> {
+			int cur = (int) state;
+			int column = cur % stride;
+			// each direction is checked on its own, so that the moves never wrap
+			// from the end of a row to the next one
+			if (cur - stride >= 0) {
+				add(cells, passable, weighted, cur - stride, edges);
+			}
+			if (column + 1 < stride) {
+				add(cells, passable, weighted, cur + 1, edges);
+			}
+			if (cur + stride < cells.length) {
+				add(cells, passable, weighted, cur + stride, edges);
+			}
+			if (column > 0) {
+				add(cells, passable, weighted, cur - 1, edges);
+			}
+		};
+	}
+
+	private static void add(byte[] cells, Grid.CellPredicate passable, boolean weighted, int next, Edges edges) {
+		if (passable.test(cells[next])) {
+			edges.add(next, weighted ? cells[next] : 1);
+		}
+	}
+
+	/**
+	 * Keeps the distances in arrays instead of hash maps. All the states must
+	 * be in [0, states).
+	 *
+	 * @param states the number of states
+	 * @return this
+	 */
+	public Search dense(int states) {
+		this.denseStates = states;
+		return this;
+	}
+
+	/**
+	 * Records the parent of each state, so that {@link SearchResult#path()} can
+	 * return the path.
+	 *
+	 * @return this
+	 */
+	public Search recordPaths() {
+		this.recordPaths = true;
+		return this;
+	}
+
+	private StateTable newTable() {
+		return denseStates >= 0 ? new StateTable.Dense(denseStates) : new StateTable.Sparse();
+	}
+
+	/**
+	 * Breadth first search. Every edge costs 1.
+	 *
+	 * @param start the first state
+	 * @param goal  the states to find, or {@link #EVERYTHING}
+	 * @return the nearest goal
+	 */
+	public SearchResult bfs(long start, LongPredicate goal) {
+		StateTable dist = newTable();
+		StateTable parents = recordPaths ? newTable() : null;
+		LongDeque queue = new LongDeque();
+		long[] current = new long[2];
+		Edges edges = (next, cost) -> {
+			if (dist.get(next) < 0) {
+				dist.put(next, current[1] + 1);
+				if (parents != null) {
+					parents.put(next, current[0]);
+				}
+				queue.addLast(next);
+			}
+		};
+		dist.put(start, 0);
+		queue.addLast(start);
+		long expanded = 0;
+		while (!queue.isEmpty()) {
+			long s = queue.pollFirst();
+			long d = dist.get(s);
+			if (goal.test(s)) {
+				return new SearchResult(start, s, d, expanded, dist, parents);
+			}
+			current[0] = s;
+			current[1] = d;
+			neighbours.expand(s, edges);
+			expanded++;
+		}
+		return new SearchResult(start, -1, -1, expanded, dist, parents);
+	}
+
+	/**
+	 * Breadth first search for graphs where every edge costs 0 or 1.
+	 *
+	 * @param start the first state
+	 * @param goal  the states to find, or {@link #EVERYTHING}
+	 * @return the nearest goal
+	 * @throws IllegalArgumentException if an edge costs something else
+	 */
+	public SearchResult zeroOneBfs(long start, LongPredicate goal) {
+		StateTable dist = newTable();
+		StateTable parents = recordPaths ? newTable() : null;
+		LongDeque states = new LongDeque();
+		LongDeque distances = new LongDeque();
+		long[] current = new long[2];
+		Edges edges = (next, cost) -> {
+			if (cost != 0 && cost != 1) {
+				throw new IllegalArgumentException("Edge cost " + cost + " is not 0 or 1");
+			}
+			long nd = current[1] + cost;
+			long old = dist.get(next);
+			if (old < 0 || nd < old) {
+				dist.put(next, nd);
+				if (parents != null) {
+					parents.put(next, current[0]);
+				}
+				if (cost == 0) {
+					states.addFirst(next);
+					distances.addFirst(nd);
+				} else {
+					states.addLast(next);
+					distances.addLast(nd);
+				}
+			}
+		};
+		dist.put(start, 0);
+		states.addLast(start);
+		distances.addLast(0);
+		long expanded = 0;
+		while (!states.isEmpty()) {
+			long s = states.pollFirst();
+			long d = distances.pollFirst();
+			if (d > dist.get(s)) {
+				continue;
+			}
+			if (goal.test(s)) {
+				return new SearchResult(start, s, d, expanded, dist, parents);
+			}
+			current[0] = s;
+			current[1] = d;
+			neighbours.expand(s, edges);
+			expanded++;
+		}
+		return new SearchResult(start, -1, -1, expanded, dist, parents);
+	}
+
+	/**
+	 * Dijkstra's algorithm on a {@link RadixHeap}.
+	 *
+	 * @param start the first state
+	 * @param goal  the states to find, or {@link #EVERYTHING}
+	 * @return the nearest goal
+	 * @throws IllegalArgumentException if an edge has a negative cost
+	 */
+	public SearchResult dijkstra(long start, LongPredicate goal) {
+		StateTable dist = newTable();
+		StateTable parents = recordPaths ? newTable() : null;
+		RadixHeap queue = new RadixHeap();
+		long[] current = new long[2];
+		Edges edges = (next, cost) -> {
+			if (cost < 0) {
+				throw new IllegalArgumentException("Negative edge cost " + cost);
+			}
+			long nd = current[1] + cost;
+			long old = dist.get(next);
+			if (old < 0 || nd < old) {
+				dist.put(next, nd);
+				if (parents != null) {
+					parents.put(next, current[0]);
+				}
+				queue.add(nd, next);
+			}
+		};
+		dist.put(start, 0);
+		queue.add(0, start);
+		long expanded = 0;
+		while (!queue.isEmpty()) {
+			long d = queue.peekPriority();
+			long s = queue.poll();
+			if (d > dist.get(s)) {
+				continue;
+			}
+			if (goal.test(s)) {
+				return new SearchResult(start, s, d, expanded, dist, parents);
+			}
+			current[0] = s;
+			current[1] = d;
+			neighbours.expand(s, edges);
+			expanded++;
+		}
+		return new SearchResult(start, -1, -1, expanded, dist, parents);
+	}
+
+	/**
+	 * A* search. The result is the shortest path if the heuristic never
+	 * overestimates the distance to the nearest goal.
+	 *
+	 * @param start     the first state
+	 * @param goal      the states to find
+	 * @param heuristic estimate of the distance from a state to the nearest
+	 *                  goal, non-negative
+	 * @return the goal found
+	 * @throws IllegalArgumentException if an edge has a negative cost
+	 */
+	public SearchResult aStar(long start, LongPredicate goal, LongUnaryOperator heuristic) {
+		StateTable dist = newTable();
+		StateTable parents = recordPaths ? newTable() : null;
+		LongPriorityQueue queue = new LongPriorityQueue();
+		long[] current = new long[2];
+		Edges edges = (next, cost) -> {
+			if (cost < 0) {
+				throw new IllegalArgumentException("Negative edge cost " + cost);
+			}
+			long nd = current[1] + cost;
+			long old = dist.get(next);
+			if (old < 0 || nd < old) {
+				dist.put(next, nd);
+				if (parents != null) {
+					parents.put(next, current[0]);
+				}
+				queue.add(nd + heuristic.applyAsLong(next), next);
+			}
+		};
+		dist.put(start, 0);
+		queue.add(heuristic.applyAsLong(start), start);
+		long expanded = 0;
+		while (!queue.isEmpty()) {
+			long f = queue.peekPriority();
+			long s = queue.poll();
+			long d = dist.get(s);
+			if (f > d + heuristic.applyAsLong(s)) {
+				// a shorter path to the state was found after this entry was added
+				continue;
+			}
+			if (goal.test(s)) {
+				return new SearchResult(start, s, d, expanded, dist, parents);
+			}
+			current[0] = s;
+			current[1] = d;
+			neighbours.expand(s, edges);
+			expanded++;
+		}
+		return new SearchResult(start, -1, -1, expanded, dist, parents);
+	}
+
+	/**
+	 * Breadth first search from both ends, one whole layer at a time from the
+	 * smaller frontier. Every edge costs 1. Visits far fewer states than
+	 * {@link #bfs(long, LongPredicate)} when the graph branches a lot.
+	 *
+	 * The paths are not recorded, and {@link SearchResult#distanceTo(long)} is
+	 * not available.
+	 *
+	 * @param start    the first state
+	 * @param target   the state to find
+	 * @param reversed generates the edges into a state. For undirected graphs,
+	 *                 the same as the neighbours of this search.
+	 * @return the distance to the target
+	 */
+	public SearchResult bidirectionalBfs(long start, long target, Neighbours reversed) {
+		if (start == target) {
+			return new SearchResult(start, target, 0, 0, null, null);
+		}
+		StateTable[] dist = { newTable(), newTable() };
+		LongDeque[] frontier = { new LongDeque(), new LongDeque() };
+		Neighbours[] expand = { neighbours, reversed };
+		dist[0].put(start, 0);
+		dist[1].put(target, 0);
+		frontier[0].addLast(start);
+		frontier[1].addLast(target);
+		long[] best = { -1 };
+		long[] current = new long[2];
+		long expanded = 0;
+		while (!frontier[0].isEmpty() && !frontier[1].isEmpty()) {
+			int side = frontier[0].size() <= frontier[1].size() ? 0 : 1;
+			StateTable mine = dist[side];
+			StateTable other = dist[1 - side];
+			LongDeque queue = frontier[side];
+			LongDeque nextLayer = new LongDeque();
+			Edges edges = (next, cost) -> {
+				long o = other.get(next);
+				if (o >= 0) {
+					long total = current[1] + 1 + o;
+					if (best[0] < 0 || total < best[0]) {
+						best[0] = total;
+					}
+				}
+				if (mine.get(next) < 0) {
+					mine.put(next, current[1] + 1);
+					nextLayer.addLast(next);
+				}
+			};
+			while (!queue.isEmpty()) {
+				long s = queue.pollFirst();
+				current[0] = s;
+				current[1] = mine.get(s);
+				expand[side].expand(s, edges);
+				expanded++;
+			}
+			if (best[0] >= 0) {
+				return new SearchResult(start, target, best[0], expanded, null, null);
+			}
+			frontier[side] = nextLayer;
+		}
+		return new SearchResult(start, -1, -1, expanded, null, null);
+	}
+}
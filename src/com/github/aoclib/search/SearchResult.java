@@ -0,0 +1,108 @@
+package com.github.aoclib.search;
+
+import com.github.aoclib.collections.LongList;
+
+/**
+ * The outcome of a {@link Search}: the goal that was found and its distance,
+ * and the distances of all the states that were reached.
+ *
+ */
+public class SearchResult {
+
+	/**
+	 * The state where the search started
+	 */
+	public final long start;
+
+	/**
+	 * The goal state that was found, or -1 if none was found
+	 */
+	public final long goal;
+
+	/**
+	 * Distance to the goal, or -1 if no goal was found
+	 */
+	public final long distance;
+
+	/**
+	 * Number of states whose neighbours were generated
+	 */
+	public final long expanded;
+
+	private final StateTable distances;
+	private final StateTable parents;
+
+	SearchResult(long start, long goal, long distance, long expanded, StateTable distances, StateTable parents) {
+		this.start = start;
+		this.goal = goal;
+		this.distance = distance;
+		this.expanded = expanded;
+		this.distances = distances;
+		this.parents = parents;
+	}
+
+	public boolean found() {
+		return distance >= 0;
+	}
+
+	/**
+	 *
+	 * @return the best known distance to the state, or -1 if it was not reached.
+	 *         Exact for the states closer than the goal.
+	 */
+	public long distanceTo(long state) {
+		return distances == null ? -1 : distances.get(state);
+	}
+
+	/**
+	 *
+	 * @return the number of reached states
+	 */
+	public int reached() {
+		return distances == null ? 0 : distances.size();
+	}
+
+	/**
+	 *
+	 * @return the states from the start to the goal
+	 * @throws IllegalStateException if no goal was found or the search did not
+	 *                               record the paths, see
+	 *                               {@link Search#recordPaths()}
+	 */
+	public long[] path() {
+		// the goal of a failed search is -1, which can be a real sparse state
+		if (!found()) {
+			throw new IllegalStateException("No goal was found");
+		}
+		return pathTo(goal);
+	}
+
+	/**
+	 *
+	 * @param state a reached state
+	 * @return the states from the start to the state
+	 * @throws IllegalStateException if the state was not reached or the search
+	 *                               did not record the paths
+	 */
+	public long[] pathTo(long state) {
+		if (parents == null) {
+			throw new IllegalStateException("Paths were not recorded");
+		}
+		if (distanceTo(state) < 0) {
+			throw new IllegalStateException("State " + state + " was not reached");
+		}
+		LongList path = new LongList();
+		path.add(state);
+		while (state != start) {
+			state = parents.get(state);
+			path.add(state);
+		}
+		long[] result = path.toArray();
+		for (int i = 0, j = result.length - 1; i < j; i++, j--) {
+			long t = result[i];
+			result[i] = result[j];
+			result[j] = t;
+		}
+		return result;
+	}
+}
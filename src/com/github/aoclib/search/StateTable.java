@@ -0,0 +1,73 @@
+package com.github.aoclib.search;
+
+import java.util.Arrays;
+
+import com.github.aoclib.collections.LongLongMap;
+
+/**
+ * A map from states to longs, such as distances or parents. {@link #get(long)}
+ * returns -1 for a state that is not in the table, so -1 means absent only
+ * for tables of non-negative values such as distances. The parent tables store
+ * any states, and are only read for states that have a distance.
+ */
+abstract class StateTable {
+
+	abstract long get(long state);
+
+	abstract void put(long state, long value);
+
+	abstract int size();
+
+	/**
+	 * For states in [0, size), for example the indices of a grid
+	 */
+	static final class Dense extends StateTable {
+		private final long[] values;
+		private int size;
+
+		Dense(int states) {
+			values = new long[states];
+			Arrays.fill(values, -1);
+		}
+
+		@Override
+		long get(long state) {
+			return values[(int) state];
+		}
+
+		@Override
+		void put(long state, long value) {
+			if (values[(int) state] < 0) {
+				size++;
+			}
+			values[(int) state] = value;
+		}
+
+		@Override
+		int size() {
+			return size;
+		}
+	}
+
+	/**
+	 * For any states
+	 */
+	static final class Sparse extends StateTable {
+		private final LongLongMap values = new LongLongMap();
+
+		@Override
+		long get(long state) {
+			return values.get(state, -1);
+		}
+
+		@Override
+		void put(long state, long value) {
+			values.put(state, value);
+		}
+
+		@Override
+		int size() {
+			return values.size();
+		}
+	}
+}
@@ -1,5 +1,7 @@
 package com.github.aoclib.solver;
 
+import java.lang.reflect.InvocationTargetException;
+
 import com.github.aoclib.api.InputParser;
 
 public interface DayProvider {
@@ -8,7 +10,27 @@ public interface DayProvider {
 
 	public DayX get(int year, int day);
 
-	
+	/**
+	 * Instantiates the given {@link DayProvider} class, or returns the reflective
+	 * provider if the name is empty. Used by the JVMs that benchmark in a fork,
+	 * as they have to create their own provider.
+	 *
+	 * @param className fully qualified name of a provider with a public no-arg
+	 *                  constructor, or null or empty
+	 * @return the provider
+	 */
+	public static DayProvider create(String className) {
+		if (className == null || className.isEmpty()) {
+			return new ReflectiveDayProvider();
+		}
+		try {
+			return (DayProvider) Class.forName(className).getConstructor().newInstance();
+		} catch (ClassNotFoundException | InstantiationException | IllegalAccessException
+				| InvocationTargetException | NoSuchMethodException | ClassCastException e) {
+			throw new IllegalArgumentException("Could not create DayProvider " + className, e);
+		}
+	}
+
 	public static class NopDay extends DayX {
 
 		private NopDay() {
@@ -25,6 +25,13 @@ public abstract class DayX {
 	 */
 	protected boolean NOT_SOLVED_IS_PASSED = false;
 
+	/**
+	 * Time budget for each part of this day in milliseconds. Overrides the budget
+	 * of the run when set to a positive value. Set this from the subclass for
+	 * days that are known to be slow.
+	 */
+	protected long TIME_BUDGET_MS = 0;
+
 	private InputParser input;
 	private Parameters p;
 
@@ -76,19 +83,43 @@ public abstract class DayX {
 	protected abstract Object secondPart(InputParser ip);
 
 	public Solution solveFirstPart() {
-		long time = System.nanoTime();
-		Object s = firstPart(input);
-		long runtime = System.nanoTime() - time;
-		String solution = s == null ? "null" : s.toString();
-		return new Solution(p.getYear(), p.getDay(), Part.FIRST, solution, runtime);
+		return solve(Part.FIRST, input);
 	}
 
 	public Solution solveSecondPart() {
+		return solve(Part.SECOND, input);
+	}
+
+	/**
+	 * Solves and times a single part against the given input, and records the
+	 * memory usage of the solving thread. Requires
+	 * {@link #setup(Parameters, InputParser)} to be called first.
+	 * 
+	 * @param part  the part to solve
+	 * @param input the input for the part
+	 * @return the timed solution
+	 */
+	public Solution solve(Part part, InputParser input) {
+		ResourceUsage.Probe probe = ResourceUsage.start();
 		long time = System.nanoTime();
-		Object s = secondPart(input);
+		Object s = run(part, input);
 		long runtime = System.nanoTime() - time;
+		ResourceUsage usage = probe.stop();
 		String solution = s == null ? "null" : s.toString();
-		return new Solution(p.getYear(), p.getDay(), Part.SECOND, solution, runtime);
+		return new Solution(p.getYear(), p.getDay(), part, solution, runtime, usage);
+	}
+
+	/**
+	 * Runs a single part against the given input, without timing or any other
+	 * bookkeeping. Meant for benchmark harnesses that control the input and the
+	 * measurement themselves.
+	 *
+	 * @param part  the part to run
+	 * @param input the input for the part
+	 * @return the unprocessed result of the part
+	 */
+	public Object run(Part part, InputParser input) {
+		return part == Part.FIRST ? firstPart(input) : secondPart(input);
 	}
 
 	public void setup(Parameters p, InputParser input) {
@@ -96,6 +127,10 @@ public abstract class DayX {
 		this.input = input;
 	}
 
+	public Parameters getParameters() {
+		return p;
+	}
+
 	/**
 	 * Return true in either of following cases: <br>
 	 * -No tests are given. <br>
@@ -159,6 +194,15 @@ public abstract class DayX {
 		return allPassed;
 	}
 
+	/**
+	 * 
+	 * @param runBudgetMS the budget of the whole run
+	 * @return the time budget for a part of this day, 0 or less for no limit
+	 */
+	public long timeBudgetMS(long runBudgetMS) {
+		return TIME_BUDGET_MS > 0 ? TIME_BUDGET_MS : runBudgetMS;
+	}
+
 	public boolean onlyTest() {
 		return ONLY_TEST;
 	}
@@ -1,5 +1,7 @@
 package com.github.aoclib.solver;
 
+import java.nio.file.Path;
+
 public class Options {
 
 	/*
@@ -40,4 +42,16 @@ public class Options {
 	
 	public boolean preLoadInput = true;
 
+	/*
+	 * Time budget for a single part in milliseconds. 0 means no limit. A day may
+	 * override this, see DayX.TIME_BUDGET_MS
+	 */
+	public long timeBudgetMS = 0;
+
+	/*
+	 * Solve against this file instead of the puzzle input. The answers are not
+	 * checked or submitted, as they are not answers to the puzzle.
+	 */
+	public Path inputFile = null;
+
 }
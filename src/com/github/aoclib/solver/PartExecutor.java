@@ -0,0 +1,63 @@
+package com.github.aoclib.solver;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs puzzle parts on a separate thread that is watched by the calling
+ * thread.
+ *
+ * When a part does not finish within its time budget, its thread is
+ * interrupted and the caller can continue. The thread is a daemon thread, so a
+ * part that ignores the interrupt keeps running in the background but never
+ * prevents the JVM from exiting.
+ *
+ */
+public class PartExecutor {
+
+	private PartExecutor() {
+
+	}
+
+	/**
+	 * Runs the task on a new thread and waits for it.
+	 * 
+	 * @param <T>      result type of the task
+	 * @param task     the task to run
+	 * @param budgetMS time budget in milliseconds, 0 or less for no limit
+	 * @param name     name of the thread, shown in stack traces and profilers
+	 * @return the result of the task
+	 * @throws TimeoutException     if the task did not finish in time
+	 * @throws ExecutionException   if the task threw an exception
+	 * @throws InterruptedException if the calling thread was interrupted while
+	 *                              waiting
+	 */
+	public static <T> T run(Callable<T> task, long budgetMS, String name)
+			throws TimeoutException, ExecutionException, InterruptedException {
+		FutureTask<T> future = new FutureTask<>(task);
+		Thread t = new Thread(future, name);
+		t.setDaemon(true);
+		t.start();
+		try {
+			if (budgetMS > 0) {
+				return future.get(budgetMS, TimeUnit.MILLISECONDS);
+			}
+			return future.get();
+		} catch (TimeoutException | InterruptedException e) {
+			future.cancel(true);
+			throw e;
+		}
+	}
+
+	/**
+	 * 
+	 * @return a thread name for the given part, for example
+	 *         {@code Year2021Day06-part1}
+	 */
+	public static String threadName(DayX day, Part part) {
+		return day.getClass().getSimpleName() + "-part" + part.intvalue;
+	}
+}
@@ -3,10 +3,12 @@ package com.github.aoclib.solver;
 public class PartSolveData {
 	@Override
 	public String toString() {
-		return "PartSolveData [solution=" + solution + ", correct=" + correct + ", statusMsg=" + statusMsg + "]";
+		return "PartSolveData [solution=" + solution + ", correct=" + correct + ", status=" + status
+				+ ", statusMsg=" + statusMsg + "]";
 	}
 	Solution solution;
 	boolean correct;
+	PartStatus status;
 	String statusMsg;
 
 }
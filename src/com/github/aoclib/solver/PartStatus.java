@@ -0,0 +1,39 @@
+package com.github.aoclib.solver;
+
+/**
+ * The outcome of solving a single part.
+ */
+public enum PartStatus {
+	/**
+	 * The solution is correct, either known from the database or verified at AoC
+	 */
+	CORRECT,
+	/**
+	 * The solution is wrong or could not be verified
+	 */
+	INCORRECT,
+	/**
+	 * The solution was computed, but it was not submitted
+	 */
+	NOT_SUBMITTED,
+	/**
+	 * The part returned {@link DayX#NOT_SOLVED}
+	 */
+	NOT_SOLVED,
+	/**
+	 * At least one of the tests failed, the actual input was not used
+	 */
+	TESTS_FAILED,
+	/**
+	 * The tests passed and {@code ONLY_TEST} was set
+	 */
+	ONLY_TESTED,
+	/**
+	 * The part did not finish within its time budget and was interrupted
+	 */
+	TIMEOUT,
+	/**
+	 * The part threw an exception
+	 */
+	ERROR
+}
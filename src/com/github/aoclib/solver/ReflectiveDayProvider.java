@@ -10,6 +10,10 @@ public class ReflectiveDayProvider implements DayProvider {
 		root = s;
 	}
 
+	public static String getRoot() {
+		return root;
+	}
+
 	@Override
 	public DayX get(int year, int day) {
 		String cp = String.format(root + "." + "Year%dDay%02d", year, year, day);
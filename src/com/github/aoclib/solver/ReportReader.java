@@ -0,0 +1,128 @@
+package com.github.aoclib.solver;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+/**
+ * Reads reports written by {@link ReportWriter}. The format is picked from
+ * the file extension, anything else than {@code .csv} is read as JSON.
+ *
+ */
+public class ReportReader {
+
+	private ReportReader() {
+
+	}
+
+	/**
+	 * 
+	 * @param file the report to read
+	 * @return the records of the report
+	 * @throws IOException if the file cannot be read or is not a report
+	 */
+	public static List<ReportRecord> read(Path file) throws IOException {
+		if (file.getFileName().toString().toLowerCase().endsWith(".csv")) {
+			return readCsv(Files.readAllLines(file, StandardCharsets.UTF_8));
+		}
+		try (Reader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			ReportWriter.Report report = new Gson().fromJson(r, ReportWriter.Report.class);
+			if (report == null || report.records == null) {
+				throw new IOException(file + " is not a report");
+			}
+			if (report.schemaVersion > ReportWriter.SCHEMA_VERSION) {
+				throw new IOException(file + " has a newer schema version " + report.schemaVersion);
+			}
+			return report.records;
+		} catch (JsonParseException e) {
+			throw new IOException(file + " is not a valid JSON report: " + e.getMessage(), e);
+		}
+	}
+
+	private static List<ReportRecord> readCsv(List<String> lines) throws IOException {
+		if (lines.isEmpty()) {
+			throw new IOException("Empty CSV report");
+		}
+		List<String> header = splitCsv(lines.get(0));
+		Field[] fields = new Field[header.size()];
+		for (int i = 0; i < fields.length; i++) {
+			try {
+				fields[i] = ReportRecord.class.getField(header.get(i));
+			} catch (NoSuchFieldException e) {
+				// unknown columns are skipped, so that newer reports can be read
+			}
+		}
+		List<ReportRecord> records = new ArrayList<>();
+		for (String line : lines.subList(1, lines.size())) {
+			if (line.isBlank()) {
+				continue;
+			}
+			List<String> values = splitCsv(line);
+			ReportRecord r = new ReportRecord();
+			for (int i = 0; i < fields.length && i < values.size(); i++) {
+				if (fields[i] != null && !values.get(i).isEmpty()) {
+					set(r, fields[i], values.get(i));
+				}
+			}
+			records.add(r);
+		}
+		return records;
+	}
+
+	private static void set(ReportRecord r, Field f, String value) throws IOException {
+		Class<?> t = f.getType();
+		try {
+			if (t == String.class) {
+				f.set(r, value);
+			} else if (t == int.class || t == Integer.class) {
+				f.set(r, Integer.parseInt(value));
+			} else if (t == long.class || t == Long.class) {
+				f.set(r, Long.parseLong(value));
+			} else if (t == Double.class) {
+				f.set(r, Double.parseDouble(value));
+			}
+		} catch (NumberFormatException | IllegalAccessException e) {
+			throw new IOException("Invalid value for " + f.getName() + ": " + value, e);
+		}
+	}
+
+	/**
+	 * Splits a CSV line, where values containing commas or quotes are quoted
+	 * and quotes inside them are doubled.
+	 */
+	private static List<String> splitCsv(String line) {
+		List<String> values = new ArrayList<>();
+		StringBuilder sb = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					sb.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					sb.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				values.add(sb.toString());
+				sb.setLength(0);
+			} else {
+				sb.append(c);
+			}
+		}
+		values.add(sb.toString());
+		return values;
+	}
+}
@@ -0,0 +1,191 @@
+package com.github.aoclib.solver;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+import com.github.aoclib.benchmark.PartResult;
+import com.github.aoclib.benchmark.Statistics;
+
+/**
+ * A single row of a machine-readable report, see {@link ReportWriter}.
+ *
+ * The same schema is used for {@code solve} and {@code benchmark}. For
+ * {@code solve}, {@code wallNS} is the time of the single run and the iteration
+ * statistics are null. For {@code benchmark}, {@code wallNS} is the median of
+ * the measured iterations and the resource usage is summed over them. Values
+ * that were not measured are null.
+ *
+ * The answer itself is never written, only a hash of it, so that reports can
+ * be shared without spoiling the puzzles.
+ *
+ */
+public class ReportRecord {
+
+	/**
+	 * The columns in the order they are written to CSV. Also the field names in
+	 * JSON.
+	 */
+	public static final List<String> COLUMNS = List.of("type", "runId", "timestamp", "user", "year", "day", "part",
+			"status", "answerHash", "wallNS", "warmup", "iterations", "minNS", "meanNS", "stddevNS", "p50NS", "p90NS",
+			"p99NS", "maxNS", "ciLowNS", "ciHighNS", "allocatedBytes", "gcCount", "gcTimeMS", "peakHeapBytes",
+			"threadCpuNS", "threadUserNS", "processCpuNS");
+
+	public String type;
+	public String runId;
+	public long timestamp;
+	public String user;
+	public int year;
+	public int day;
+	public int part;
+	public String status;
+	public String answerHash;
+	public Long wallNS;
+	public Integer warmup;
+	public Integer iterations;
+	public Long minNS;
+	public Double meanNS;
+	public Double stddevNS;
+	public Long p50NS;
+	public Long p90NS;
+	public Long p99NS;
+	public Long maxNS;
+	public Double ciLowNS;
+	public Double ciHighNS;
+	public Long allocatedBytes;
+	public Long gcCount;
+	public Long gcTimeMS;
+	public Long peakHeapBytes;
+	public Long threadCpuNS;
+	public Long threadUserNS;
+	public Long processCpuNS;
+
+	/**
+	 * For {@link ReportReader}
+	 */
+	ReportRecord() {
+
+	}
+
+	private ReportRecord(String type, String runId, String user, int year, int day, Part part, PartStatus status) {
+		this.type = type;
+		this.runId = runId;
+		this.timestamp = System.currentTimeMillis();
+		this.user = user;
+		this.year = year;
+		this.day = day;
+		this.part = part.intvalue;
+		this.status = status.name();
+	}
+
+	/**
+	 * Creates a record of a solved part.
+	 * 
+	 * @param user the user the part was solved for
+	 * @param year
+	 * @param day
+	 * @param part
+	 * @param psd  the result of the part
+	 * @return the record
+	 */
+	public static ReportRecord fromSolve(String user, int year, int day, Part part, PartSolveData psd) {
+		ReportRecord r = new ReportRecord("solve", null, user, year, day, part, psd.status);
+		if (psd.solution != null) {
+			r.answerHash = answerHash(psd.solution.solution);
+			r.wallNS = psd.solution.solutiontimeNS;
+			r.setUsage(psd.solution.usage);
+		}
+		return r;
+	}
+
+	/**
+	 * Creates a record of a benchmarked part.
+	 * 
+	 * @param runId  the benchmark run
+	 * @param user   the user the part was benchmarked for
+	 * @param result the measured result
+	 * @param status {@link PartStatus#CORRECT} or {@link PartStatus#INCORRECT}
+	 * @param warmup warmup iterations of the run
+	 * @return the record
+	 */
+	public static ReportRecord fromBenchmark(String runId, String user, PartResult result, PartStatus status,
+			int warmup) {
+		ReportRecord r = new ReportRecord("benchmark", runId, user, result.year, result.day, result.part, status);
+		Statistics t = result.time;
+		r.answerHash = answerHash(result.solution);
+		r.wallNS = t.p50;
+		r.warmup = warmup;
+		r.iterations = t.count;
+		r.minNS = t.min;
+		r.meanNS = t.mean;
+		r.stddevNS = t.stddev;
+		r.p50NS = t.p50;
+		r.p90NS = t.p90;
+		r.p99NS = t.p99;
+		r.maxNS = t.max;
+		r.ciLowNS = t.ciLow;
+		r.ciHighNS = t.ciHigh;
+		r.setUsage(result.usage);
+		return r;
+	}
+
+	/**
+	 * Creates a record of a benchmarked part that did not produce a result.
+	 * 
+	 * @param runId  the benchmark run
+	 * @param user   the user the part was benchmarked for
+	 * @param year
+	 * @param day
+	 * @param part
+	 * @param status why the part failed
+	 * @return the record
+	 */
+	public static ReportRecord failedBenchmark(String runId, String user, int year, int day, Part part,
+			PartStatus status) {
+		return new ReportRecord("benchmark", runId, user, year, day, part, status);
+	}
+
+	private void setUsage(ResourceUsage u) {
+		allocatedBytes = measured(u.allocatedBytes);
+		gcCount = measured(u.gcCount);
+		gcTimeMS = measured(u.gcTimeMS);
+		peakHeapBytes = measured(u.peakHeapBytes);
+		threadCpuNS = measured(u.threadCpuNS);
+		threadUserNS = measured(u.threadUserNS);
+		processCpuNS = measured(u.processCpuNS);
+	}
+
+	private static Long measured(long l) {
+		return l < 0 ? null : l;
+	}
+
+	/**
+	 * 
+	 * @return the values of this record in the order of {@link #COLUMNS}
+	 */
+	public List<Object> values() {
+		return Arrays.asList(type, runId, timestamp, user, year, day, part, status, answerHash, wallNS,
+				warmup, iterations, minNS, meanNS, stddevNS, p50NS, p90NS, p99NS, maxNS, ciLowNS, ciHighNS,
+				allocatedBytes, gcCount, gcTimeMS, peakHeapBytes, threadCpuNS, threadUserNS, processCpuNS);
+	}
+
+	/**
+	 * 
+	 * @param answer the answer to hash
+	 * @return the 16 first hex digits of the SHA-256 of the answer, or null
+	 */
+	public static String answerHash(String answer) {
+		if (answer == null) {
+			return null;
+		}
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(answer.getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(hash, 0, 8);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package com.github.aoclib.solver;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Writes {@link ReportRecord}s as JSON or CSV.
+ *
+ * JSON reports are a single object with the schema version and the records.
+ * CSV reports have a header row with {@link ReportRecord#COLUMNS} and one row
+ * per record, missing values are left empty.
+ *
+ */
+public class ReportWriter {
+
+	/**
+	 * Increased whenever a column is renamed or removed
+	 */
+	public static final int SCHEMA_VERSION = 1;
+
+	public enum Format {
+		JSON, CSV
+	}
+
+	/**
+	 * The top level object of JSON reports
+	 */
+	public static class Report {
+		public int schemaVersion = SCHEMA_VERSION;
+		public String generated;
+		public List<ReportRecord> records;
+	}
+
+	private ReportWriter() {
+
+	}
+
+	/**
+	 * Writes the records to a file, replacing the file if it exists.
+	 * 
+	 * @param records the records to write
+	 * @param format  the output format
+	 * @param out     the target file
+	 * @throws IOException
+	 */
+	public static void write(List<ReportRecord> records, Format format, Path out) throws IOException {
+		if (out.getParent() != null) {
+			Files.createDirectories(out.getParent());
+		}
+		try (Writer w = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+			switch (format) {
+			case JSON -> writeJson(records, w);
+			case CSV -> writeCsv(records, w);
+			}
+		}
+	}
+
+	private static void writeJson(List<ReportRecord> records, Writer w) {
+		Report report = new Report();
+		report.generated = OffsetDateTime.now().toString();
+		report.records = records;
+		Gson gson = new GsonBuilder().serializeNulls().setPrettyPrinting().create();
+		gson.toJson(report, w);
+	}
+
+	private static void writeCsv(List<ReportRecord> records, Writer w) throws IOException {
+		w.write(String.join(",", ReportRecord.COLUMNS));
+		w.write("\n");
+		for (ReportRecord r : records) {
+			w.write(r.values().stream().map(ReportWriter::csvValue).collect(Collectors.joining(",")));
+			w.write("\n");
+		}
+	}
+
+	private static String csvValue(Object o) {
+		if (o == null) {
+			return "";
+		}
+		String s = o.toString();
+		if (s.contains(",") || s.contains("\"") || s.contains("\n")) {
+			return "\"" + s.replace("\"", "\"\"") + "\"";
+		}
+		return s;
+	}
+}
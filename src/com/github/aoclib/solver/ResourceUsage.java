@@ -0,0 +1,247 @@
+package com.github.aoclib.solver;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+
+import com.github.aoclib.utils.MemoryUtils;
+import com.github.aoclib.utils.TimeUtils;
+import com.sun.management.OperatingSystemMXBean;
+
+/**
+ * CPU, memory and garbage collection statistics of solving a part.
+ *
+ * Allocations and thread CPU time are counted only for the thread that solved
+ * the part, extra threads started by the solution are not included. The
+ * process CPU time includes every thread of the JVM, also the JIT compiler and
+ * the garbage collector. The GC statistics are JVM wide. The peak heap is the
+ * sum of the peaks of all the heap memory pools, which is an upper bound of
+ * the actual peak. The pools are JVM wide too and each probe resets their
+ * peaks, so the peak heap is only valid when one part runs at a time. A value
+ * of -1 means the JVM does not support the measurement, or that it was not
+ * measured.
+ *
+ */
+public class ResourceUsage {
+
+	/**
+	 * Usage that was not measured
+	 */
+	public static final ResourceUsage NONE = new ResourceUsage(-1, -1, -1, -1, -1, -1, -1);
+
+	public final long allocatedBytes;
+	public final long gcCount;
+	public final long gcTimeMS;
+	public final long peakHeapBytes;
+	public final long threadCpuNS;
+	public final long threadUserNS;
+	public final long processCpuNS;
+
+	public ResourceUsage(long allocatedBytes, long gcCount, long gcTimeMS, long peakHeapBytes, long threadCpuNS,
+			long threadUserNS, long processCpuNS) {
+		this.allocatedBytes = allocatedBytes;
+		this.gcCount = gcCount;
+		this.gcTimeMS = gcTimeMS;
+		this.peakHeapBytes = peakHeapBytes;
+		this.threadCpuNS = threadCpuNS;
+		this.threadUserNS = threadUserNS;
+		this.processCpuNS = processCpuNS;
+	}
+
+	/**
+	 * Starts measuring the current thread.
+	 * 
+	 * @return a probe that must be stopped by the same thread
+	 */
+	public static Probe start() {
+		return new Probe();
+	}
+
+	/**
+	 * Combines the usage of multiple runs. Allocations, CPU times and GC
+	 * statistics are summed and the peak heap is the highest of the peaks.
+	 * 
+	 * @param usages the usages to combine
+	 * @return the combined usage, or {@link #NONE} if the list is empty
+	 */
+	public static ResourceUsage total(List<ResourceUsage> usages) {
+		if (usages.isEmpty()) {
+			return NONE;
+		}
+		long allocated = 0;
+		long gcCount = 0;
+		long gcTime = 0;
+		long peak = -1;
+		long threadCpu = 0;
+		long threadUser = 0;
+		long processCpu = 0;
+		for (ResourceUsage u : usages) {
+			allocated = sumMeasured(allocated, u.allocatedBytes);
+			gcCount = sumMeasured(gcCount, u.gcCount);
+			gcTime = sumMeasured(gcTime, u.gcTimeMS);
+			peak = Math.max(peak, u.peakHeapBytes);
+			threadCpu = sumMeasured(threadCpu, u.threadCpuNS);
+			threadUser = sumMeasured(threadUser, u.threadUserNS);
+			processCpu = sumMeasured(processCpu, u.processCpuNS);
+		}
+		return new ResourceUsage(allocated, gcCount, gcTime, peak, threadCpu, threadUser, processCpu);
+	}
+
+	private static long sumMeasured(long a, long b) {
+		return a < 0 || b < 0 ? -1 : a + b;
+	}
+
+	/**
+	 * For parts that ran at the same time as others, when the JVM wide peak
+	 * heap does not belong to any single part.
+	 * 
+	 * @return this usage with the peak heap marked as not measured
+	 */
+	public ResourceUsage withoutPeakHeap() {
+		return new ResourceUsage(allocatedBytes, gcCount, gcTimeMS, -1, threadCpuNS, threadUserNS, processCpuNS);
+	}
+
+	/**
+	 * How many cores were busy on average during the given wall time. Values
+	 * well above 1 mean the solution used extra threads.
+	 * 
+	 * @param wallNS the wall time this usage was measured over
+	 * @return process CPU time divided by wall time, or NaN if not measured
+	 */
+	public double cpuWallRatio(long wallNS) {
+		return processCpuNS < 0 || wallNS <= 0 ? Double.NaN : processCpuNS / (double) wallNS;
+	}
+
+	/**
+	 * 
+	 * @return a single line summary of the CPU usage
+	 */
+	public String cpuSummary() {
+		return "thread " + TimeUtils.getTimeString(threadCpuNS) //
+				+ " (user " + TimeUtils.getTimeString(threadUserNS) + ")" //
+				+ ", process " + TimeUtils.getTimeString(processCpuNS);
+	}
+
+	/**
+	 * 
+	 * @return a single line summary of the memory usage
+	 */
+	public String summary() {
+		return "allocated " + MemoryUtils.getByteString(allocatedBytes) //
+				+ ", GC " + gcCount + " (" + gcTimeMS + " ms)" //
+				+ ", peak heap " + MemoryUtils.getByteString(peakHeapBytes);
+	}
+
+	@Override
+	public String toString() {
+		return "ResourceUsage [allocatedBytes=" + allocatedBytes + ", gcCount=" + gcCount + ", gcTimeMS=" + gcTimeMS
+				+ ", peakHeapBytes=" + peakHeapBytes + ", threadCpuNS=" + threadCpuNS + ", threadUserNS="
+				+ threadUserNS + ", processCpuNS=" + processCpuNS + "]";
+	}
+
+	/**
+	 * Snapshot of the counters at the start of a measurement.
+	 */
+	public static class Probe {
+
+		private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+		private static final ThreadMXBean CPU = ManagementFactory.getThreadMXBean();
+		private static final OperatingSystemMXBean OS = osBean();
+
+		private final long allocated;
+		private final long gcCount;
+		private final long gcTime;
+		private final long threadCpu;
+		private final long threadUser;
+		private final long processCpu;
+
+		private Probe() {
+			for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+				if (pool.getType() == MemoryType.HEAP) {
+					pool.resetPeakUsage();
+				}
+			}
+			gcCount = gcCount();
+			gcTime = gcTime();
+			allocated = allocatedBytes();
+			processCpu = processCpuTime();
+			threadUser = threadUserTime();
+			threadCpu = threadCpuTime();
+		}
+
+		/**
+		 * 
+		 * @return the usage since this probe was started
+		 */
+		public ResourceUsage stop() {
+			long threadCpuNow = threadCpuTime();
+			long threadUserNow = threadUserTime();
+			long processCpuNow = processCpuTime();
+			long allocatedNow = allocatedBytes();
+			long peak = 0;
+			for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+				if (pool.getType() == MemoryType.HEAP) {
+					peak += pool.getPeakUsage().getUsed();
+				}
+			}
+			return new ResourceUsage(allocated < 0 ? -1 : allocatedNow - allocated, gcCount() - gcCount,
+					gcTime() - gcTime, peak, //
+					threadCpu < 0 ? -1 : threadCpuNow - threadCpu, //
+					threadUser < 0 ? -1 : threadUserNow - threadUser, //
+					processCpu < 0 ? -1 : processCpuNow - processCpu);
+		}
+
+		private static long threadCpuTime() {
+			return CPU.isCurrentThreadCpuTimeSupported() ? CPU.getCurrentThreadCpuTime() : -1;
+		}
+
+		private static long threadUserTime() {
+			return CPU.isCurrentThreadCpuTimeSupported() ? CPU.getCurrentThreadUserTime() : -1;
+		}
+
+		private static long processCpuTime() {
+			return OS == null ? -1 : OS.getProcessCpuTime();
+		}
+
+		private static long allocatedBytes() {
+			if (THREADS == null || !THREADS.isThreadAllocatedMemoryEnabled()) {
+				return -1;
+			}
+			return THREADS.getCurrentThreadAllocatedBytes();
+		}
+
+		private static long gcCount() {
+			long count = 0;
+			for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+				count += Math.max(0, gc.getCollectionCount());
+			}
+			return count;
+		}
+
+		private static long gcTime() {
+			long time = 0;
+			for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+				time += Math.max(0, gc.getCollectionTime());
+			}
+			return time;
+		}
+
+		private static OperatingSystemMXBean osBean() {
+			if (ManagementFactory.getOperatingSystemMXBean() instanceof OperatingSystemMXBean os) {
+				return os;
+			}
+			return null;
+		}
+
+		private static com.sun.management.ThreadMXBean threadBean() {
+			if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean t
+					&& t.isThreadAllocatedMemorySupported()) {
+				return t;
+			}
+			return null;
+		}
+	}
+}
@@ -25,13 +25,24 @@ public sealed class Solution permits TestSolution {
 	public final String solution;
 	public final long solutiontimeNS;
 
+	/**
+	 * CPU time, memory and GC usage while solving, {@link ResourceUsage#NONE}
+	 * if not measured.
+	 */
+	public final ResourceUsage usage;
+
 	public Solution(int year, int day, Part part, String solution, long solutiontimeNS) {
+		this(year, day, part, solution, solutiontimeNS, ResourceUsage.NONE);
+	}
+
+	public Solution(int year, int day, Part part, String solution, long solutiontimeNS, ResourceUsage usage) {
 		super();
 		this.year = year;
 		this.day = day;
 		this.part = part;
 		this.solution = solution;
 		this.solutiontimeNS = solutiontimeNS;
+		this.usage = usage;
 		if (solution == null) {
 			solution = "null";
 		}
@@ -2,23 +2,47 @@ package com.github.aoclib.solver;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.Month;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
-import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import com.github.aoclib.api.AOCApi;
 import com.github.aoclib.api.Api;
 import com.github.aoclib.api.Input;
 import com.github.aoclib.api.SubmitStatus;
+import com.github.aoclib.benchmark.BenchmarkComparison;
+import com.github.aoclib.benchmark.BenchmarkComparison.Entry;
+import com.github.aoclib.benchmark.BenchmarkComparison.Row;
+import com.github.aoclib.benchmark.BenchmarkComparison.YearTotal;
+import com.github.aoclib.benchmark.BenchmarkHistory;
+import com.github.aoclib.benchmark.BenchmarkHistory.Comparison;
+import com.github.aoclib.benchmark.BenchmarkRunner;
+import com.github.aoclib.benchmark.BenchmarkUnit;
+import com.github.aoclib.benchmark.ForkedRunner;
+import com.github.aoclib.benchmark.ParallelScheduler;
+import com.github.aoclib.benchmark.ParallelScheduler.Mode;
+import com.github.aoclib.benchmark.ParallelScheduler.Report;
+import com.github.aoclib.benchmark.PartResult;
+import com.github.aoclib.db.BenchmarkRecord;
 import com.github.aoclib.db.DBManager;
 import com.github.aoclib.db.SolutionData;
 import com.github.aoclib.utils.DayGenerator;
+import com.github.aoclib.utils.MemoryUtils;
 import com.github.aoclib.utils.TimeUtils;
 
 import net.sourceforge.argparse4j.ArgumentParsers;
@@ -48,6 +72,12 @@ public class Solver {
 
 	private DayProvider dayprovider;
 
+	/**
+	 * Rows of the machine-readable report, written at the end of the run if
+	 * --report is given.
+	 */
+	private final List<ReportRecord> reportRecords = new ArrayList<>();
+
 	Namespace parsedArgs;
 
 	public Solver(String[] args) {
@@ -107,14 +137,59 @@ public class Solver {
 		puzzleSolve.addArgument("-p", "--part").choices(List.of("1", "2", "both")).setDefault("both").required(false)
 				.help("Which puzzle part to solve");
 
+		puzzleSolve.addArgument("--timeout").setDefault(0L).type(Long.class).metavar("SECONDS")
+				.help("Time budget for each part in seconds. A part that runs longer is interrupted. 0 means no limit. Days may override this with TIME_BUDGET_MS.");
+
+		puzzleSolve.addArgument("--input-file").metavar("FILE")
+				.help("Solve against this file instead of the puzzle input, for example a large generated input. The file is memory-mapped and the answers are not checked or submitted.");
+
+		addReportArguments(solver);
+
 		Subparser benchmark = subs.addParser(BENCHMARK);
 
-		benchmark.addArgument("-u", "--user").required(true)
-				.help("Local username. Database must have a cookie with this name. For help, run: user -h");
+		benchmark.addArgument("-u", "--user")
+				.help("Local username. Database must have a cookie with this name. Required unless --compare is given. For help, run: user -h");
 
 		benchmark.addArgument("-c", "--count").setDefault(1).type(Integer.class).help(
 				"How many times benchmarks should run. There might be distinct results between runs due to JVM warmup.");
 
+		benchmark.addArgument("--timeout").setDefault(300L).type(Long.class).metavar("SECONDS")
+				.help("Time budget for each iteration of a part in seconds. A part that runs longer is interrupted and reported as a timeout, and the benchmark continues with the next day. 0 means no limit. Days may override this with TIME_BUDGET_MS.");
+
+		benchmark.addArgument("-w", "--warmup").setDefault(2).type(Integer.class)
+				.help("Warmup iterations per part. These are run before measuring and are not part of the results.");
+
+		benchmark.addArgument("-i", "--iterations").setDefault(5).type(Integer.class)
+				.help("Measured iterations per part. Each iteration gets a fresh parser on top of the cached input.");
+
+		benchmark.addArgument("--compare-baseline").nargs("?").setConst("latest").metavar("RUN_ID")
+				.help("Compare the medians to a stored run and flag the regressions. Without RUN_ID, each part is compared to the latest stored run.");
+
+		benchmark.addArgument("--threshold").setDefault(10.0).type(Double.class)
+				.help("How many percent slower the median may be compared to the baseline before it is reported as a regression.");
+
+		benchmark.addArgument("--no-store").action(Arguments.storeTrue())
+				.help("Do not store the results of this run to the database.");
+
+		MutuallyExclusiveGroup isolation = benchmark.addMutuallyExclusiveGroup();
+
+		isolation.addArgument("--fork").nargs("?").setConst("day").choices(List.of("day", "part"))
+				.help("Run each day, or each part, in a fresh child JVM with the same classpath. Custom DayProviders need a public no-arg constructor.");
+
+		benchmark.addArgument("--jvm-args").metavar("ARGS")
+				.help("Extra arguments for the forked JVMs as a single string, for example: --jvm-args=\"-Xmx2g -XX:+UseParallelGC\"");
+
+		isolation.addArgument("--parallel").setDefault(0).type(Integer.class).metavar("N")
+				.help("Benchmark all the selected parts on a work-stealing pool with N workers. 0 runs the days one by one.");
+
+		benchmark.addArgument("--parallel-mode").choices(List.of("isolated", "throughput")).setDefault("isolated")
+				.help("isolated: each part runs alone on its own core, at most one worker per core. throughput: all parts run at the same time, interleaving their iterations.");
+
+		addReportArguments(benchmark);
+
+		benchmark.addArgument("--compare").nargs(2).metavar("RUN_A", "RUN_B")
+				.help("Do not run anything, but compare two earlier result sets part by part. Each one is either a stored run id or a report file written with --report. Prints the speedup of the medians and whether the difference of the means is significant at the 95% level (Welch's t-test).");
+
 		int benchYear;
 		if (now.getMonth() == Month.DECEMBER) {
 			benchYear = now.getYear();
@@ -208,6 +283,10 @@ public class Solver {
 		ResultData s = new ResultData();
 		SolutionData oldData = DBManager.getSolution(year, day, username);
 
+		if (options.inputFile != null) {
+			// answers to another input say nothing about the puzzle answers
+			oldData = new SolutionData(Solution.NULL_SOLUTION, Solution.NULL_SOLUTION);
+		}
 		if (options.skipSolved && oldData.bothSolved()) {
 			System.out.println(day + "/" + year + " solved already. skipping..");
 			return s;
@@ -218,7 +297,8 @@ public class Solver {
 			System.out.println("Day implementation was not provided. skipping..");
 			return s;
 		}
-		Input input = Input.get(year, day, username);
+		Input input = options.inputFile != null ? Input.fromFile(options.inputFile)
+				: Input.get(year, day, username);
 
 		// I would assume the day would know its own day/year though. Ugly.
 		daySolver.setup(new Parameters(year, day), input.parser());
@@ -232,9 +312,10 @@ public class Solver {
 			s.firstPart = solvePart(username, //
 					options, //
 					daySolver, //
+					Part.FIRST, //
 					daySolver::testFirstPart, //
 					daySolver::solveFirstPart, oldData.firstSolution.solution);
-			if (s.firstPart.correct) {
+			if (s.firstPart.correct || options.inputFile != null) {
 				runSecondPart = true;
 			}
 		}
@@ -246,6 +327,7 @@ public class Solver {
 				s.secondPart = solvePart(username, //
 						options, //
 						daySolver, //
+						Part.SECOND, //
 						daySolver::testSecondPart, //
 						daySolver::solveSecondPart, oldData.secondSolution.solution);
 
@@ -254,31 +336,56 @@ public class Solver {
 		return s;
 	}
 
-	private PartSolveData solvePart(String username, Options options, DayX ctx, Function<int[], Boolean> tests,
-			Supplier<Solution> solver, String knownCorrect) throws SQLException, IOException {
+	private PartSolveData solvePart(String username, Options options, DayX ctx, Part part,
+			Function<int[], Boolean> tests, Callable<Solution> solver, String knownCorrect)
+			throws SQLException, IOException, InterruptedException {
 		PartSolveData psd = new PartSolveData();
 
 		// perform tests
 		if (options.runTests) {
 			boolean testsPassed = tests.apply(options.testsToSkip);
 			if (!testsPassed) {
+				psd.status = PartStatus.TESTS_FAILED;
 				psd.statusMsg = "Tests failed.";
 				return psd;
 			} else if (ctx.onlyTest()) {
+				psd.status = PartStatus.ONLY_TESTED;
 				psd.statusMsg = "Tests passed, but ONLY_TEST was set true. Wont run with the main input.";
 				return psd;
 			}
 		}
 
-		Solution solution = solver.get();
+		long budget = ctx.timeBudgetMS(options.timeBudgetMS);
+		Solution solution;
+		try {
+			solution = PartExecutor.run(solver, budget, PartExecutor.threadName(ctx, part));
+		} catch (TimeoutException e) {
+			psd.status = PartStatus.TIMEOUT;
+			psd.statusMsg = "Time budget of " + TimeUtils.getTimeString(budget * 1_000_000)
+					+ " exceeded. The part was interrupted.";
+			return psd;
+		} catch (ExecutionException e) {
+			psd.status = PartStatus.ERROR;
+			psd.statusMsg = "The part threw an exception: " + e.getCause();
+			e.getCause().printStackTrace();
+			return psd;
+		}
 		if (solution.solution.equals(DayX.NOT_SOLVED)) {
+			psd.status = PartStatus.NOT_SOLVED;
 			psd.statusMsg = "Solution not implemented!";
 			return psd;
 		}
 
 		psd.solution = solution;
 
+		if (options.inputFile != null) {
+			psd.status = PartStatus.NOT_SUBMITTED;
+			psd.statusMsg = "Solution (" + solution.solution + ") to " + options.inputFile
+					+ ". Not checked or submitted.";
+			return psd;
+		}
 		if (knownWrongSolution(username, solution)) {
+			psd.status = PartStatus.INCORRECT;
 			psd.statusMsg = "This solution (" + solution.solution + ") is known to be wrong.";
 			return psd;
 		}
@@ -286,20 +393,25 @@ public class Solver {
 			if (knownCorrect.equals(solution.solution)) {
 
 				psd.correct = true;
+				psd.status = PartStatus.CORRECT;
 				psd.statusMsg = "Solution (" + solution.solution + ") known to be correct";
 			} else {
+				psd.status = PartStatus.INCORRECT;
 				psd.statusMsg = "There is a correct solution(" + knownCorrect + "), but this time solution was "
 						+ solution.solution;
 			}
 		} else {
 			if (solution.isNull()) {
+				psd.status = PartStatus.NOT_SUBMITTED;
 				psd.statusMsg = "Solution is null or null-like: " + solution.solution + "\nRefusing to submit.";
 			} else if (!options.noSubmit) {
 				AOCVerify ao = verifyResultAtAOC(username, solution);
 				psd.correct = ao.result == Result.CORRECT;
+				psd.status = psd.correct ? PartStatus.CORRECT : PartStatus.INCORRECT;
 				psd.statusMsg = ao.msg;
 
 			} else {
+				psd.status = PartStatus.NOT_SUBMITTED;
 				psd.statusMsg = "No submits allowed (remove nosubmit-option from cli)";
 
 			}
@@ -409,75 +521,202 @@ public class Solver {
 		System.out.println("Solving " + day + "/" + year + " for user " + uname);
 		Options o = new Options();
 		o.preLoadInput = true;
+		o.timeBudgetMS = parsedArgs.getLong("timeout") * 1000;
+		if (parsedArgs.getString("input_file") != null) {
+			o.inputFile = Paths.get(parsedArgs.getString("input_file"));
+			o.noSubmit = true;
+		}
 		try {
 			ResultData stats = solve(uname, year, day, o);
 			if (stats.firstPart != null) {
+				reportRecords.add(ReportRecord.fromSolve(uname, year, day, Part.FIRST, stats.firstPart));
 				System.out.println("Part1: " + stats.firstPart.statusMsg);
 				if (stats.firstPart.solution != null) {
 					System.out.println("Time:" + TimeUtils.getTimeString(stats.firstPart.solution.solutiontimeNS));
+					System.out.println("CPU: " + stats.firstPart.solution.usage.cpuSummary());
+					System.out.println("Memory: " + stats.firstPart.solution.usage.summary());
 				}
 			}
 			if (stats.secondPart != null) {
+				reportRecords.add(ReportRecord.fromSolve(uname, year, day, Part.SECOND, stats.secondPart));
 				System.out.println("Part2: " + stats.secondPart.statusMsg);
 				if (stats.secondPart.solution != null) {
 					System.out.println("Time:" + TimeUtils.getTimeString(stats.secondPart.solution.solutiontimeNS));
+					System.out.println("CPU: " + stats.secondPart.solution.usage.cpuSummary());
+					System.out.println("Memory: " + stats.secondPart.solution.usage.summary());
 				}
 			}
 		} catch (SQLException | IOException | InterruptedException e) {
 			e.printStackTrace();
 		}
+		writeReport();
 	}
 
 	private void doBenchmark() {
+		if (parsedArgs.getList("compare") != null) {
+			doCompare(parsedArgs.getList("compare"));
+			return;
+		}
 		String uname = parsedArgs.getString("user");
+		if (uname == null) {
+			System.err.println("benchmark: argument -u/--user is required");
+			return;
+		}
 		int year = parsedArgs.getInt("year");
 		int count = parsedArgs.getInt("count");
+		int warmup = parsedArgs.getInt("warmup");
+		BenchmarkRunner runner = new BenchmarkRunner(warmup, parsedArgs.getInt("iterations"),
+				parsedArgs.getLong("timeout") * 1000);
 		System.out.println(parsedArgs);
+		String runId = BenchmarkHistory.newRunId();
+		ForkedRunner forked = null;
+		if (parsedArgs.getString("fork") != null) {
+			String jvmArgs = parsedArgs.getString("jvm_args");
+			forked = new ForkedRunner(uname, dayprovider,
+					jvmArgs == null || jvmArgs.isBlank() ? List.of() : List.of(jvmArgs.trim().split("\\s+")), runner);
+		}
 		for (int c = 0; c < count; c++) {
-			if (year == 0) {
+			BenchmarkHistory history = new BenchmarkHistory(uname, count > 1 ? runId + "-" + (c + 1) : runId, warmup);
+			System.out.println("Benchmark run: " + history.runId());
+			int parallel = parsedArgs.getInt("parallel");
+			if (parallel > 0) {
+				List<Integer> years = year == 0 ? IntStream.range(2015, maxYear).boxed().toList() : List.of(year);
+				Mode mode = Mode.valueOf(parsedArgs.getString("parallel_mode").toUpperCase());
+				parallelBenchmark(years, uname, new ParallelScheduler(parallel, mode, runner), history);
+			} else if (year == 0) {
 
 				for (int i = 2015; i < maxYear; i++) {
 
-					benchmark(i, uname);
+					benchmark(i, uname, runner, forked, history);
 				}
 
 			} else {
-				benchmark(year, uname);
+				benchmark(year, uname, runner, forked, history);
 			}
 		}
+		writeReport();
+	}
+
+	private void doCompare(List<Object> sources) {
+		String nameA = sources.get(0).toString();
+		String nameB = sources.get(1).toString();
+		BenchmarkComparison cmp;
+		try {
+			cmp = new BenchmarkComparison(nameA, BenchmarkComparison.load(nameA), nameB,
+					BenchmarkComparison.load(nameB));
+		} catch (IOException | SQLException | IllegalArgumentException e) {
+			System.err.println("Could not load the results: " + e.getMessage());
+			return;
+		}
+		int size = 45;
+		System.out.println("Comparing " + nameA + " (A) to " + nameB + " (B)");
+		System.out.println(String.format("%-14s %16s %16s %9s %9s  %s", "part", "median A", "median B", "change",
+				"speedup", "significant"));
+		for (Row r : cmp.rows) {
+			Entry a = r.a();
+			String significance = Double.isNaN(r.t()) ? "n/a" : r.significant() ? "yes" : "no";
+			System.out.println(String.format("%-14s %16s %16s %+8.1f%% %8.2fx  %s",
+					a.day() + "/" + a.year() + " Part" + a.part().intvalue, TimeUtils.getTimeString(a.median()),
+					TimeUtils.getTimeString(r.b().median()), r.changePercent(), r.speedup(), significance));
+		}
+		cmp.onlyA.forEach(e -> System.out.println(e.day() + "/" + e.year() + " Part" + e.part().intvalue + ": only in A"));
+		cmp.onlyB.forEach(e -> System.out.println(e.day() + "/" + e.year() + " Part" + e.part().intvalue + ": only in B"));
+		System.out.println("-".repeat(size));
+		for (YearTotal t : cmp.yearTotals()) {
+			System.out.println(String.format("%d total (sum of medians): %s -> %s, %.2fx", t.year(),
+					TimeUtils.getTimeString(t.a()), TimeUtils.getTimeString(t.b()), t.speedup()));
+		}
+		long faster = cmp.rows.stream().filter(r -> r.significant() && r.speedup() > 1).count();
+		long slower = cmp.rows.stream().filter(r -> r.significant() && r.speedup() < 1).count();
+		System.out.println("Significantly faster: " + faster + ", slower: " + slower + ", of " + cmp.rows.size()
+				+ " parts");
+		System.out.println("-".repeat(size));
 	}
 
-	private void benchmark(int year, String uname) {
+	private void benchmark(int year, String uname, BenchmarkRunner runner, ForkedRunner forked,
+			BenchmarkHistory history) {
 
 		long start = System.nanoTime();
 		long totalTime = 0;
 		int unsolved = 0;
-		Options o = new Options();
-		o.noSubmit = true;
-		o.runTests = false;
+		int failed = 0;
+		List<String> regressions = new ArrayList<>();
 		for (int i = 1; i <= 25; i++) {
 			try {
 				SolutionData sd = DBManager.getSolution(year, i, uname);
-				if (sd.bothSolved()) {
-					ResultData stats = solve(uname, year, i, o);
-					if (stats.firstPart.solution != null) {
-						long firstTime = stats.firstPart.solution.solutiontimeNS;
-						System.out.print(i + "/" + year + ": Part1 " + TimeUtils.getTimeString(firstTime));
-						totalTime += firstTime;
-						// TODO: if part1 fails for whatever reason, obviously part2 was not executed.
-						// TODO: make sure to report failed benchmarks
-						if (stats.secondPart.solution != null) {
-							long secondTime = stats.secondPart.solution.solutiontimeNS;
-							System.out.println(", Part2 " + TimeUtils.getTimeString(secondTime));
-							totalTime += secondTime;
-						}
-					} else {
-						System.err.println("first part failed.");
-					}
-				} else {
+				if (!sd.bothSolved()) {
 					unsolved++;
+					continue;
 				}
-			} catch (SQLException | IOException | InterruptedException e) {
+				DayX daySolver = dayprovider.get(year, i);
+				if (daySolver == DayProvider.NOP) {
+					System.err.println(i + "/" + year + ": day implementation was not provided.");
+					failed++;
+					continue;
+				}
+				Function<Part, PartResult> measure;
+				// the status the forked JVM reported for the failed parts
+				Map<Part, PartStatus> forkFailures = new EnumMap<>(Part.class);
+				if (forked == null) {
+					Input input = Input.get(year, i, uname);
+					daySolver.setup(new Parameters(year, i), input.parser());
+					measure = part -> measureInProcess(runner, daySolver, part, input.lines(), history);
+				} else if (parsedArgs.getString("fork").equals("part")) {
+					int day = i;
+					measure = part -> {
+						ForkedRunner.Run run = forked.run(year, day, List.of(part));
+						forkFailures.put(part, run.failure(part));
+						return run.results().get(part);
+					};
+				} else {
+					ForkedRunner.Run run = forked.run(year, i, List.of(Part.values()));
+					for (Part part : Part.values()) {
+						forkFailures.put(part, run.failure(part));
+					}
+					measure = run.results()::get;
+				}
+
+				PartResult first = measure.apply(Part.FIRST);
+				if (first == null) {
+					if (forked != null) {
+						reportFailure(history, year, i, Part.FIRST, forkFailures.get(Part.FIRST));
+					}
+					System.err.println(i + "/" + year + ": Part1 failed. Skipping part 2.");
+					failed++;
+					continue;
+				}
+				if (!first.solution.equals(sd.firstSolution.solution)) {
+					reportIncorrect(history, first);
+					System.err.println(i + "/" + year + ": Part1 returned " + first.solution + ", expected "
+							+ sd.firstSolution.solution + ". Skipping part 2.");
+					failed++;
+					continue;
+				}
+				printPartResult(first);
+				recordPartResult(first, daySolver, history, regressions);
+				totalTime += first.time.p50;
+
+				PartResult second = measure.apply(Part.SECOND);
+				if (second == null) {
+					if (forked != null) {
+						reportFailure(history, year, i, Part.SECOND, forkFailures.get(Part.SECOND));
+					}
+					System.err.println(i + "/" + year + ": Part2 failed.");
+					failed++;
+					continue;
+				}
+				if (!second.solution.equals(sd.secondSolution.solution)) {
+					reportIncorrect(history, second);
+					System.err.println(i + "/" + year + ": Part2 returned " + second.solution + ", expected "
+							+ sd.secondSolution.solution);
+					failed++;
+					continue;
+				}
+				printPartResult(second);
+				recordPartResult(second, daySolver, history, regressions);
+				totalTime += second.time.p50;
+				printEfficiency(first, second);
+			} catch (SQLException e) {
 				e.printStackTrace();
 			}
 		}
@@ -486,13 +725,215 @@ public class Solver {
 		long wallTime = System.nanoTime() - start;
 		System.out.println("Year stats:");
 		System.out.println("-".repeat(size));
-		System.out.println("Task algorithm time:" + TimeUtils.getTimeString(totalTime));
+		System.out.println("Task algorithm time (sum of medians):" + TimeUtils.getTimeString(totalTime));
 		System.out.println("Benchmark wall time:" + TimeUtils.getTimeString(wallTime));
-		System.out.print((unsolved > 0 ? "Unsolved tasks:" + unsolved : "") + "\n");
+		System.out.print((unsolved > 0 ? "Unsolved tasks:" + unsolved + "\n" : ""));
+		System.out.print((failed > 0 ? "Failed tasks:" + failed + "\n" : ""));
+		if (!regressions.isEmpty()) {
+			System.out.println("Regressions:");
+			regressions.forEach(r -> System.out.println("\t" + r));
+		}
 		System.out.println("-".repeat(size));
 		System.out.println("*".repeat(size));
 	}
 
+	/**
+	 * Benchmarks all the solved parts of the given years at once. Unlike
+	 * {@link #benchmark(int, String, BenchmarkRunner, ForkedRunner, BenchmarkHistory)}, the
+	 * inputs are loaded before anything is measured and every part gets its own
+	 * {@link DayX} instance.
+	 */
+	private void parallelBenchmark(List<Integer> years, String uname, ParallelScheduler scheduler,
+			BenchmarkHistory history) {
+		List<BenchmarkUnit> units = new ArrayList<>();
+		Map<BenchmarkUnit, String> expected = new HashMap<>();
+		int unsolved = 0;
+		for (int year : years) {
+			for (int i = 1; i <= 25; i++) {
+				try {
+					SolutionData sd = DBManager.getSolution(year, i, uname);
+					if (!sd.bothSolved()) {
+						unsolved++;
+						continue;
+					}
+					Input input = Input.get(year, i, uname);
+					for (Part part : Part.values()) {
+						DayX daySolver = dayprovider.get(year, i);
+						if (daySolver == DayProvider.NOP) {
+							System.err.println(i + "/" + year + ": day implementation was not provided.");
+							break;
+						}
+						daySolver.setup(new Parameters(year, i), input.parser());
+						BenchmarkUnit unit = new BenchmarkUnit(year, i, part, daySolver, input.lines());
+						units.add(unit);
+						expected.put(unit,
+								part == Part.FIRST ? sd.firstSolution.solution : sd.secondSolution.solution);
+					}
+				} catch (SQLException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+
+		Report report = scheduler.run(units);
+
+		long totalTime = 0;
+		int failed = 0;
+		List<String> regressions = new ArrayList<>();
+		for (BenchmarkUnit unit : units) {
+			String name = unit.day + "/" + unit.year + ": Part" + unit.part.intvalue;
+			PartResult r = unit.result();
+			if (r == null) {
+				System.err.println(name + " failed: " + unit.error());
+				reportFailure(history, unit.year, unit.day, unit.part,
+						unit.error() instanceof TimeoutException ? PartStatus.TIMEOUT : PartStatus.ERROR);
+				failed++;
+			} else if (!r.solution.equals(expected.get(unit))) {
+				reportIncorrect(history, r);
+				System.err.println(name + " returned " + r.solution + ", expected " + expected.get(unit));
+				failed++;
+			} else {
+				printPartResult(r);
+				totalTime += r.time.p50;
+				try {
+					recordPartResult(r, unit.solver, history, regressions);
+				} catch (SQLException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+
+		int size = 45;
+		System.out.println("*".repeat(size));
+		System.out.println("Parallel stats (" + parsedArgs.getString("parallel_mode") + ", " + report.parallelism()
+				+ " workers):");
+		System.out.println("-".repeat(size));
+		System.out.println("Task algorithm time (sum of medians):" + TimeUtils.getTimeString(totalTime));
+		System.out.println("Aggregate CPU time:" + TimeUtils.getTimeString(report.cpuNS()));
+		System.out.println("Sum of iteration times:" + TimeUtils.getTimeString(report.busyNS()));
+		System.out.println("Benchmark wall time:" + TimeUtils.getTimeString(report.wallNS()));
+		System.out.println(String.format("Speedup: %.2fx", report.speedup()));
+		System.out.print((unsolved > 0 ? "Unsolved tasks:" + unsolved + "\n" : ""));
+		System.out.print((failed > 0 ? "Failed tasks:" + failed + "\n" : ""));
+		if (!regressions.isEmpty()) {
+			System.out.println("Regressions:");
+			regressions.forEach(r -> System.out.println("\t" + r));
+		}
+		System.out.println("-".repeat(size));
+		System.out.println("*".repeat(size));
+	}
+
+	/**
+	 * Stores the result and compares it to the baseline, if requested from the
+	 * command line.
+	 */
+	private void recordPartResult(PartResult r, DayX daySolver, BenchmarkHistory history,
+			List<String> regressions) throws SQLException {
+		BenchmarkRecord record = history.toRecord(r, daySolver.getClass());
+		String baseline = parsedArgs.getString("compare_baseline");
+		if (baseline != null) {
+			Optional<Comparison> cmp = history.compare(record, baseline.equals("latest") ? null : baseline,
+					parsedArgs.getDouble("threshold"));
+			if (cmp.isPresent()) {
+				Comparison comparison = cmp.get();
+				String msg = String.format("%d/%d Part%d: median %s -> %s (%+.1f%%) vs run %s", r.day, r.year,
+						r.part.intvalue, TimeUtils.getTimeString(comparison.baseline().time.p50),
+						TimeUtils.getTimeString(r.time.p50), comparison.changePercent(),
+						comparison.baseline().runId);
+				System.out.println("\t" + (comparison.regressed() ? "REGRESSION " : "baseline ") + msg);
+				if (comparison.regressed()) {
+					regressions.add(msg);
+				}
+			} else {
+				System.out.println("\tNo baseline found.");
+			}
+		}
+		if (!parsedArgs.getBoolean("no_store")) {
+			history.store(record);
+		}
+		reportRecords.add(ReportRecord.fromBenchmark(record.runId, record.user, r, PartStatus.CORRECT, record.warmup));
+	}
+
+	private void reportIncorrect(BenchmarkHistory history, PartResult r) {
+		reportRecords.add(ReportRecord.fromBenchmark(history.runId(), history.user(), r, PartStatus.INCORRECT,
+				history.warmup()));
+	}
+
+	private void reportFailure(BenchmarkHistory history, int year, int day, Part part, PartStatus status) {
+		reportRecords.add(ReportRecord.failedBenchmark(history.runId(), history.user(), year, day, part, status));
+	}
+
+	private static void addReportArguments(Subparser parser) {
+		parser.addArgument("--report").choices(List.of("json", "csv"))
+				.help("Write a machine-readable report of the run to the file given with --out.");
+		parser.addArgument("--out").metavar("FILE")
+				.help("Target file of --report. Defaults to report.json or report.csv in the working directory.");
+	}
+
+	/**
+	 * Writes the collected records, if a report was requested.
+	 */
+	private void writeReport() {
+		String format = parsedArgs.getString("report");
+		if (format == null) {
+			return;
+		}
+		String out = parsedArgs.getString("out");
+		Path file = Paths.get(out != null ? out : "report." + format);
+		try {
+			ReportWriter.write(reportRecords, ReportWriter.Format.valueOf(format.toUpperCase()), file);
+			System.out.println("Report written to " + file.toAbsolutePath());
+		} catch (IOException e) {
+			System.err.println("Could not write the report to " + file + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Measures a part in this JVM. Timeouts and exceptions are reported here and
+	 * result in null, so that the rest of the days can continue.
+	 */
+	private PartResult measureInProcess(BenchmarkRunner runner, DayX daySolver, Part part, List<String> lines,
+			BenchmarkHistory history) {
+		Parameters p = daySolver.getParameters();
+		try {
+			return runner.measure(daySolver, part, lines);
+		} catch (TimeoutException e) {
+			reportFailure(history, p.getYear(), p.getDay(), part, PartStatus.TIMEOUT);
+			System.err.println(PartExecutor.threadName(daySolver, part) + ": TIMEOUT, exceeded the budget of "
+					+ TimeUtils.getTimeString(daySolver.timeBudgetMS(runner.timeBudgetMS()) * 1_000_000));
+		} catch (ExecutionException e) {
+			reportFailure(history, p.getYear(), p.getDay(), part, PartStatus.ERROR);
+			System.err.println(PartExecutor.threadName(daySolver, part) + ": threw an exception");
+			e.getCause().printStackTrace();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return null;
+	}
+
+	/**
+	 * Prints how many cores the day kept busy on average. A ratio of about 1
+	 * means a single threaded solution.
+	 */
+	private static void printEfficiency(PartResult first, PartResult second) {
+		long wall = first.totalTimeNS() + second.totalTimeNS();
+		ResourceUsage usage = ResourceUsage.total(List.of(first.usage, second.usage));
+		System.out.println(String.format("%d/%d: parallel efficiency (process CPU / wall) %.2f, thread CPU / wall %.2f",
+				first.day, first.year, usage.cpuWallRatio(wall),
+				usage.threadCpuNS < 0 ? Double.NaN : usage.threadCpuNS / (double) wall));
+	}
+
+	private static void printPartResult(PartResult r) {
+		System.out.println(r.day + "/" + r.year + ": Part" + r.part.intvalue + " median "
+				+ TimeUtils.getTimeString(r.time.p50));
+		System.out.println("\t" + r.time.summary());
+		System.out.println("\tCPU total: " + r.usage.cpuSummary() + ", wall "
+				+ TimeUtils.getTimeString(r.totalTimeNS()));
+		System.out.println("\tper iteration: allocated " + MemoryUtils.getByteString(r.allocatedBytesPerIteration())
+				+ ", total GC " + r.usage.gcCount + " (" + r.usage.gcTimeMS + " ms), peak heap "
+				+ MemoryUtils.getByteString(r.usage.peakHeapBytes));
+	}
+
 	private void doTools() {
 		String arg = parsedArgs.getString("generate_year");
 		if (arg != null) {
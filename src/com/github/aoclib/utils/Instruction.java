@@ -18,10 +18,23 @@ public class Instruction{
 		return values.get(0);
 	}
 
+	/**
+	 * 
+	 * @param i index of the argument, the name is not an argument
+	 * @return the argument, or an empty String if there are not that many
+	 */
 	public String arg(int i){
-		if(values.size() < i){
+		if(i < 0 || i + 1 >= values.size()){
 			return "";
 		}
 		return values.get(i + 1);
 	}
+
+	/**
+	 * 
+	 * @return number of arguments after the name
+	 */
+	public int argCount(){
+		return values.size() - 1;
+	}
 }
@@ -0,0 +1,27 @@
+package com.github.aoclib.utils;
+
+public class MemoryUtils {
+
+	/**
+	 * Formats the byte count in a more human readable format.
+	 * 
+	 * @param bytes amount of bytes, negative if not available
+	 * @return bytes represented as string.
+	 */
+	public static String getByteString(long bytes) {
+		if (bytes < 0) {
+			return "n/a";
+		}
+		if (bytes < 1024) {
+			return bytes + " B";
+		}
+		String[] units = { "KiB", "MiB", "GiB", "TiB" };
+		double value = bytes / 1024.0;
+		int unit = 0;
+		while (value >= 1024 && unit < units.length - 1) {
+			value /= 1024;
+			unit++;
+		}
+		return String.format("%.1f %s", value, units[unit]);
+	}
+}